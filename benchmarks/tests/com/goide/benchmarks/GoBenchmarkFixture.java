@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.SdkAware;
+import com.goide.psi.GoFile;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Light code insight fixture that lives for a whole benchmark trial instead of a single test
+ */
+@SdkAware
+public class GoBenchmarkFixture extends GoCodeInsightFixtureTestCase {
+  private final List<GoFile> myFiles = ContainerUtil.newArrayList();
+  @NotNull private final String myRoot;
+
+  private GoBenchmarkFixture(@NotNull String root) {
+    myRoot = root;
+    setName("benchmark");
+  }
+
+  /**
+   * @param root directory of the corpus relative to the source root
+   */
+  @NotNull
+  public static GoBenchmarkFixture start(@NotNull String root, @NotNull Map<String, String> corpus) throws Throwable {
+    GoBenchmarkFixture fixture = new GoBenchmarkFixture(root);
+    EdtTestUtil.runInEdtAndWait(() -> {
+      fixture.setUp();
+      for (Map.Entry<String, String> entry : corpus.entrySet()) {
+        PsiFile file = fixture.myFixture.addFileToProject(entry.getKey(), entry.getValue());
+        fixture.myFiles.add((GoFile)file);
+      }
+    });
+    return fixture;
+  }
+
+  public void stop() throws Throwable {
+    EdtTestUtil.runInEdtAndWait(this::tearDown);
+  }
+
+  @NotNull
+  public CodeInsightTestFixture getFixture() {
+    return myFixture;
+  }
+
+  @NotNull
+  @Override
+  public Project getProject() {
+    return myFixture.getProject();
+  }
+
+  @NotNull
+  public List<GoFile> getFiles() {
+    return Collections.unmodifiableList(myFiles);
+  }
+
+  @NotNull
+  public PsiDirectory getCorpusDirectory() {
+    VirtualFile root = myFixture.findFileInTempDir(myRoot);
+    PsiDirectory directory = root != null ? myFixture.getPsiManager().findDirectory(root) : null;
+    assertNotNull(directory);
+    return directory;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoFileType;
+import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.openapi.util.Ref;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Basic completion in a file that imports nothing, so the candidates come from {@link com.goide.completion.GoAutoImportCompletionContributor}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoCompletionBenchmark {
+  @Param({"F", "Get"})
+  public String prefix;
+
+  @Setup(Level.Invocation)
+  public void setUp(GoCorpusState corpus) throws Throwable {
+    CodeInsightTestFixture fixture = corpus.getFixture().getFixture();
+    EdtTestUtil.runInEdtAndWait(() -> {
+      LookupManager.getInstance(fixture.getProject()).hideActiveLookup();
+      fixture.configureByText(GoFileType.INSTANCE, "package main; func main() { " + prefix + "<caret> }");
+    });
+  }
+
+  @Benchmark
+  public void complete(GoCorpusState corpus, Blackhole blackhole) throws Throwable {
+    CodeInsightTestFixture fixture = corpus.getFixture().getFixture();
+    Ref<Object> result = Ref.create();
+    EdtTestUtil.runInEdtAndWait(() -> result.set(fixture.complete(CompletionType.BASIC, 2)));
+    blackhole.consume(result.get());
+  }
+}
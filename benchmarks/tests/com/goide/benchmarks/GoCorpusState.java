@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoWorkspaceGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Project with a generated workspace shared by all invocations of a benchmark
+ */
+@State(Scope.Benchmark)
+public class GoCorpusState {
+  @Param("20")
+  public int packages;
+
+  @Param("5")
+  public int filesPerPackage;
+
+  @Param("10")
+  public int declarationsPerFile;
+
+  @Param("3")
+  public int importFanOut;
+
+  @Param("2")
+  public int vendorDepth;
+
+  private Map<String, String> myCorpus;
+  private GoBenchmarkFixture myFixture;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Throwable {
+    GoWorkspaceGenerator generator = new GoWorkspaceGenerator()
+      .packages(packages)
+      .filesPerPackage(filesPerPackage)
+      .declarationsPerFile(declarationsPerFile)
+      .importFanOut(importFanOut)
+      .vendorDepth(vendorDepth)
+      .buildTaggedFilesPerPackage(1)
+      .testFilesPerPackage(1)
+      .dotImportEvery(5);
+    myCorpus = generator.generate();
+    myFixture = GoBenchmarkFixture.start(generator.getRoot(), myCorpus);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Throwable {
+    myFixture.stop();
+  }
+
+  @NotNull
+  public Collection<String> getTexts() {
+    return myCorpus.values();
+  }
+
+  @NotNull
+  public GoBenchmarkFixture getFixture() {
+    return myFixture;
+  }
+}
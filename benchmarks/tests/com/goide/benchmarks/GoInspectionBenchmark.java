@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.InspectionProfileEntry;
+import com.intellij.codeInspection.ex.InspectionManagerEx;
+import com.intellij.codeInspection.ex.InspectionToolRegistrar;
+import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.openapi.project.Project;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.InspectionTestUtil;
+import com.intellij.testFramework.fixtures.impl.CodeInsightTestFixtureImpl;
+import com.intellij.testFramework.fixtures.impl.GlobalInspectionContextForTests;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an unused-symbol inspection over the whole corpus, as batch inspection does
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoInspectionBenchmark {
+  @Param({"GoUnusedVariableInspection", "GoUnusedGlobalVariableInspection", "GoUnusedConstInspection",
+    "GoUnusedFunctionInspection", "GoUnusedExportedFunctionInspection"})
+  public String inspection;
+
+  private InspectionToolWrapper myWrapper;
+  private AnalysisScope myScope;
+
+  @Setup(Level.Trial)
+  public void setUp(GoCorpusState corpus) throws Exception {
+    Class<?> inspectionClass = Class.forName("com.goide.inspections.unresolved." + inspection);
+    myWrapper = InspectionToolRegistrar.wrapTool((InspectionProfileEntry)inspectionClass.newInstance());
+    myScope = new AnalysisScope(corpus.getFixture().getCorpusDirectory());
+  }
+
+  @Benchmark
+  public void inspect(GoCorpusState corpus) throws Throwable {
+    Project project = corpus.getFixture().getProject();
+    InspectionManagerEx inspectionManager = (InspectionManagerEx)InspectionManager.getInstance(project);
+    GlobalInspectionContextForTests context =
+      CodeInsightTestFixtureImpl.createGlobalContextForTool(myScope, project, inspectionManager, myWrapper);
+    EdtTestUtil.runInEdtAndWait(() -> InspectionTestUtil.runTool(myWrapper, myScope, context));
+  }
+}
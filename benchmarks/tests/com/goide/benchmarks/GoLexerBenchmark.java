@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.lexer.GoLexer;
+import com.intellij.psi.tree.IElementType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GoLexerBenchmark {
+  @Benchmark
+  public void lex(GoCorpusState corpus, Blackhole blackhole) {
+    GoLexer lexer = new GoLexer();
+    for (String text : corpus.getTexts()) {
+      lexer.start(text);
+      IElementType type;
+      while ((type = lexer.getTokenType()) != null) {
+        blackhole.consume(type);
+        lexer.advance();
+      }
+    }
+  }
+}
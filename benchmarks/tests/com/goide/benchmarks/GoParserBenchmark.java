@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoLanguage;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.impl.source.tree.TreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GoParserBenchmark {
+  /**
+   * Function bodies stay collapsed
+   */
+  @Benchmark
+  public void parseTopLevel(GoCorpusState corpus, Blackhole blackhole) {
+    for (String text : corpus.getTexts()) {
+      blackhole.consume(parse(corpus, text).getLastChildNode());
+    }
+  }
+
+  @Benchmark
+  public void parseFull(GoCorpusState corpus, Blackhole blackhole) {
+    for (String text : corpus.getTexts()) {
+      ASTNode node = parse(corpus, text);
+      TreeUtil.ensureParsed(node);
+      blackhole.consume(node);
+    }
+  }
+
+  @NotNull
+  private static ASTNode parse(@NotNull GoCorpusState corpus, @NotNull String text) {
+    PsiFileFactory factory = PsiFileFactory.getInstance(corpus.getFixture().getProject());
+    return factory.createFileFromText("a.go", GoLanguage.INSTANCE, text).getNode();
+  }
+}
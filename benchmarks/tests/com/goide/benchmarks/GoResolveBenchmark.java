@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.psi.GoFile;
+import com.goide.psi.GoReferenceExpression;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves every reference expression of the corpus with resolve caches dropped, while package-level caches stay warm
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoResolveBenchmark {
+  private List<GoReferenceExpression> myReferences;
+
+  @Setup(Level.Trial)
+  public void setUp(GoCorpusState corpus) {
+    myReferences = ApplicationManager.getApplication().runReadAction((Computable<List<GoReferenceExpression>>)() -> {
+      List<GoReferenceExpression> result = ContainerUtil.newArrayList();
+      for (GoFile file : corpus.getFixture().getFiles()) {
+        result.addAll(PsiTreeUtil.findChildrenOfType(file, GoReferenceExpression.class));
+      }
+      return result;
+    });
+  }
+
+  @Benchmark
+  public void multiResolve(GoCorpusState corpus, Blackhole blackhole) {
+    PsiManager.getInstance(corpus.getFixture().getProject()).dropResolveCaches();
+    ApplicationManager.getApplication().runReadAction(() -> {
+      for (GoReferenceExpression reference : myReferences) {
+        blackhole.consume(reference.getReference().multiResolve(false));
+      }
+    });
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.GoFileElementType;
+import com.goide.GoLanguage;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.stubs.SerializationManagerEx;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoStubBenchmark {
+  private List<PsiFile> myFiles;
+  private List<byte[]> mySerialized;
+
+  @Setup(Level.Trial)
+  public void setUp(GoCorpusState corpus) {
+    PsiFileFactory factory = PsiFileFactory.getInstance(corpus.getFixture().getProject());
+    myFiles = ContainerUtil.map(corpus.getTexts(), text -> factory.createFileFromText("a.go", GoLanguage.INSTANCE, text));
+    mySerialized = ContainerUtil.map(myFiles, file -> serialize(GoFileElementType.INSTANCE.getBuilder().buildStubTree(file)));
+  }
+
+  @Benchmark
+  public void build(Blackhole blackhole) {
+    for (PsiFile file : myFiles) {
+      blackhole.consume(GoFileElementType.INSTANCE.getBuilder().buildStubTree(file));
+    }
+  }
+
+  @Benchmark
+  public void serialize(Blackhole blackhole) {
+    for (PsiFile file : myFiles) {
+      blackhole.consume(serialize(GoFileElementType.INSTANCE.getBuilder().buildStubTree(file)));
+    }
+  }
+
+  @Benchmark
+  public void deserialize(Blackhole blackhole) throws Exception {
+    for (byte[] bytes : mySerialized) {
+      blackhole.consume(SerializationManagerEx.getInstanceEx().deserialize(new ByteArrayInputStream(bytes)));
+    }
+  }
+
+  @NotNull
+  private static byte[] serialize(@NotNull StubElement stub) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SerializationManagerEx.getInstanceEx().serialize(stub, out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.benchmarks;
+
+import com.goide.runconfig.testing.*;
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.execution.testframework.sm.runner.OutputToGeneralTestEventsConverter;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.util.containers.ContainerUtil;
+import jetbrains.buildServer.messages.serviceMessages.*;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds a synthetic log of a verbose test run through the events converter of every test framework.
+ * One operation is the whole log, about 8 MB with the default parameters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoTestOutputBenchmark {
+  @Param({"gotest", "gocheck", "gobench"})
+  public String framework;
+
+  @Param("2000")
+  public int tests;
+
+  @Param("50")
+  public int linesPerTest;
+
+  private GoBenchmarkFixture myFixture;
+  private GoTestConsoleProperties myProperties;
+  private List<String> myLines;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Throwable {
+    myFixture = GoBenchmarkFixture.start("output", Collections.emptyMap());
+    GoTestRunConfiguration configuration =
+      new GoTestRunConfiguration(myFixture.getProject(), "", GoTestRunConfigurationType.getInstance());
+    configuration.setTestFramework(GoTestFramework.fromName(framework));
+    myProperties = new GoTestConsoleProperties(configuration, new DefaultRunExecutor());
+    myLines = generateOutput();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Throwable {
+    Disposer.dispose(myProperties);
+    myFixture.stop();
+  }
+
+  @Benchmark
+  public void convert(Blackhole blackhole) throws ParseException {
+    OutputToGeneralTestEventsConverter converter = myProperties.createTestEventsConverter(framework, myProperties);
+    try {
+      ServiceMessageVisitor visitor = new ConsumingVisitor(blackhole);
+      for (String line : myLines) {
+        ((GoTestEventsConverterBase)converter).processServiceMessages(line, ProcessOutputTypes.STDOUT, visitor);
+      }
+    }
+    finally {
+      Disposer.dispose(converter);
+    }
+  }
+
+  @NotNull
+  private List<String> generateOutput() {
+    List<String> lines = ContainerUtil.newArrayList();
+    boolean gocheck = "gocheck".equals(framework);
+    boolean gobench = "gobench".equals(framework);
+    if (gocheck) lines.add("=== RUN Test\n");
+    for (int i = 0; i < tests; i++) {
+      String name = gobench ? "BenchmarkOutput" + i : gocheck ? "OutputSuite.TestOutput" + i : "TestOutput" + i;
+      if (gobench) {
+        lines.add(name + "-8\t    2000\t    " + (1000 + i) + " ns/op\t  64 B/op\t   2 allocs/op\n");
+      }
+      else if (gocheck) {
+        lines.add("START: output_test.go:" + i + ": " + name + "\n");
+      }
+      else {
+        lines.add("=== RUN   " + name + "\n");
+      }
+      for (int j = 0; j < linesPerTest; j++) {
+        lines.add("\toutput_test.go:" + j + ": processed record " + j + " of " + name + ", state is {id: " + i * j + ", ok: true}\n");
+      }
+      if (gocheck) {
+        lines.add("PASS: output_test.go:" + i + ": " + name + "\t0.000s\n");
+      }
+      else if (!gobench) {
+        lines.add((i % 10 == 0 ? "--- FAIL: " : "--- PASS: ") + name + " (0.00s)\n");
+      }
+    }
+    if (gocheck) {
+      lines.add("OK: " + tests + " passed\n");
+      lines.add("--- PASS: Test (0.00s)\n");
+    }
+    lines.add("PASS\n");
+    lines.add("ok  \tgithub.com/example/output\t0.005s\n");
+    return lines;
+  }
+
+  private static class ConsumingVisitor implements ServiceMessageVisitor {
+    @NotNull private final Blackhole myBlackhole;
+
+    public ConsumingVisitor(@NotNull Blackhole blackhole) {
+      myBlackhole = blackhole;
+    }
+
+    @Override
+    public void visitTestSuiteStarted(@NotNull TestSuiteStarted suiteStarted) {
+      myBlackhole.consume(suiteStarted);
+    }
+
+    @Override
+    public void visitTestSuiteFinished(@NotNull TestSuiteFinished suiteFinished) {
+      myBlackhole.consume(suiteFinished);
+    }
+
+    @Override
+    public void visitTestStarted(@NotNull TestStarted testStarted) {
+      myBlackhole.consume(testStarted);
+    }
+
+    @Override
+    public void visitTestFinished(@NotNull TestFinished testFinished) {
+      myBlackhole.consume(testFinished);
+    }
+
+    @Override
+    public void visitTestIgnored(@NotNull TestIgnored testIgnored) {
+      myBlackhole.consume(testIgnored);
+    }
+
+    @Override
+    public void visitTestStdOut(@NotNull TestStdOut testStdOut) {
+      myBlackhole.consume(testStdOut);
+    }
+
+    @Override
+    public void visitTestStdErr(@NotNull TestStdErr testStdErr) {
+      myBlackhole.consume(testStdErr);
+    }
+
+    @Override
+    public void visitTestFailed(@NotNull TestFailed testFailed) {
+      myBlackhole.consume(testFailed);
+    }
+
+    @Override
+    public void visitPublishArtifacts(@NotNull PublishArtifacts artifacts) {
+      myBlackhole.consume(artifacts);
+    }
+
+    @Override
+    public void visitProgressMessage(@NotNull ProgressMessage message) {
+      myBlackhole.consume(message);
+    }
+
+    @Override
+    public void visitProgressStart(@NotNull ProgressStart start) {
+      myBlackhole.consume(start);
+    }
+
+    @Override
+    public void visitProgressFinish(@NotNull ProgressFinish finish) {
+      myBlackhole.consume(finish);
+    }
+
+    @Override
+    public void visitBuildStatus(@NotNull BuildStatus status) {
+      myBlackhole.consume(status);
+    }
+
+    @Override
+    public void visitBuildNumber(@NotNull BuildNumber number) {
+      myBlackhole.consume(number);
+    }
+
+    @Override
+    public void visitBuildStatisticValue(@NotNull BuildStatisticValue value) {
+      myBlackhole.consume(value);
+    }
+
+    @Override
+    public void visitMessageWithStatus(@NotNull Message message) {
+      myBlackhole.consume(message);
+    }
+
+    @Override
+    public void visitBlockOpened(@NotNull BlockOpened opened) {
+      myBlackhole.consume(opened);
+    }
+
+    @Override
+    public void visitBlockClosed(@NotNull BlockClosed closed) {
+      myBlackhole.consume(closed);
+    }
+
+    @Override
+    public void visitCompilationStarted(@NotNull CompilationStarted started) {
+      myBlackhole.consume(started);
+    }
+
+    @Override
+    public void visitCompilationFinished(@NotNull CompilationFinished finished) {
+      myBlackhole.consume(finished);
+    }
+
+    @Override
+    public void visitServiceMessage(@NotNull ServiceMessage message) {
+      myBlackhole.consume(message);
+    }
+  }
+}
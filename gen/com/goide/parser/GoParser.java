@@ -530,14 +530,14 @@ public class GoParser implements PsiParser, LightPsiParser {
   }
 
   /* ********************************************************** */
-  // <<consumeBlock>> | BlockInner
-  public static boolean BlockWithConsume(PsiBuilder b, int l) {
+  // <<consumeBlock>> | Block
+  static boolean BlockWithConsume(PsiBuilder b, int l) {
     if (!recursion_guard_(b, l, "BlockWithConsume")) return false;
     boolean r;
-    Marker m = enter_section_(b, l, _COLLAPSE_, BLOCK, "<block with consume>");
+    Marker m = enter_section_(b);
     r = consumeBlock(b, l + 1);
-    if (!r) r = BlockInner(b, l + 1);
-    exit_section_(b, l, m, r, false, null);
+    if (!r) r = Block(b, l + 1);
+    exit_section_(b, m, null, r);
     return r;
   }
 
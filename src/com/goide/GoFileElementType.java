@@ -19,9 +19,11 @@ package com.goide;
 import com.goide.psi.GoFile;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.index.GoPackagesIndex;
+import com.intellij.lang.ASTNode;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.StubBuilder;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
 import com.intellij.psi.stubs.*;
 import com.intellij.psi.tree.IStubFileElementType;
 import com.intellij.util.io.StringRef;
@@ -31,7 +33,7 @@ import java.io.IOException;
 
 public class GoFileElementType extends IStubFileElementType<GoFileStub> {
   public static final IStubFileElementType INSTANCE = new GoFileElementType();
-  public static final int VERSION = 21;
+  public static final int VERSION = 25;
 
   private GoFileElementType() {
     super("GO_FILE", GoLanguage.INSTANCE);
@@ -54,6 +56,12 @@ public class GoFileElementType extends IStubFileElementType<GoFileStub> {
         }
         return super.createStubForFile(file);
       }
+
+      @Override
+      public boolean skipChildProcessingWhenBuildingStubs(@NotNull ASTNode parent, @NotNull ASTNode node) {
+        // collapsed bodies have no local types, hence no stubs
+        return node instanceof LazyParseableElement && !((LazyParseableElement)node).isParsed();
+      }
     };
   }
 
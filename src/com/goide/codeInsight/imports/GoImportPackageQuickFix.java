@@ -18,15 +18,17 @@ package com.goide.codeInsight.imports;
 
 import com.goide.GoIcons;
 import com.goide.completion.GoCompletionUtil;
+import com.goide.project.GoExcludedPathsSettings;
 import com.goide.project.GoVendoringUtil;
 import com.goide.psi.GoFile;
 import com.goide.psi.GoReferenceExpression;
 import com.goide.psi.GoTypeReferenceExpression;
-import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.psi.impl.GoReference;
 import com.goide.psi.impl.GoTypeReference;
 import com.goide.runconfig.testing.GoTestFinder;
-import com.goide.stubs.index.GoPackagesIndex;
+import com.goide.sdk.GoPackageUtil;
+import com.goide.sdk.GoSdkUtil;
+import com.goide.stubs.index.GoPackageFilesIndex;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.FileModificationService;
 import com.intellij.codeInsight.daemon.impl.DaemonListeners;
@@ -51,9 +53,9 @@ import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.stubs.StubIndex;
 import com.intellij.ui.IdeBorderFactory;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBList;
@@ -165,22 +167,26 @@ public class GoImportPackageQuickFix extends LocalQuickFixAndIntentionActionOnPs
     Module module = contextFile != null ? ModuleUtilCore.findModuleForPsiElement(contextFile) : null;
     boolean vendoringEnabled = GoVendoringUtil.isVendoringEnabled(module);
     GlobalSearchScope scope = GoUtil.goPathResolveScope(context);
-    Collection<GoFile> packages = StubIndex.getElements(GoPackagesIndex.KEY, packageName, project, scope, GoFile.class);
-    return sorted(skipNulls(map2Set(
-      packages,
-      file -> {
-        if (parentDirectory != null && parentDirectory.isEquivalentTo(file.getParent())) {
-          if (testTargetPackage == null || !testTargetPackage.equals(file.getPackageName())) {
-            return null;
-          }
-        }
-        if (!GoPsiImplUtil.canBeAutoImported(file, false, module)) {
-          return null;
+    GoExcludedPathsSettings excludedSettings = GoExcludedPathsSettings.getInstance(project);
+    PsiManager psiManager = PsiManager.getInstance(project);
+    Set<String> result = newHashSet();
+    GoPackageFilesIndex.processImportableDirectories(scope, packageName, module, false, file -> {
+      PsiDirectory directory = psiManager.findDirectory(file);
+      if (directory == null || GoPackageUtil.isBuiltinPackage(directory)) return true;
+      if (parentDirectory != null && parentDirectory.isEquivalentTo(directory)) {
+        if (testTargetPackage == null || !testTargetPackage.equals(packageName)) {
+          return true;
         }
-        String importPath = file.getImportPath(vendoringEnabled);
-        return !imported.contains(importPath) ? importPath : null;
       }
-    )), new MyImportsComparator(context, vendoringEnabled));
+      String importPath = GoSdkUtil.getImportPath(directory, false);
+      if (importPath != null && excludedSettings.isExcluded(importPath)) return true;
+      String vendoredImportPath = vendoringEnabled ? GoSdkUtil.getImportPath(directory, true) : importPath;
+      if (vendoredImportPath != null && !imported.contains(vendoredImportPath)) {
+        result.add(vendoredImportPath);
+      }
+      return true;
+    });
+    return sorted(result, new MyImportsComparator(context, vendoringEnabled));
   }
 
   public boolean doAutoImportOrShowHint(@NotNull Editor editor, boolean showHint) {
@@ -120,59 +120,29 @@ public class GoAutoImportCompletionContributor extends CompletionContributor {
                                                                     @NotNull GlobalSearchScope scope, 
                                                                     @Nullable IdFilter idFilter,
                                                                     @NotNull GoFile file) {
-    String prefix = matcher.getPrefix();
-    boolean emptyPrefix = prefix.isEmpty();
-
-    Set<String> packagesWithAliases = ContainerUtil.newHashSet();
-    if (!emptyPrefix) {
-      for (Map.Entry<String, Collection<GoImportSpec>> entry : file.getImportMap().entrySet()) {
-        for (GoImportSpec spec : entry.getValue()) {
-          String alias = spec.getAlias();
-          if (spec.isDot() || alias != null) {
-            packagesWithAliases.add(entry.getKey());
-            break;
-          }
-        }
-      }
-    }
-
-    Set<String> allNames = ContainerUtil.newTroveSet();
-    StubIndex.getInstance().processAllKeys(ALL_PUBLIC_NAMES, new CancellableCollectProcessor<String>(allNames) {
-      @Override
-      protected boolean accept(String s) {
-        return emptyPrefix || matcher.prefixMatches(s) || packagesWithAliases.contains(substringBefore(s, '.'));
-      }
-    }, scope, idFilter);
-
-    if (emptyPrefix) {
+    if (matcher.getPrefix().isEmpty()) {
+      Set<String> allNames = ContainerUtil.newTroveSet();
+      StubIndex.getInstance().processAllKeys(ALL_PUBLIC_NAMES, new CancellableCollectProcessor<>(allNames), scope, idFilter);
       return allNames;
     }
 
-    List<String> sorted = ContainerUtil.sorted(allNames, String.CASE_INSENSITIVE_ORDER);
-    ProgressManager.checkCanceled();
-
-    LinkedHashSet<String> result = ContainerUtil.newLinkedHashSet();
-    for (String name : sorted) {
-      ProgressManager.checkCanceled();
-      if (matcher.isStartMatch(name)) {
-        result.add(name);
+    Set<String> packagesWithAliases = ContainerUtil.newHashSet();
+    for (Map.Entry<String, Collection<GoImportSpec>> entry : file.getImportMap().entrySet()) {
+      for (GoImportSpec spec : entry.getValue()) {
+        String alias = spec.getAlias();
+        if (spec.isDot() || alias != null) {
+          packagesWithAliases.add(entry.getKey());
+          break;
+        }
       }
     }
-    result.addAll(sorted);
-    return result;
+    return GoPublicNamesTable.getInstance(file.getProject()).getMatchingNames(matcher, packagesWithAliases);
   }
 
   private static PsiElementPattern.Capture<PsiElement> inGoFile() {
     return psiElement().inFile(psiElement(GoFile.class));
   }
 
-  @NotNull
-  private static String substringBefore(@NotNull String s, char c) {
-    int i = s.indexOf(c);
-    if (i == -1) return s;
-    return s.substring(0, i);
-  }
-
   private static String substringAfter(@NotNull String s, char c) {
     int i = s.indexOf(c);
     if (i == -1) return "";
@@ -16,13 +16,13 @@
 
 package com.goide.completion;
 
-import com.goide.GoFileType;
 import com.goide.project.GoExcludedPathsSettings;
 import com.goide.project.GoVendoringUtil;
-import com.goide.psi.GoFile;
 import com.goide.psi.GoImportString;
-import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.sdk.GoPackageUtil;
+import com.goide.sdk.GoSdkUtil;
+import com.goide.stubs.index.GoPackageFilesIndex;
 import com.goide.util.GoUtil;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionProvider;
@@ -33,12 +33,10 @@ import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
@@ -74,22 +72,18 @@ public class GoImportPathsCompletionProvider extends CompletionProvider<Completi
     GoExcludedPathsSettings excludedSettings = GoExcludedPathsSettings.getInstance(project);
     PsiFile contextFile = context != null ? context.getContainingFile() : null;
     boolean testFileWithTestPackage = GoTestFinder.isTestFileWithTestPackage(contextFile);
-    for (VirtualFile file : FileTypeIndex.getFiles(GoFileType.INSTANCE, scope)) {
+    PsiManager psiManager = PsiManager.getInstance(project);
+    GoPackageFilesIndex.processImportableDirectories(scope, null, module, allowMain, file -> {
       ProgressManager.checkCanceled();
-      PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
-      if (!(psiFile instanceof GoFile)) continue;
-      
-      PsiDirectory directory = psiFile.getContainingDirectory();
-      if (directory == null) continue;
+      PsiDirectory directory = psiManager.findDirectory(file);
+      if (directory == null || GoPackageUtil.isBuiltinPackage(directory)) return true;
 
-      GoFile goFile = (GoFile)psiFile;
-      if (!GoPsiImplUtil.canBeAutoImported(goFile, allowMain, module)) continue;
-      
-      String importPath = goFile.getImportPath(vendoringEnabled);
+      String importPath = GoSdkUtil.getImportPath(directory, vendoringEnabled);
       if (StringUtil.isNotEmpty(importPath) && !excludedSettings.isExcluded(importPath) 
           && (testFileWithTestPackage || !importPath.equals(contextImportPath))) {
         result.addElement(GoCompletionUtil.createPackageLookupElement(importPath, contextImportPath, directory, false));
       }
-    }
+      return true;
+    });
   }
 }
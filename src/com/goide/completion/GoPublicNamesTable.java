@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.completion;
+
+import com.goide.psi.impl.GoPackageModificationTracker;
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.codeStyle.NameUtil;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+import static com.goide.stubs.index.GoAllPublicNamesIndex.ALL_PUBLIC_NAMES;
+
+/**
+ * Completion-oriented view of {@link com.goide.stubs.index.GoAllPublicNamesIndex} keys.
+ * <p>
+ * Every qualified name is split into segments starting at word starts, e.g. {@code fmt.Println} yields {@code fmt.Println}
+ * and {@code Println}, {@code bufio.NewScanner} additionally yields {@code Scanner}. Segments are kept in a case-insensitively
+ * sorted array, so candidates for a prefix are found by binary search instead of matching every key of the index.
+ * <p>
+ * The table is shared by all scopes of the project, elements of found names are expected to be filtered by the caller.
+ * <p>
+ * Rebuilding the table costs a pass over all keys of the index, so it's invalidated only when public names of some file change,
+ * see {@link GoPackageModificationTracker#getPublicNamesTracker()}.
+ */
+public class GoPublicNamesTable {
+  private static final Key<CachedValue<GoPublicNamesTable>> TABLE = Key.create("GO_PUBLIC_NAMES_TABLE");
+
+  @NotNull private final String[] myNames;
+  @NotNull private final int[] mySegmentNames;
+  @NotNull private final int[] mySegmentOffsets;
+
+  GoPublicNamesTable(@NotNull Collection<String> names) {
+    myNames = ArrayUtil.toStringArray(names);
+    Arrays.sort(myNames, String.CASE_INSENSITIVE_ORDER);
+
+    List<Segment> segments = ContainerUtil.newArrayList();
+    for (int i = 0; i < myNames.length; i++) {
+      String name = myNames[i];
+      for (int offset = 0; offset < name.length(); offset++) {
+        if (offset == 0 || NameUtil.isWordStart(name, offset)) {
+          segments.add(new Segment(i, offset));
+        }
+      }
+    }
+    Collections.sort(segments, (s1, s2) -> {
+      int result = compareSegments(myNames[s1.name], s1.offset, myNames[s2.name], s2.offset);
+      return result != 0 ? result : Integer.compare(s1.name, s2.name);
+    });
+
+    mySegmentNames = new int[segments.size()];
+    mySegmentOffsets = new int[segments.size()];
+    for (int i = 0; i < segments.size(); i++) {
+      mySegmentNames[i] = segments.get(i).name;
+      mySegmentOffsets[i] = segments.get(i).offset;
+    }
+  }
+
+  @NotNull
+  public static GoPublicNamesTable getInstance(@NotNull Project project) {
+    return CachedValuesManager.getManager(project).getCachedValue(project, TABLE, () -> {
+      Set<String> names = ContainerUtil.newTroveSet();
+      StubIndex.getInstance().processAllKeys(ALL_PUBLIC_NAMES, project, new CancellableCollectProcessor<>(names));
+      return CachedValueProvider.Result.create(new GoPublicNamesTable(names),
+                                               GoPackageModificationTracker.getInstance(project).getPublicNamesTracker(),
+                                               ProjectRootManager.getInstance(project),
+                                               VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
+    }, false);
+  }
+
+  /**
+   * Returns qualified names matched by the matcher in the order of relevance: names whose package starts with the prefix,
+   * then names with a word starting with the prefix, then camel-hump matches. Names within each group are sorted
+   * case-insensitively. All names of the given packages are added to the last group regardless of the prefix.
+   */
+  @NotNull
+  public Set<String> getMatchingNames(@NotNull PrefixMatcher matcher, @NotNull Collection<String> packages) {
+    BitSet startMatches = new BitSet();
+    BitSet wordMatches = new BitSet();
+    BitSet otherMatches = new BitSet();
+
+    String prefix = matcher.getPrefix();
+    if (!prefix.isEmpty()) {
+      int from = lowerBound(prefix);
+      int to = upperBound(prefix, from);
+      for (int i = from; i < to; i++) {
+        (mySegmentOffsets[i] == 0 ? startMatches : wordMatches).set(mySegmentNames[i]);
+      }
+      if (prefix.length() > 1) {
+        // camel-hump matches like NS for NewScanner only share the first character with a segment
+        String first = prefix.substring(0, 1);
+        int firstFrom = lowerBound(first);
+        int firstTo = upperBound(first, firstFrom);
+        BitSet prefixMatches = (BitSet)startMatches.clone();
+        prefixMatches.or(wordMatches);
+        collectMatches(matcher, firstFrom, from, prefixMatches, otherMatches);
+        collectMatches(matcher, to, firstTo, prefixMatches, otherMatches);
+      }
+    }
+
+    for (String packageName : packages) {
+      String packagePrefix = packageName + ".";
+      int from = lowerBound(packagePrefix);
+      int to = upperBound(packagePrefix, from);
+      for (int i = from; i < to; i++) {
+        if (mySegmentOffsets[i] == 0 && myNames[mySegmentNames[i]].startsWith(packagePrefix)) {
+          otherMatches.set(mySegmentNames[i]);
+        }
+      }
+    }
+
+    Set<String> result = ContainerUtil.newLinkedHashSet();
+    addNames(startMatches, result);
+    addNames(wordMatches, result);
+    addNames(otherMatches, result);
+    return result;
+  }
+
+  private void collectMatches(@NotNull PrefixMatcher matcher, int from, int to, @NotNull BitSet skip, @NotNull BitSet result) {
+    for (int i = from; i < to; i++) {
+      ProgressManager.checkCanceled();
+      int name = mySegmentNames[i];
+      if (!skip.get(name) && !result.get(name) && matcher.prefixMatches(myNames[name])) {
+        result.set(name);
+      }
+    }
+  }
+
+  private void addNames(@NotNull BitSet names, @NotNull Set<String> result) {
+    for (int i = names.nextSetBit(0); i >= 0; i = names.nextSetBit(i + 1)) {
+      result.add(myNames[i]);
+    }
+  }
+
+  /**
+   * @return index of the first segment which is not less than the prefix
+   */
+  private int lowerBound(@NotNull String prefix) {
+    int low = 0;
+    int high = mySegmentNames.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (comparePrefix(middle, prefix) < 0) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @return index of the first segment after {@code from} which doesn't start with the prefix
+   */
+  private int upperBound(@NotNull String prefix, int from) {
+    int low = from;
+    int high = mySegmentNames.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (comparePrefix(middle, prefix) <= 0) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Compares the segment with the prefix ignoring case, segments starting with the prefix are equal to it
+   */
+  private int comparePrefix(int segment, @NotNull String prefix) {
+    String name = myNames[mySegmentNames[segment]];
+    int offset = mySegmentOffsets[segment];
+    for (int i = 0; i < prefix.length(); i++) {
+      if (offset + i >= name.length()) return -1;
+      int result = StringUtil.compare(name.charAt(offset + i), prefix.charAt(i), true);
+      if (result != 0) return result;
+    }
+    return 0;
+  }
+
+  private static int compareSegments(@NotNull String name1, int offset1, @NotNull String name2, int offset2) {
+    int length1 = name1.length() - offset1;
+    int length2 = name2.length() - offset2;
+    for (int i = 0; i < Math.min(length1, length2); i++) {
+      int result = StringUtil.compare(name1.charAt(offset1 + i), name2.charAt(offset2 + i), true);
+      if (result != 0) return result;
+    }
+    return Integer.compare(length1, length2);
+  }
+
+  private static class Segment {
+    private final int name;
+    private final int offset;
+
+    private Segment(int name, int offset) {
+      this.name = name;
+      this.offset = offset;
+    }
+  }
+}
@@ -67,7 +67,7 @@ public class GoTestFunctionCompletionProvider extends CompletionProvider<Complet
       String fileNameWithoutTestPrefix = StringUtil.trimEnd(file.getName(), GoConstants.TEST_SUFFIX_WITH_EXTENSION) + ".go";
       GlobalSearchScope packageScope = GoPackageUtil.packageScope(containingDirectory, ((GoFile)file).getCanonicalPackageName());
       GlobalSearchScope scope = new GoUtil.ExceptTestsScope(packageScope);
-      IdFilter idFilter = GoIdFilter.getFilesFilter(scope);
+      IdFilter idFilter = GoIdFilter.getFilesFilter(packageScope);
       for (String functionName : allPackageFunctionNames) {
         GoFunctionIndex.process(functionName, project, scope, idFilter, declaration -> {
           addVariants(declaration, functionName, fileNameWithoutTestPrefix, allTestFunctionNames, resultSet);
@@ -18,7 +18,11 @@ package com.goide.dlv;
 
 import com.goide.dlv.protocol.DlvRequest;
 import com.goide.dlv.protocol.DlvResponse;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.containers.ContainerUtil;
@@ -29,11 +33,19 @@ import org.jetbrains.rpc.CommandProcessor;
 import org.jetbrains.rpc.CommandProcessorKt;
 import org.jetbrains.rpc.RequestCallback;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public abstract class DlvCommandProcessor extends CommandProcessor<JsonReaderEx, DlvResponse, DlvResponse> {
+  private static final Gson GSON = new GsonBuilder().create();
+  private static final Map<String, TypeAdapter<?>> DECODERS = createDecoders();
+
   @Nullable
   @Override
   public DlvResponse readIfHasSequence(@NotNull JsonReaderEx message) {
@@ -80,24 +92,52 @@ public abstract class DlvCommandProcessor extends CommandProcessor<JsonReaderEx,
   public <RESULT> RESULT readResult(@NotNull String method, @NotNull DlvResponse successResponse) {
     JsonReaderEx result = successResponse.result();
     assert result != null : "success result should be not null";
-    JsonReader reader = result.asGson();
-    Object o = new GsonBuilder().create().fromJson(reader, getResultType(method.replaceFirst("RPCServer\\.", "")));
-    //noinspection unchecked
-    return (RESULT)o;
+    TypeAdapter<?> decoder = DECODERS.get(method);
+    if (decoder == null) {
+      CommandProcessorKt.getLOG().error("Unknown response " + method + ", please register an appropriate request into com.goide.dlv.protocol.DlvRequest");
+      decoder = GSON.getAdapter(Object.class);
+    }
+    return decode(decoder, result.asGson());
+  }
+
+  /**
+   * Reads the value the same way {@link Gson#fromJson(JsonReader, Type)} does: an empty document is read as null
+   * and malformed input is reported as {@link JsonSyntaxException}.
+   */
+  @Nullable
+  private static <RESULT> RESULT decode(@NotNull TypeAdapter<?> decoder, @NotNull JsonReader reader) {
+    reader.setLenient(true);
+    boolean empty = true;
+    try {
+      reader.peek();
+      empty = false;
+      //noinspection unchecked
+      return (RESULT)decoder.read(reader);
+    }
+    catch (EOFException e) {
+      if (empty) return null;
+      throw new JsonSyntaxException(e);
+    }
+    catch (IllegalStateException | IOException e) {
+      throw new JsonSyntaxException(e);
+    }
   }
 
+  /**
+   * Maps method names of all requests declared in {@link DlvRequest} to decoders of their results.
+   * Gson and its adapters are thread-safe, so the registry is shared by all debug sessions.
+   */
   @NotNull
-  private static Type getResultType(@NotNull String method) {
+  private static Map<String, TypeAdapter<?>> createDecoders() {
+    Map<String, TypeAdapter<?>> decoders = ContainerUtil.newHashMap();
     for (Class<?> c : DlvRequest.class.getDeclaredClasses()) {
-      if (method.equals(c.getSimpleName())) {
-        Type s = c.getGenericSuperclass();
-        assert s instanceof ParameterizedType : c.getCanonicalName() + " should have a generic parameter for correct callback processing";
-        Type[] arguments = ((ParameterizedType)s).getActualTypeArguments();
-        assert arguments.length == 1 : c.getCanonicalName() + " should have only one generic argument for correct callback processing";
-        return arguments[0];
-      }
+      if (!DlvRequest.class.isAssignableFrom(c) || Modifier.isAbstract(c.getModifiers())) continue;
+      Type s = c.getGenericSuperclass();
+      assert s instanceof ParameterizedType : c.getCanonicalName() + " should have a generic parameter for correct callback processing";
+      Type[] arguments = ((ParameterizedType)s).getActualTypeArguments();
+      assert arguments.length == 1 : c.getCanonicalName() + " should have only one generic argument for correct callback processing";
+      decoders.put(DlvRequest.METHOD_PREFIX + c.getSimpleName(), GSON.getAdapter(TypeToken.get(arguments[0])));
     }
-    CommandProcessorKt.getLOG().error("Unknown response " + method + ", please register an appropriate request into com.goide.dlv.protocol.DlvRequest");
-    return Object.class;
+    return Collections.unmodifiableMap(decoders);
   }
-}
\ No newline at end of file
+}
@@ -20,6 +20,7 @@ import com.goide.GoConstants;
 import com.goide.GoFileType;
 import com.goide.dlv.breakpoint.DlvBreakpointProperties;
 import com.goide.dlv.breakpoint.DlvBreakpointType;
+import com.goide.dlv.protocol.DlvApi;
 import com.goide.dlv.protocol.DlvRequest;
 import com.goide.util.GoUtil;
 import com.intellij.execution.ExecutionResult;
@@ -50,6 +51,7 @@ import com.intellij.xdebugger.frame.XSuspendContext;
 import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.concurrency.AsyncPromise;
 import org.jetbrains.concurrency.Promise;
 import org.jetbrains.debugger.DebugProcessImpl;
 import org.jetbrains.debugger.Location;
@@ -61,6 +63,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.goide.dlv.protocol.DlvApi.*;
 import static com.intellij.util.ObjectUtils.assertNotNull;
@@ -72,6 +75,7 @@ public final class DlvDebugProcess extends DebugProcessImpl<VmConnection<?>> imp
   private final static Logger LOG = Logger.getInstance(DlvDebugProcess.class);
   private final AtomicBoolean breakpointsInitiated = new AtomicBoolean();
   private final AtomicBoolean connectedListenerAdded = new AtomicBoolean();
+  @Nullable private volatile List<Promise<Breakpoint>> myBreakpointInstallations;
   private static final Consumer<Throwable> THROWABLE_CONSUMER = LOG::info;
 
   @NotNull
@@ -84,16 +88,31 @@ public final class DlvDebugProcess extends DebugProcessImpl<VmConnection<?>> imp
       }
 
       XBreakpoint<DlvBreakpointProperties> find = findBreak(o.breakPoint);
-      send(new DlvRequest.StacktraceGoroutine()).done(locations -> {
-          DlvSuspendContext context = new DlvSuspendContext(DlvDebugProcess.this, o.currentThread.id, locations, getProcessor());
-          XDebugSession session = getSession();
-          if (find == null) {
-            session.positionReached(context);
-          }
-          else {
-            session.breakpointReached(find, null, context);
-          }
+      int goroutineId = o.currentGoroutine != null ? o.currentGoroutine.id : -1;
+      DlvApi.Thread thread = o.currentThread;
+      int threadId = thread != null ? thread.id : 0;
+      if (thread != null && thread.function != null) {
+        // the rest of the stack is requested when the frames view asks for it
+        DlvApi.Location location = DlvSuspendContext.createLocation(thread);
+        suspended(find, new DlvSuspendContext(DlvDebugProcess.this, goroutineId, threadId, location, getProcessor()));
+      }
+      else {
+        send(new DlvRequest.StacktraceGoroutine(-1, 0)).done(locations -> {
+          DlvSuspendContext context = new DlvSuspendContext(DlvDebugProcess.this, goroutineId, threadId,
+                                                            ContainerUtil.getFirstItem(locations), getProcessor());
+          suspended(find, context);
         });
+      }
+    }
+
+    private void suspended(@Nullable XBreakpoint<DlvBreakpointProperties> breakpoint, @NotNull DlvSuspendContext context) {
+      XDebugSession session = getSession();
+      if (breakpoint == null) {
+        session.positionReached(context);
+      }
+      else {
+        session.breakpointReached(breakpoint, null, context);
+      }
     }
 
     @Nullable
@@ -168,21 +187,48 @@ public final class DlvDebugProcess extends DebugProcessImpl<VmConnection<?>> imp
     assert vm != null : "Vm should be initialized";
 
     if (setBreakpoints) {
-      doSetBreakpoints();
-      resume(vm);
+      doSetBreakpoints().processed(o -> resume(vm));
     }
 
     return true;
   }
 
-  private void doSetBreakpoints() {
+  /**
+   * Sends creation requests of all breakpoints without waiting for responses,
+   * the result is fulfilled once delve has answered every request
+   */
+  @NotNull
+  private Promise<Void> doSetBreakpoints() {
+    long start = System.currentTimeMillis();
+    List<Promise<Breakpoint>> installations = ContainerUtil.createLockFreeCopyOnWriteList();
+    myBreakpointInstallations = installations;
     AccessToken token = ReadAction.start();
     try {
       getSession().initBreakpoints();
     }
     finally {
       token.finish();
+      myBreakpointInstallations = null;
+    }
+
+    AsyncPromise<Void> result = new AsyncPromise<>();
+    AtomicInteger pending = new AtomicInteger(installations.size() + 1);
+    AtomicInteger failed = new AtomicInteger();
+    Runnable settled = () -> {
+      if (pending.decrementAndGet() == 0) {
+        LOG.info("Installed " + (installations.size() - failed.get()) + " of " + installations.size() + " breakpoints in " +
+                 (System.currentTimeMillis() - start) + " ms");
+        result.setResult(null);
+      }
+    };
+    for (Promise<Breakpoint> installation : installations) {
+      installation.done(b -> settled.run()).rejected(t -> {
+        failed.incrementAndGet();
+        settled.run();
+      });
     }
+    settled.run();
+    return result;
   }
 
   private void command(@NotNull @MagicConstant(stringValues = {NEXT, CONTINUE, HALT, SWITCH_THREAD, STEP}) String name) {
@@ -259,7 +305,12 @@ public final class DlvDebugProcess extends DebugProcessImpl<VmConnection<?>> imp
       if (breakpointPosition == null) return;
       VirtualFile file = breakpointPosition.getFile();
       int line = breakpointPosition.getLine();
-      send(new DlvRequest.CreateBreakpoint(file.getPath(), line + 1))
+      Promise<Breakpoint> installation = send(new DlvRequest.CreateBreakpoint(file.getPath(), line + 1));
+      List<Promise<Breakpoint>> installations = myBreakpointInstallations;
+      if (installations != null) {
+        installations.add(installation);
+      }
+      installation
         .done(b -> {
           breakpoint.putUserData(ID, b.id);
           breakpoints.put(b.id, breakpoint);
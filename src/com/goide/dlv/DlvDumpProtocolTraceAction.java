@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.dlv;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.StatusBar;
+import com.intellij.xdebugger.XDebugSession;
+import com.intellij.xdebugger.XDebuggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes the protocol trace of the current debug session to the log, see {@link DlvProtocolTracer}
+ */
+public class DlvDumpProtocolTraceAction extends DumbAwareAction {
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    DlvVm vm = findVm(e.getProject());
+    e.getPresentation().setEnabled(vm != null && vm.getTracer().isEnabled());
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    Project project = e.getProject();
+    DlvVm vm = findVm(project);
+    if (vm == null) return;
+    XDebugSession session = XDebuggerManager.getInstance(project).getCurrentSession();
+    vm.getTracer().dump(session != null ? "Delve protocol trace of " + session.getSessionName() : null);
+    StatusBar.Info.set("Delve protocol trace is written to the log", project);
+  }
+
+  @Nullable
+  private static DlvVm findVm(@Nullable Project project) {
+    XDebugSession session = project != null ? XDebuggerManager.getInstance(project).getCurrentSession() : null;
+    Object process = session != null ? session.getDebugProcess() : null;
+    Object vm = process instanceof DlvDebugProcess ? ((DlvDebugProcess)process).getVm() : null;
+    return vm instanceof DlvVm ? (DlvVm)vm : null;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.dlv;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
+import com.intellij.util.containers.ContainerUtil;
+import gnu.trove.TIntLongHashMap;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records messages exchanged with delve into a bounded ring buffer.
+ * <p>
+ * The mode is taken from the {@code go.dlv.trace} system property: {@code off} (default), {@code summary} records method, id,
+ * size and latency of every message, {@code full} also records payloads. The buffer size is set by {@code go.dlv.trace.size}.
+ * Records are written to the log as well if debug logging is enabled for this class.
+ * When tracing is off, nothing is decoded or allocated per message.
+ */
+public class DlvProtocolTracer {
+  private static final Logger LOG = Logger.getInstance(DlvProtocolTracer.class);
+  private static final String MODE_PROPERTY = "go.dlv.trace";
+  private static final String SIZE_PROPERTY = "go.dlv.trace.size";
+  private static final int DEFAULT_SIZE = 1000;
+
+  public enum Mode {OFF, SUMMARY, FULL}
+
+  @NotNull private final Mode myMode;
+  @NotNull private final String[] myRecords;
+  private int myNextRecord;
+  private int myRecordsCount;
+  @NotNull private final TIntLongHashMap mySendTimes = new TIntLongHashMap();
+
+  public DlvProtocolTracer() {
+    this(getModeFromProperties(), Math.max(1, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE)));
+  }
+
+  public DlvProtocolTracer(@NotNull Mode mode, int size) {
+    myMode = mode;
+    myRecords = new String[mode != Mode.OFF ? size : 0];
+  }
+
+  @NotNull
+  private static Mode getModeFromProperties() {
+    String mode = System.getProperty(MODE_PROPERTY);
+    if (mode == null) return Mode.OFF;
+    try {
+      return Mode.valueOf(mode.trim().toUpperCase(Locale.ENGLISH));
+    }
+    catch (IllegalArgumentException e) {
+      LOG.warn("Unknown delve trace mode: " + mode);
+      return Mode.OFF;
+    }
+  }
+
+  public boolean isEnabled() {
+    return myMode != Mode.OFF;
+  }
+
+  public void outgoing(@NotNull String method, int id, @NotNull ByteBuf content) {
+    if (!isEnabled()) return;
+    synchronized (mySendTimes) {
+      mySendTimes.put(id, System.nanoTime());
+    }
+    record("OUT #" + id + " " + method + " " + content.readableBytes() + " B", content);
+  }
+
+  public void incoming(@NotNull ByteBuf content) {
+    if (!isEnabled()) return;
+    int id = findResponseId(content);
+    long sendTime;
+    synchronized (mySendTimes) {
+      sendTime = id >= 0 ? mySendTimes.remove(id) : 0;
+    }
+    String latency = sendTime != 0 ? " " + StringUtil.formatDuration((System.nanoTime() - sendTime) / 1000000) : "";
+    record("IN #" + (id >= 0 ? String.valueOf(id) : "?") + " " + content.readableBytes() + " B" + latency, content);
+  }
+
+  private void record(@NotNull String summary, @NotNull ByteBuf content) {
+    String record = myMode == Mode.FULL ? summary + ": " + content.toString(CharsetToolkit.UTF8_CHARSET) : summary;
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(record);
+    }
+    synchronized (myRecords) {
+      myRecords[myNextRecord] = record;
+      myNextRecord = (myNextRecord + 1) % myRecords.length;
+      myRecordsCount = Math.min(myRecordsCount + 1, myRecords.length);
+    }
+  }
+
+  /**
+   * @return recorded messages, oldest first
+   */
+  @NotNull
+  public List<String> getRecords() {
+    synchronized (myRecords) {
+      List<String> result = ContainerUtil.newArrayListWithCapacity(myRecordsCount);
+      int first = (myNextRecord - myRecordsCount + myRecords.length) % Math.max(myRecords.length, 1);
+      for (int i = 0; i < myRecordsCount; i++) {
+        result.add(myRecords[(first + i) % myRecords.length]);
+      }
+      return result;
+    }
+  }
+
+  public void dump(@Nullable String title) {
+    List<String> records = getRecords();
+    LOG.info(StringUtil.notNullize(title, "Delve protocol trace") + " (" + myMode + ", " + records.size() + " messages):\n" +
+             StringUtil.join(records, "\n"));
+  }
+
+  /**
+   * Delve writes the id first, so only the beginning of a response is looked at
+   */
+  private static int findResponseId(@NotNull ByteBuf content) {
+    int start = content.readerIndex();
+    int end = Math.min(content.writerIndex(), start + 32);
+    for (int i = start; i + 5 < end; i++) {
+      if (content.getByte(i) == '"' && content.getByte(i + 1) == 'i' && content.getByte(i + 2) == 'd' &&
+          content.getByte(i + 3) == '"' && content.getByte(i + 4) == ':') {
+        int id = 0;
+        int digits = 0;
+        for (int j = i + 5; j < content.writerIndex(); j++) {
+          byte b = content.getByte(j);
+          if (b == ' ' && digits == 0) continue;
+          if (b < '0' || b > '9') break;
+          id = id * 10 + b - '0';
+          digits++;
+        }
+        return digits > 0 ? id : -1;
+      }
+    }
+    return -1;
+  }
+}
@@ -16,24 +16,43 @@
 
 package com.goide.dlv;
 
+import com.intellij.openapi.util.Disposer;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.concurrency.AsyncPromise;
 import org.jetbrains.debugger.Vm;
 import org.jetbrains.debugger.connection.RemoteVmConnection;
-import org.jetbrains.io.NettyKt;
+import org.jetbrains.ide.PooledThreadExecutor;
 
 import java.net.InetSocketAddress;
 
+/**
+ * Connects to delve over non-blocking sockets. Requests are written as soon as they are sent and responses are matched
+ * to them by id, so independent requests don't wait for each other.
+ */
 public class DlvRemoteVmConnection extends RemoteVmConnection {
   @NotNull
   @Override
   public Bootstrap createBootstrap(@NotNull InetSocketAddress address, @NotNull AsyncPromise<Vm> vmResult) {
-    return NettyKt.oioClientBootstrap().handler(new ChannelInitializer() {
+    // the loop serves this connection only, it's shut down once the connection fails, is closed or disposed
+    EventLoopGroup group = new NioEventLoopGroup(1, PooledThreadExecutor.INSTANCE);
+    vmResult.rejected(error -> group.shutdownGracefully());
+    Disposer.register(this, () -> group.shutdownGracefully());
+    Bootstrap bootstrap = new Bootstrap()
+      .group(group)
+      .channel(NioSocketChannel.class)
+      .option(ChannelOption.TCP_NODELAY, true)
+      .option(ChannelOption.SO_KEEPALIVE, true);
+    return bootstrap.handler(new ChannelInitializer() {
       @Override
       protected void initChannel(@NotNull Channel channel) throws Exception {
+        channel.closeFuture().addListener(future -> group.shutdownGracefully());
         vmResult.setResult(new DlvVm(getDebugEventListener(), channel));
       }
     });
@@ -52,20 +52,24 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.concurrency.Promise;
 
 import javax.swing.*;
+import java.util.List;
 
 class DlvStackFrame extends XStackFrame {
   private final DlvDebugProcess myProcess;
   private final DlvApi.Location myLocation;
   private final DlvCommandProcessor myProcessor;
+  private final int myGoroutineId;
   private final int myId;
 
   public DlvStackFrame(@NotNull DlvDebugProcess process, 
                        @NotNull DlvApi.Location location, 
                        @NotNull DlvCommandProcessor processor, 
+                       int goroutineId,
                        int id) {
     myProcess = process;
     myLocation = location;
     myProcessor = processor;
+    myGoroutineId = goroutineId;
     myId = id;
   }
 
@@ -77,8 +81,8 @@ class DlvStackFrame extends XStackFrame {
       public void evaluate(@NotNull String expression,
                            @NotNull XEvaluationCallback callback,
                            @Nullable XSourcePosition expressionPosition) {
-        myProcessor.send(new DlvRequest.EvalSymbol(expression, myId))
-          .done(variable -> callback.evaluated(createXValue(variable, AllIcons.Debugger.Watch)))
+        myProcessor.send(new DlvRequest.EvalSymbol(expression, myGoroutineId, myId))
+          .done(variable -> callback.evaluated(createXValue(variable, expression, AllIcons.Debugger.Watch)))
           .rejected(throwable -> callback.errorOccurred(throwable.getMessage()));
       }
       
@@ -115,8 +119,8 @@ class DlvStackFrame extends XStackFrame {
   }
 
   @NotNull
-  private XValue createXValue(@NotNull DlvApi.Variable variable, @Nullable Icon icon) {
-    return new DlvXValue(myProcess, variable, myProcessor, myId, icon);
+  private XValue createXValue(@NotNull DlvApi.Variable variable, @Nullable String expression, @Nullable Icon icon) {
+    return new DlvXValue(myProcess, variable, expression, myProcessor, myGoroutineId, myId, icon);
   }
 
   @Nullable
@@ -145,7 +149,9 @@ class DlvStackFrame extends XStackFrame {
   @Override
   public void customizePresentation(@NotNull ColoredTextContainer component) {
     super.customizePresentation(component);
-    component.append(" at " + myLocation.function.name, SimpleTextAttributes.REGULAR_ATTRIBUTES);
+    if (myLocation.function != null) {
+      component.append(" at " + myLocation.function.name, SimpleTextAttributes.REGULAR_ATTRIBUTES);
+    }
     component.setIcon(AllIcons.Debugger.StackFrame);
   }
 
@@ -156,13 +162,19 @@ class DlvStackFrame extends XStackFrame {
 
   @Override
   public void computeChildren(@NotNull XCompositeNode node) {
-    send(new DlvRequest.ListLocalVars(myId)).done(variables -> {
-      XValueChildrenList xVars = new XValueChildrenList(variables.size());
-      for (DlvApi.Variable v : variables) xVars.add(v.name, createXValue(v, GoIcons.VARIABLE));
-      send(new DlvRequest.ListFunctionArgs(myId)).done(args -> {
-        for (DlvApi.Variable v : args) xVars.add(v.name, createXValue(v, GoIcons.PARAMETER));
-        node.addChildren(xVars, true);
-      });
-    });
+    // both requests are sent at once, their responses are matched by id
+    Promise<List<DlvApi.Variable>> localVars = send(new DlvRequest.ListLocalVars(myGoroutineId, myId));
+    Promise<List<DlvApi.Variable>> functionArgs = send(new DlvRequest.ListFunctionArgs(myGoroutineId, myId));
+    localVars.done(variables -> functionArgs.done(args -> {
+      XValueChildrenList xVars = new XValueChildrenList(variables.size() + args.size());
+      for (DlvApi.Variable v : variables) xVars.add(v.name, createXValue(v, v.name, GoIcons.VARIABLE));
+      for (DlvApi.Variable v : args) xVars.add(v.name, createXValue(v, v.name, GoIcons.PARAMETER));
+      node.addChildren(xVars, true);
+    }).rejected(throwable -> setVariablesError(node, throwable)))
+      .rejected(throwable -> setVariablesError(node, throwable));
+  }
+
+  private static void setVariablesError(@NotNull XCompositeNode node, @NotNull Throwable throwable) {
+    node.setErrorMessage(StringUtil.notNullize(throwable.getMessage(), "Cannot load variables"));
   }
 }
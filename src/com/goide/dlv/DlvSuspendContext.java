@@ -17,6 +17,8 @@
 package com.goide.dlv;
 
 import com.goide.dlv.protocol.DlvApi;
+import com.goide.dlv.protocol.DlvRequest;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.xdebugger.frame.XExecutionStack;
 import com.intellij.xdebugger.frame.XStackFrame;
@@ -26,14 +28,39 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
+/**
+ * Lists an execution stack per goroutine. Only the top frame of a goroutine is known upfront,
+ * the rest of its stack is requested at once when the goroutine is selected.
+ */
 class DlvSuspendContext extends XSuspendContext {
+  private static final int CURRENT_GOROUTINE = -1;
+  private static final int STACK_DEPTH = 100;
+  private static final int MAX_STACK_DEPTH = 6400;
+
+  @NotNull private final DlvDebugProcess myProcess;
+  @NotNull private final DlvCommandProcessor myProcessor;
   @NotNull private final DlvExecutionStack myStack;
+  private final int myGoroutineId;
+  private final int myThreadId;
+  @Nullable private final DlvApi.Location myTopLocation;
 
+  /**
+   * @param goroutineId id of the current goroutine, or -1 if unknown
+   * @param threadId    id of the current thread, or 0 if unknown
+   * @param topLocation location of the current goroutine, frames are requested on demand if null
+   */
   public DlvSuspendContext(@NotNull DlvDebugProcess process,
+                           int goroutineId,
                            int threadId,
-                           @NotNull List<DlvApi.Location> locations,
+                           @Nullable DlvApi.Location topLocation,
                            @NotNull DlvCommandProcessor processor) {
-    myStack = new DlvExecutionStack(process, threadId, locations, processor);
+    myProcess = process;
+    myProcessor = processor;
+    myGoroutineId = goroutineId;
+    myThreadId = threadId;
+    myTopLocation = topLocation;
+    myStack = new DlvExecutionStack(process, processor, "Goroutine #" + (goroutineId >= 0 ? goroutineId : "current"),
+                                    CURRENT_GOROUTINE, topLocation);
   }
 
   @Nullable
@@ -48,35 +75,110 @@ class DlvSuspendContext extends XSuspendContext {
     return new XExecutionStack[]{myStack};
   }
 
+  @Override
+  public void computeExecutionStacks(@NotNull XExecutionStackContainer container) {
+    DlvDebugProcess.send(new DlvRequest.ListGoroutines(), myProcessor)
+      .done(goroutines -> {
+        List<XExecutionStack> stacks = ContainerUtil.newArrayListWithCapacity(goroutines.size());
+        stacks.add(myStack);
+        boolean currentFound = false;
+        for (DlvApi.Goroutine goroutine : goroutines) {
+          if (!currentFound && isCurrent(goroutine)) {
+            currentFound = true;
+            continue;
+          }
+          DlvApi.Location location = goroutine.userCurrentLoc != null ? goroutine.userCurrentLoc : goroutine.currentLoc;
+          stacks.add(new DlvExecutionStack(myProcess, myProcessor, "Goroutine #" + goroutine.id, goroutine.id, location));
+        }
+        container.addExecutionStack(stacks, true);
+      })
+      .rejected(throwable -> container.errorOccurred(StringUtil.notNullize(throwable.getMessage(), "Cannot list goroutines")));
+  }
+
+  /**
+   * The current goroutine is already listed, it's recognized by its thread or location when its id is unknown
+   */
+  private boolean isCurrent(@NotNull DlvApi.Goroutine goroutine) {
+    if (myGoroutineId >= 0) return goroutine.id == myGoroutineId;
+    if (myThreadId > 0) return goroutine.threadID == myThreadId;
+    return myTopLocation != null && goroutine.currentLoc != null && goroutine.currentLoc.pc == myTopLocation.pc;
+  }
+
+  @NotNull
+  static DlvApi.Location createLocation(@NotNull DlvApi.Thread thread) {
+    DlvApi.Location location = new DlvApi.Location();
+    location.pc = thread.pc;
+    location.file = thread.file;
+    location.line = thread.line;
+    location.function = thread.function;
+    return location;
+  }
+
   private static class DlvExecutionStack extends XExecutionStack {
     @NotNull private final DlvDebugProcess myProcess;
-    @NotNull private final List<DlvApi.Location> myLocations;
     @NotNull private final DlvCommandProcessor myProcessor;
-    @NotNull private final List<DlvStackFrame> myStack;
+    private final int myGoroutineId;
+    @Nullable private final DlvStackFrame myTopFrame;
+    @Nullable private volatile List<DlvStackFrame> myFrames;
 
     public DlvExecutionStack(@NotNull DlvDebugProcess process,
-                             int threadId,
-                             @NotNull List<DlvApi.Location> locations,
-                             @NotNull DlvCommandProcessor processor) {
-      super("Thread #" + threadId);
+                             @NotNull DlvCommandProcessor processor,
+                             @NotNull String displayName,
+                             int goroutineId,
+                             @Nullable DlvApi.Location topLocation) {
+      super(displayName);
       myProcess = process;
-      myLocations = locations;
       myProcessor = processor;
-      myStack = ContainerUtil.newArrayListWithCapacity(locations.size());
-      for (int i = 0; i < myLocations.size(); i++) {
-        myStack.add(new DlvStackFrame(myProcess, myLocations.get(i), myProcessor, i));
-      }
+      myGoroutineId = goroutineId;
+      myTopFrame = topLocation != null ? new DlvStackFrame(process, topLocation, processor, goroutineId, 0) : null;
     }
 
     @Nullable
     @Override
     public XStackFrame getTopFrame() {
-      return ContainerUtil.getFirstItem(myStack);
+      return myTopFrame;
     }
 
     @Override
     public void computeStackFrames(int firstFrameIndex, @NotNull XStackFrameContainer container) {
-      container.addStackFrames(myStack, true);
+      List<DlvStackFrame> frames = myFrames;
+      if (frames != null) {
+        addFrames(frames, firstFrameIndex, container);
+      }
+      else {
+        computeStackFrames(firstFrameIndex, container, STACK_DEPTH);
+      }
+    }
+
+    /**
+     * Requests the whole stack at once, since the container is asked for frames only once.
+     * The request is repeated with a larger depth if the stack is deeper than the requested one.
+     */
+    private void computeStackFrames(int firstFrameIndex, @NotNull XStackFrameContainer container, int depth) {
+      DlvDebugProcess.send(new DlvRequest.StacktraceGoroutine(myGoroutineId, depth), myProcessor)
+        .done(locations -> {
+          if (container.isObsolete()) return;
+          if (locations.size() > depth && depth < MAX_STACK_DEPTH) {
+            computeStackFrames(firstFrameIndex, container, depth * 2);
+            return;
+          }
+          List<DlvStackFrame> frames = ContainerUtil.newArrayListWithCapacity(locations.size());
+          for (int i = 0; i < locations.size(); i++) {
+            frames.add(i == 0 && myTopFrame != null
+                       ? myTopFrame
+                       : new DlvStackFrame(myProcess, locations.get(i), myProcessor, myGoroutineId, i));
+          }
+          myFrames = frames;
+          addFrames(frames, firstFrameIndex, container);
+        })
+        .rejected(throwable -> container.errorOccurred(StringUtil.notNullize(throwable.getMessage(), "Cannot load frames")));
+    }
+
+    private static void addFrames(@NotNull List<DlvStackFrame> frames, int firstFrameIndex, @NotNull XStackFrameContainer container) {
+      List<DlvStackFrame> result = firstFrameIndex < frames.size()
+                                   ? frames.subList(firstFrameIndex, frames.size())
+                                   : ContainerUtil.emptyList();
+      container.addStackFrames(result, true);
     }
   }
 }
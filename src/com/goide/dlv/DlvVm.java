@@ -16,7 +16,7 @@
 
 package com.goide.dlv;
 
-import com.intellij.openapi.diagnostic.Logger;
+import com.goide.dlv.protocol.DlvRequest;
 import com.intellij.openapi.vfs.CharsetToolkit;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
@@ -32,11 +32,10 @@ import org.jetbrains.jsonProtocol.Request;
 import java.io.IOException;
 
 public class DlvVm extends VmBase {
-  private final static Logger LOG = Logger.getInstance(DlvVm.class);
-
   @NotNull private final DlvCommandProcessor commandProcessor;
   @NotNull private final StandaloneVmHelper vmHelper;
   @NotNull private final DummyBreakpointManager breakpointManager = new DummyBreakpointManager();
+  @NotNull private final DlvProtocolTracer tracer = new DlvProtocolTracer();
 
   public DlvVm(@NotNull DebugEventListener tabListener, @NotNull Channel channel) {
     super(tabListener);
@@ -45,7 +44,9 @@ public class DlvVm extends VmBase {
       @Override
       public boolean write(@NotNull Request message) throws IOException {
         ByteBuf content = message.getBuffer();
-        LOG.info("OUT: " + content.toString(CharsetToolkit.UTF8_CHARSET));
+        if (tracer.isEnabled()) {
+          tracer.outgoing(message.getMethodName(), message instanceof DlvRequest ? ((DlvRequest)message).getId() : -1, content);
+        }
         return vmHelper.write(content);
       }
     };
@@ -55,21 +56,69 @@ public class DlvVm extends VmBase {
       @Override
       protected void messageReceived(ChannelHandlerContext context, Object message) throws Exception {
         if (message instanceof ByteBuf) {
-          LOG.info("IN: " + ((ByteBuf)message).toString(CharsetToolkit.UTF8_CHARSET));
-          CharSequence string = ChannelBufferToString.readChars((ByteBuf)message);
-          JsonReaderEx ex = new JsonReaderEx(string);
+          tracer.incoming((ByteBuf)message);
+          JsonReaderEx ex = new JsonReaderEx(toCharSequence((ByteBuf)message));
           getCommandProcessor().processIncomingJson(ex);
         }
       }
     });
   }
 
+  /**
+   * Delve responses are almost always ASCII, so the buffer is read as chars in place instead of being decoded.
+   * The buffer is released once the message is handled, the response is read by then.
+   */
+  @NotNull
+  private static CharSequence toCharSequence(@NotNull ByteBuf buffer) {
+    if (buffer.forEachByte(b -> b >= 0) != -1) return ChannelBufferToString.readChars(buffer);
+    return new AsciiCharSequence(buffer, buffer.readerIndex(), buffer.readableBytes());
+  }
+
+  private static class AsciiCharSequence implements CharSequence {
+    @NotNull private final ByteBuf myBuffer;
+    private final int myStart;
+    private final int myLength;
+
+    private AsciiCharSequence(@NotNull ByteBuf buffer, int start, int length) {
+      myBuffer = buffer;
+      myStart = start;
+      myLength = length;
+    }
+
+    @Override
+    public int length() {
+      return myLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char)myBuffer.getByte(myStart + index);
+    }
+
+    @NotNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new AsciiCharSequence(myBuffer, myStart + start, end - start);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+      return myBuffer.toString(myStart, myLength, CharsetToolkit.US_ASCII_CHARSET);
+    }
+  }
+
   @NotNull
   @Override
   public AttachStateManager getAttachStateManager() {
     return vmHelper;
   }
 
+  @NotNull
+  public DlvProtocolTracer getTracer() {
+    return tracer;
+  }
+
   @NotNull
   public final DlvCommandProcessor getCommandProcessor() {
     return commandProcessor;
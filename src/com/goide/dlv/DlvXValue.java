@@ -38,6 +38,8 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.SyntaxTraverser;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.Consumer;
 import com.intellij.util.ThreeState;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.xdebugger.XDebugSession;
@@ -52,61 +54,240 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Pattern;
 
+/**
+ * Children of a variable are taken from what delve has already sent with it and fetched with {@link DlvRequest.EvalSymbol}
+ * once the loaded part is exhausted. Elements of slices and arrays are loaded in pages of {@code go.dlv.maxArrayValues}
+ * by reslicing the variable's expression, struct fields and map entries are shown in pages of {@code go.dlv.maxStructFields}.
+ * Pointers are dereferenced up to {@code go.dlv.followPointers} levels on expansion.
+ */
 class DlvXValue extends XNamedValue {
+  private static final int MAX_ARRAY_VALUES = Math.max(1, Integer.getInteger("go.dlv.maxArrayValues", 64));
+  private static final int MAX_STRUCT_FIELDS = Math.max(1, Integer.getInteger("go.dlv.maxStructFields", 100));
+  private static final int FOLLOW_POINTERS = Math.max(1, Integer.getInteger("go.dlv.followPointers", 1));
+
   @NotNull
   private final DlvApi.Variable myVariable;
+  @Nullable
+  private final String myExpression;
   private final Icon myIcon;
   private final DlvDebugProcess myProcess;
   private final DlvCommandProcessor myProcessor;
+  private final int myGoroutineId;
   private final int myFrameId;
+  @Nullable
+  private DlvApi.Variable myLoadedVariable;
+  @Nullable
+  private String myLoadedExpression;
+  @Nullable
+  private XCompositeNode myPagedNode;
+  private int myNextChild;
 
+  /**
+   * @param expression evaluates the variable in the frame, null if the variable can't be fetched again, e.g. for map entries
+   */
   public DlvXValue(@NotNull DlvDebugProcess process,
                    @NotNull DlvApi.Variable variable,
+                   @Nullable String expression,
                    @NotNull DlvCommandProcessor processor, 
+                   int goroutineId,
                    int frameId, 
                    @Nullable Icon icon) {
-    super(variable.name);
+    this(process, variable.name, variable, expression, processor, goroutineId, frameId, icon);
+  }
+
+  private DlvXValue(@NotNull DlvDebugProcess process,
+                    @NotNull String name,
+                    @NotNull DlvApi.Variable variable,
+                    @Nullable String expression,
+                    @NotNull DlvCommandProcessor processor,
+                    int goroutineId,
+                    int frameId,
+                    @Nullable Icon icon) {
+    super(name);
     myProcess = process;
     myVariable = variable;
+    myExpression = expression;
     myIcon = icon;
     myProcessor = processor;
+    myGoroutineId = goroutineId;
     myFrameId = frameId;
   }
 
   @Override
   public void computePresentation(@NotNull XValueNode node, @NotNull XValuePlace place) {
     XValuePresentation presentation = getPresentation();
-    boolean hasChildren = myVariable.children.length > 0;
-    node.setPresentation(myIcon, presentation, hasChildren);
+    node.setPresentation(myIcon, presentation, hasChildren());
+  }
+
+  private boolean hasChildren() {
+    if (myVariable.isPtr() && isNilPointer()) return false;
+    if (myVariable.children.length > 0) return true;
+    if (myExpression == null || myVariable.unreadable != null) return false;
+    return myVariable.isPtr() || myVariable.len > 0 && (myVariable.isStructure() || myVariable.isMap() || isIndexed());
+  }
+
+  /**
+   * Delve sends a nil pointer either with a zero value or with a pointee at zero address
+   */
+  private boolean isNilPointer() {
+    if (isZero(myVariable.value)) return true;
+    return myVariable.children.length == 1 && isZero(myVariable.children[0].addr);
+  }
+
+  private static boolean isZero(@Nullable Object value) {
+    if (value instanceof Number) return ((Number)value).longValue() == 0;
+    return value instanceof String && ArrayUtil.contains(value, "0", "0x0", "nil");
+  }
+
+  private boolean isIndexed() {
+    return myVariable.isSlice() || myVariable.isArray();
   }
 
   @Override
   public void computeChildren(@NotNull XCompositeNode node) {
-    DlvApi.Variable[] children = myVariable.children;
-    if (children.length == 0) {
+    if (!hasChildren()) {
       super.computeChildren(node);
+      return;
+    }
+    if (myPagedNode != node) {
+      myPagedNode = node;
+      myNextChild = 0;
+    }
+    if (isIndexed()) {
+      computeElements(node);
+    }
+    else if (myVariable.isPtr()) {
+      computePointee(node);
+    }
+    else {
+      DlvApi.Variable loaded = myLoadedVariable != null ? myLoadedVariable : myVariable;
+      if (loaded.children.length > 0 || myExpression == null) {
+        addChildrenPage(node, loaded, myExpression);
+      }
+      else {
+        evaluate(node, myExpression, variable -> {
+          myLoadedVariable = variable;
+          addChildrenPage(node, variable, myExpression);
+        });
+      }
+    }
+  }
+
+  private void computeElements(@NotNull XCompositeNode node) {
+    int from = myNextChild;
+    int to = (int)Math.min(myVariable.len, (long)from + MAX_ARRAY_VALUES);
+    DlvApi.Variable[] loaded = myVariable.children;
+    if (to <= loaded.length || myExpression == null) {
+      addElements(node, Arrays.copyOfRange(loaded, Math.min(from, loaded.length), Math.min(to, loaded.length)), from);
     }
     else {
-      XValueChildrenList list = new XValueChildrenList();
-      for (DlvApi.Variable child : children) {
-        list.add(child.name, new DlvXValue(myProcess, child, myProcessor, myFrameId, AllIcons.Nodes.Field));
+      evaluate(node, myExpression + "[" + from + ":" + to + "]", page -> addElements(node, page.children, from));
+    }
+  }
+
+  private void addElements(@NotNull XCompositeNode node, @NotNull DlvApi.Variable[] elements, int from) {
+    XValueChildrenList list = new XValueChildrenList(elements.length);
+    for (int i = 0; i < elements.length; i++) {
+      String index = String.valueOf(from + i);
+      String expression = myExpression != null ? myExpression + "[" + index + "]" : null;
+      list.add(createChild(elements[i], "[" + index + "]", expression));
+    }
+    myNextChild = from + elements.length;
+    long remaining = myExpression != null ? myVariable.len - myNextChild : myVariable.children.length - myNextChild;
+    node.addChildren(list, remaining <= 0 || elements.length == 0);
+    if (remaining > 0 && elements.length > 0) {
+      node.tooManyChildren((int)Math.min(remaining, Integer.MAX_VALUE));
+    }
+  }
+
+  private void computePointee(@NotNull XCompositeNode node) {
+    if (myLoadedVariable == null) {
+      DlvApi.Variable pointee = ArrayUtil.getFirstElement(myVariable.children);
+      boolean needsFetch = pointee == null || pointee.children.length == 0 && (pointee.isStructure() || pointee.isMap());
+      if (!needsFetch || myExpression == null) {
+        addPointee(node, pointee, myExpression != null ? "(*" + myExpression + ")" : null);
+        return;
       }
+    }
+    else {
+      addPointee(node, myLoadedVariable, myLoadedExpression);
+      return;
+    }
+    String dereference = "(" + StringUtil.repeat("*", Math.min(FOLLOW_POINTERS, pointerLevels(myVariable.type))) + myExpression + ")";
+    evaluate(node, dereference, variable -> addPointee(node, variable, dereference));
+  }
+
+  /**
+   * Fields and entries of a pointee are shown as children of the pointer itself, other values as a single child
+   */
+  private void addPointee(@NotNull XCompositeNode node, @Nullable DlvApi.Variable pointee, @Nullable String expression) {
+    myLoadedVariable = pointee;
+    myLoadedExpression = expression;
+    if (pointee == null) {
+      node.addChildren(XValueChildrenList.EMPTY, true);
+    }
+    else if (pointee.isStructure() || pointee.isMap()) {
+      addChildrenPage(node, pointee, expression);
+    }
+    else {
+      XValueChildrenList list = new XValueChildrenList(1);
+      list.add(createChild(pointee, "*" + myName, expression));
       node.addChildren(list, true);
     }
   }
 
+  private static int pointerLevels(@Nullable String type) {
+    int levels = 0;
+    while (type != null && levels < type.length() && type.charAt(levels) == '*') levels++;
+    return Math.max(levels, 1);
+  }
+
+  /**
+   * Adds the next page of struct fields, map entries or pointees
+   */
+  private void addChildrenPage(@NotNull XCompositeNode node, @NotNull DlvApi.Variable variable, @Nullable String expression) {
+    DlvApi.Variable[] children = variable.children;
+    int from = Math.min(myNextChild, children.length);
+    int to = Math.min(children.length, from + MAX_STRUCT_FIELDS);
+    boolean isStructure = variable.isStructure();
+    XValueChildrenList list = new XValueChildrenList(to - from);
+    for (int i = from; i < to; i++) {
+      DlvApi.Variable child = children[i];
+      String childExpression = isStructure && expression != null && StringUtil.isNotEmpty(child.name) ? expression + "." + child.name : null;
+      list.add(createChild(child, child.name, childExpression));
+    }
+    myNextChild = to;
+    node.addChildren(list, to == children.length);
+    if (to < children.length) {
+      node.tooManyChildren(children.length - to);
+    }
+  }
+
+  @NotNull
+  private DlvXValue createChild(@NotNull DlvApi.Variable child, @Nullable String name, @Nullable String expression) {
+    return new DlvXValue(myProcess, StringUtil.notNullize(name), child, expression, myProcessor, myGoroutineId, myFrameId,
+                         AllIcons.Nodes.Field);
+  }
+
+  private void evaluate(@NotNull XCompositeNode node, @NotNull String expression, @NotNull Consumer<DlvApi.Variable> consumer) {
+    myProcessor.send(new DlvRequest.EvalSymbol(expression, myGoroutineId, myFrameId))
+      .done(consumer)
+      .rejected(throwable -> node.setErrorMessage(StringUtil.notNullize(throwable.getMessage(), "Cannot evaluate " + expression)));
+  }
+
   @Nullable
   @Override
   public XValueModifier getModifier() {
     return new XValueModifier() {
       @Override
       public void setValue(@NotNull String newValue, @NotNull XModificationCallback callback) {
-        myProcessor.send(new DlvRequest.SetSymbol(myVariable.name, newValue, myFrameId))
+        myProcessor.send(new DlvRequest.SetSymbol(myExpression != null ? myExpression : myVariable.name, newValue, myGoroutineId, myFrameId))
           .processed(o -> {
             if (o != null) {
               callback.valueModified();
@@ -185,6 +185,10 @@ public class DlvApi {
     public boolean isPtr() {
       return getKind() == Kind.Ptr;
     }
+
+    public boolean isMap() {
+      return getKind() == Kind.Map;
+    }
   }
 
   // Goroutine represents the information relevant to Delve from the runtime's
@@ -204,6 +208,8 @@ public class DlvApi {
     public Location userCurrentLoc;
     // Location of the go instruction that started this goroutine
     public Location goStatementLoc;
+    // ID of the associated thread for running goroutines
+    public int threadID;
   }
 
   // DebuggerCommand is a command which changes the debugger's execution state.
@@ -26,15 +26,17 @@ import java.io.IOException;
 import java.util.List;
 
 /**
- * Please add your requests as a subclasses, otherwise reflection won't work.
+ * Please add your requests as a subclasses, otherwise decoders of their results won't be registered.
  *
  * @param <T> type of callback
- * @see com.goide.dlv.DlvCommandProcessor#getResultType(String)
+ * @see com.goide.dlv.DlvCommandProcessor#readResult(String, DlvResponse)
  */
 public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
+  public static final String METHOD_PREFIX = "RPCServer.";
   private static final String PARAMS = "params";
   private static final String ID = "id";
   private boolean argumentsObjectStarted;
+  private int myId = -1;
 
   private DlvRequest() {
     try {
@@ -48,7 +50,7 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
   @NotNull
   @Override
   public String getMethodName() {
-    return "RPCServer." + getClass().getSimpleName();
+    return METHOD_PREFIX + getClass().getSimpleName();
   }
 
   @Override
@@ -72,8 +74,16 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
     return true;
   }
 
+  /**
+   * @return id assigned to the request when it was sent, or -1
+   */
+  public int getId() {
+    return myId;
+  }
+
   @Override
   public final void finalize(int id) {
+    myId = id;
     try {
       if (argumentsObjectStarted) {
         if (needObject()) {
@@ -108,29 +118,49 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
     }
   }
 
+  /**
+   * Goroutine id -1 stands for the current goroutine in this and other requests
+   */
   public final static class StacktraceGoroutine extends DlvRequest<List<DlvApi.Location>> {
-    public StacktraceGoroutine() {
-      writeLong("Id", -1);
-      writeLong("Depth", 100);
+    public StacktraceGoroutine(int goroutineId, int depth) {
+      writeLong("Id", goroutineId);
+      writeLong("Depth", depth);
+    }
+  }
+
+  public final static class ListGoroutines extends DlvRequest<List<DlvApi.Goroutine>> {
+    public ListGoroutines() {
+      try {
+        beginArguments();
+        getWriter().name(PARAMS).beginArray().nullValue().endArray();
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    @Override
+    protected boolean needObject() {
+      return false;
     }
   }
 
   private abstract static class Locals<T> extends DlvRequest<T> {
-    Locals(int frameId) {
-      writeLong("GoroutineID", -1);
+    Locals(int goroutineId, int frameId) {
+      writeLong("GoroutineID", goroutineId);
       writeLong("Frame", frameId);
     }
   }
 
   public final static class ListLocalVars extends Locals<List<DlvApi.Variable>> {
-    public ListLocalVars(int frameId) {
-      super(frameId);
+    public ListLocalVars(int goroutineId, int frameId) {
+      super(goroutineId, frameId);
     }
   }
 
   public final static class ListFunctionArgs extends Locals<List<DlvApi.Variable>> {
-    public ListFunctionArgs(int frameId) {
-      super(frameId);
+    public ListFunctionArgs(int goroutineId, int frameId) {
+      super(goroutineId, frameId);
     }
   }
 
@@ -158,10 +188,10 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
   }
 
   public final static class EvalSymbol extends DlvRequest<DlvApi.Variable> {
-    public EvalSymbol(@NotNull String symbol, int frameId) {
+    public EvalSymbol(@NotNull String symbol, int goroutineId, int frameId) {
       try {
         getWriter().name(PARAMS).beginArray();
-        writeScope(frameId, getWriter())
+        writeScope(goroutineId, frameId, getWriter())
           .name("Symbol").value(symbol)
           .endObject().endArray();
       }
@@ -177,19 +207,19 @@ public abstract class DlvRequest<T> extends OutMessage implements Request<T> {
   }
 
   @NotNull
-  private static JsonWriter writeScope(int frameId, @NotNull JsonWriter writer) throws IOException {
+  private static JsonWriter writeScope(int goroutineId, int frameId, @NotNull JsonWriter writer) throws IOException {
     // todo: ask vladimir how to simplify this
     return writer.beginObject()
       .name("Scope").beginObject()
-      .name("GoroutineID").value(-1)
+      .name("GoroutineID").value(goroutineId)
       .name("Frame").value(frameId).endObject();
   }
 
   public final static class SetSymbol extends DlvRequest<Object> {
-    public SetSymbol(@NotNull String symbol, @NotNull String value, int frameId) {
+    public SetSymbol(@NotNull String symbol, @NotNull String value, int goroutineId, int frameId) {
       try {
         getWriter().name(PARAMS).beginArray();
-        writeScope(frameId, getWriter())
+        writeScope(goroutineId, frameId, getWriter())
           .name("Symbol").value(symbol)
           .name("Value").value(value)
           .endObject().endArray();
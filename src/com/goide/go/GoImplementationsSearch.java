@@ -0,0 +1,296 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.go;
+
+import com.goide.psi.*;
+import com.goide.psi.impl.GoPackageSymbolTable;
+import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.stubs.GoMethodDeclarationStub;
+import com.goide.stubs.index.GoMethodFingerprintIndex;
+import com.goide.stubs.index.GoMethodIndex;
+import com.goide.stubs.types.GoMethodDeclarationStubElementType;
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Comparing;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.DefinitionsScopedSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Finds types that implement an interface and interfaces that are implemented by a type.
+ * <p>
+ * Candidates are pruned by {@link GoMethodFingerprintIndex}, so only types and interfaces that have all required method names
+ * and arities get their PSI loaded. Implementations are streamed from the least common method of the interface,
+ * the rest of its methods are looked up per candidate type, so the search stops as soon as the processor asks to. Parameter and result types are not compared, neither methods promoted via embedded fields
+ * are taken into account.
+ */
+public class GoImplementationsSearch extends QueryExecutorBase<PsiElement, DefinitionsScopedSearch.SearchParameters> {
+  private static final int SELECTIVITY_LIMIT = 100;
+
+  public GoImplementationsSearch() {
+    super(true);
+  }
+
+  @Override
+  public void processQuery(@NotNull DefinitionsScopedSearch.SearchParameters parameters, @NotNull Processor<PsiElement> consumer) {
+    PsiElement element = parameters.getElement();
+    SearchScope searchScope = parameters.getScope();
+    GlobalSearchScope scope = searchScope instanceof GlobalSearchScope
+                              ? (GlobalSearchScope)searchScope
+                              : GlobalSearchScope.allScope(element.getProject());
+    if (element instanceof GoTypeSpec) {
+      processImplementations((GoTypeSpec)element, scope, consumer);
+    }
+    else if (element instanceof GoMethodSpec) {
+      String name = ((GoMethodSpec)element).getName();
+      GoTypeSpec interfaceSpec = PsiTreeUtil.getStubOrPsiParentOfType(element, GoTypeSpec.class);
+      if (name == null || interfaceSpec == null) return;
+      processImplementations(interfaceSpec, scope, type -> {
+        for (GoMethodDeclaration method : type.getMethods()) {
+          if (name.equals(method.getName()) && !consumer.process(method)) return false;
+        }
+        return true;
+      });
+    }
+  }
+
+  public static boolean isInterface(@NotNull GoTypeSpec spec) {
+    return getInterfaceType(spec) != null;
+  }
+
+  /**
+   * Processes types which have all methods of the interface. Empty interfaces are implemented by every type,
+   * so nothing is processed for them.
+   */
+  public static boolean processImplementations(@NotNull GoTypeSpec interfaceSpec,
+                                               @NotNull GlobalSearchScope scope,
+                                               @NotNull Processor<GoTypeSpec> processor) {
+    GoInterfaceType interfaceType = getInterfaceType(interfaceSpec);
+    Set<String> fingerprints = interfaceType != null ? getFingerprints(interfaceType) : null;
+    if (fingerprints == null || fingerprints.isEmpty()) return true;
+
+    Project project = interfaceSpec.getProject();
+    PsiFile interfaceFile = interfaceSpec.getContainingFile();
+    VirtualFile interfaceDirectory = hasPrivateMethods(fingerprints) ? getDirectory(interfaceFile) : null;
+    String selective = findMostSelective(fingerprints, project, scope);
+    if (selective == null) return true;
+
+    PsiManager psiManager = PsiManager.getInstance(project);
+    Set<TypeKey> visited = ContainerUtil.newHashSet();
+    return GoMethodFingerprintIndex.process(selective, project, scope, GoMethodDeclaration.class, method -> {
+      ProgressManager.checkCanceled();
+      TypeKey key = TypeKey.forMethod(method);
+      if (key == null || interfaceDirectory != null && !interfaceDirectory.equals(key.directory) || !visited.add(key)) return true;
+      return !declaresAll(key, fingerprints, project, scope) || processTypes(key, psiManager, processor);
+    });
+  }
+
+  /**
+   * @return the fingerprint with the fewest methods in the scope, counted up to {@link #SELECTIVITY_LIMIT},
+   * or null if some fingerprint has no methods at all
+   */
+  @Nullable
+  private static String findMostSelective(@NotNull Collection<String> fingerprints,
+                                          @NotNull Project project,
+                                          @NotNull GlobalSearchScope scope) {
+    String result = null;
+    int resultCount = SELECTIVITY_LIMIT + 1;
+    for (String fingerprint : fingerprints) {
+      int limit = Math.min(resultCount, SELECTIVITY_LIMIT);
+      int[] count = {0};
+      GoMethodFingerprintIndex.process(fingerprint, project, scope, GoMethodDeclaration.class, method -> ++count[0] < limit);
+      if (count[0] == 0) return null;
+      if (count[0] < resultCount) {
+        result = fingerprint;
+        resultCount = count[0];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks methods of the type via {@link GoMethodIndex}, so only stubs of its package are loaded
+   */
+  private static boolean declaresAll(@NotNull TypeKey key,
+                                     @NotNull Collection<String> fingerprints,
+                                     @NotNull Project project,
+                                     @NotNull GlobalSearchScope scope) {
+    Set<String> declared = ContainerUtil.newHashSet();
+    GlobalSearchScope packageScope = scope.intersectWith(GlobalSearchScopesCore.directoryScope(project, key.directory, false));
+    GoMethodIndex.process(key.packageName + "." + key.typeName, project, packageScope, null, method -> {
+      String name = method.getName();
+      int arity = getArity(method);
+      if (name != null && arity >= 0) {
+        declared.add(GoMethodFingerprintIndex.fingerprint(name, arity));
+      }
+      return true;
+    });
+    return declared.containsAll(fingerprints);
+  }
+
+  private static boolean processTypes(@NotNull TypeKey key, @NotNull PsiManager psiManager, @NotNull Processor<GoTypeSpec> processor) {
+    PsiDirectory directory = psiManager.findDirectory(key.directory);
+    if (directory == null) return true;
+    for (GoFile file : GoPackageSymbolTable.getFilesDeclaring(directory, key.typeName)) {
+      if (!Comparing.equal(file.getPackageName(), key.packageName)) continue;
+      for (GoTypeSpec spec : file.getTypes()) {
+        if (key.typeName.equals(spec.getName()) && !isInterface(spec) && !processor.process(spec)) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Processes interfaces whose methods are all declared by the type as soon as they are found in the index
+   */
+  public static boolean processImplementedInterfaces(@NotNull GoTypeSpec typeSpec,
+                                                     @NotNull GlobalSearchScope scope,
+                                                     @NotNull Processor<GoTypeSpec> processor) {
+    if (isInterface(typeSpec)) return true;
+    Set<String> fingerprints = ContainerUtil.newHashSet();
+    for (GoMethodDeclaration method : typeSpec.getMethods()) {
+      String name = method.getName();
+      int arity = getArity(method);
+      if (name != null && arity >= 0) {
+        fingerprints.add(GoMethodFingerprintIndex.fingerprint(name, arity));
+      }
+    }
+    if (fingerprints.isEmpty()) return true;
+
+    Project project = typeSpec.getProject();
+    VirtualFile typeDirectory = getDirectory(typeSpec.getContainingFile());
+    Set<GoTypeSpec> visited = ContainerUtil.newHashSet();
+    for (String fingerprint : fingerprints) {
+      boolean proceed = GoMethodFingerprintIndex.process(fingerprint, project, scope, GoMethodSpec.class, spec -> {
+        ProgressManager.checkCanceled();
+        GoTypeSpec candidate = PsiTreeUtil.getStubOrPsiParentOfType(spec, GoTypeSpec.class);
+        if (candidate == null || !visited.add(candidate)) return true;
+        GoInterfaceType interfaceType = getInterfaceType(candidate);
+        Set<String> required = interfaceType != null ? getFingerprints(interfaceType) : null;
+        if (required == null || !fingerprints.containsAll(required)) return true;
+        if (hasPrivateMethods(required) && !Comparing.equal(typeDirectory, getDirectory(candidate.getContainingFile()))) return true;
+        return processor.process(candidate);
+      });
+      if (!proceed) return false;
+    }
+    return true;
+  }
+
+  @Nullable
+  private static GoInterfaceType getInterfaceType(@NotNull GoTypeSpec spec) {
+    GoType type = spec.getSpecType().getType();
+    return type instanceof GoInterfaceType ? (GoInterfaceType)type : null;
+  }
+
+  /**
+   * @return fingerprints of all methods of the interface including embedded ones,
+   * or null if some of embedded interfaces cannot be resolved
+   */
+  @Nullable
+  private static Set<String> getFingerprints(@NotNull GoInterfaceType type) {
+    Set<String> result = ContainerUtil.newLinkedHashSet();
+    return collectFingerprints(type, result, ContainerUtil.newHashSet()) ? result : null;
+  }
+
+  private static boolean collectFingerprints(@NotNull GoInterfaceType type,
+                                             @NotNull Set<String> result,
+                                             @NotNull Set<GoInterfaceType> visited) {
+    if (!visited.add(type)) return true;
+    for (GoMethodSpec spec : type.getMethods()) {
+      String name = spec.getName();
+      int arity = GoPsiImplUtil.getArity(spec.getSignature());
+      if (name == null || arity < 0) return false;
+      result.add(GoMethodFingerprintIndex.fingerprint(name, arity));
+    }
+    for (GoTypeReferenceExpression reference : type.getBaseTypesReferences()) {
+      GoType resolved = reference.resolveType();
+      GoType underlying = resolved != null ? resolved.getUnderlyingType() : null;
+      if (!(underlying instanceof GoInterfaceType) || !collectFingerprints((GoInterfaceType)underlying, result, visited)) return false;
+    }
+    return true;
+  }
+
+  private static boolean hasPrivateMethods(@NotNull Collection<String> fingerprints) {
+    for (String fingerprint : fingerprints) {
+      if (!StringUtil.isCapitalized(fingerprint)) return true;
+    }
+    return false;
+  }
+
+  private static int getArity(@NotNull GoMethodDeclaration method) {
+    GoMethodDeclarationStub stub = method.getStub();
+    return stub != null ? stub.getArity() : GoPsiImplUtil.getArity(method.getSignature());
+  }
+
+  @Nullable
+  private static VirtualFile getDirectory(@Nullable PsiFile file) {
+    VirtualFile virtualFile = file != null ? file.getOriginalFile().getVirtualFile() : null;
+    return virtualFile != null ? virtualFile.getParent() : null;
+  }
+
+  private static class TypeKey {
+    @NotNull private final VirtualFile directory;
+    @NotNull private final String packageName;
+    @NotNull private final String typeName;
+
+    private TypeKey(@NotNull VirtualFile directory, @NotNull String packageName, @NotNull String typeName) {
+      this.directory = directory;
+      this.packageName = packageName;
+      this.typeName = typeName;
+    }
+
+    @Nullable
+    private static TypeKey forMethod(@NotNull GoMethodDeclaration method) {
+      GoMethodDeclarationStub stub = method.getStub();
+      String typeName = stub != null ? stub.getTypeName() : GoMethodDeclarationStubElementType.calcTypeText(method);
+      GoFile file = method.getContainingFile();
+      String packageName = file.getPackageName();
+      VirtualFile directory = getDirectory(file);
+      return StringUtil.isEmpty(typeName) || StringUtil.isEmpty(packageName) || directory == null
+             ? null
+             : new TypeKey(directory, packageName, typeName);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof TypeKey)) return false;
+      TypeKey key = (TypeKey)o;
+      return directory.equals(key.directory) && packageName.equals(key.packageName) && typeName.equals(key.typeName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(directory, packageName, typeName);
+    }
+  }
+}
@@ -17,21 +17,10 @@
 package com.goide.inspections;
 
 import com.goide.psi.*;
-import com.goide.psi.impl.GoPsiImplUtil;
-import com.goide.sdk.GoPackageUtil;
-import com.goide.stubs.index.GoFunctionIndex;
-import com.goide.stubs.index.GoIdFilter;
-import com.goide.stubs.index.GoMethodIndex;
-import com.goide.stubs.types.GoMethodDeclarationStubElementType;
+import com.goide.psi.impl.GoPackageDeclarations;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemsHolder;
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.module.ModuleUtilCore;
-import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.openapi.util.Comparing;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.util.indexing.IdFilter;
 import org.jetbrains.annotations.NotNull;
 
 import static com.goide.GoConstants.INIT;
@@ -45,30 +34,10 @@ public class GoDuplicateFunctionOrMethodInspection extends GoInspectionBase {
       @Override
       public void visitMethodDeclaration(@NotNull GoMethodDeclaration method) {
         if (method.isBlank()) return;
-
-        String methodName = method.getName();
-        if (methodName == null) return;
-
-        String typeText = GoMethodDeclarationStubElementType.calcTypeText(method);
-        if (typeText == null) return;
-
-        GoFile file = method.getContainingFile();
-        GlobalSearchScope scope = GoPackageUtil.packageScope(file);
-        IdFilter idFilter = GoIdFilter.getFilesFilter(scope);
-        Module module = ModuleUtilCore.findModuleForPsiElement(file);
-        String key = file.getPackageName() + "." + typeText;
-        GoMethodIndex.process(key, file.getProject(), scope, idFilter, declaration -> {
-          ProgressManager.checkCanceled();
-          if (!method.isEquivalentTo(declaration)) {
-            if (Comparing.equal(declaration.getName(), methodName)
-                && GoPsiImplUtil.allowed(declaration.getContainingFile(), file, module)) {
-              PsiElement identifier = method.getNameIdentifier();
-              holder.registerProblem(identifier == null ? method : identifier, "Duplicate method name");
-              return false;
-            }
-          }
-          return true;
-        });
+        if (GoPackageDeclarations.hasDuplicate(method)) {
+          PsiElement identifier = method.getNameIdentifier();
+          holder.registerProblem(identifier == null ? method : identifier, "Duplicate method name");
+        }
       }
 
       @Override
@@ -79,22 +48,11 @@ public class GoDuplicateFunctionOrMethodInspection extends GoInspectionBase {
         if (funcName == null) return;
         if (INIT.equals(funcName) && zeroArity(func)) return;
 
-        GoFile file = func.getContainingFile();
-        boolean isMainFunction = MAIN.equals(funcName) && MAIN.equals(file.getPackageName()) && zeroArity(func);
-        Module module = ModuleUtilCore.findModuleForPsiElement(file);
-        GlobalSearchScope scope = GoPackageUtil.packageScope(file);
-        IdFilter idFilter = GoIdFilter.getFilesFilter(scope);
-        GoFunctionIndex.process(funcName, file.getProject(), scope, idFilter, declaration -> {
-          ProgressManager.checkCanceled();
-          if (!func.isEquivalentTo(declaration) && GoPsiImplUtil.allowed(declaration.getContainingFile(), file, module)) {
-            if (!isMainFunction || Comparing.equal(declaration.getContainingFile(), file)) {
-              PsiElement identifier = func.getNameIdentifier();
-              holder.registerProblem(identifier == null ? func : identifier, "Duplicate function name");
-              return false;
-            }
-          }
-          return true;
-        });
+        boolean isMainFunction = MAIN.equals(funcName) && MAIN.equals(func.getContainingFile().getPackageName()) && zeroArity(func);
+        if (GoPackageDeclarations.hasDuplicate(func, isMainFunction)) {
+          PsiElement identifier = func.getNameIdentifier();
+          holder.registerProblem(identifier == null ? func : identifier, "Duplicate function name");
+        }
       }
     };
   }
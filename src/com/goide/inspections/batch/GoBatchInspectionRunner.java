@@ -0,0 +1,304 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.inspections.batch;
+
+import com.goide.GoFileType;
+import com.goide.psi.GoFile;
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.*;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.util.ExceptionUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Go inspections over a large scope without an editor, e.g. on CI.
+ * <p>
+ * Files are grouped by package and every package is a single task of a pool sized to the number of cores.
+ * A task first resolves all references of the package, then runs all tools in one walk over every file, so per-package caches
+ * like {@link com.goide.psi.impl.GoPackageDeclarations} and the resolve cache are filled once and shared by all inspections.
+ * Both phases are timed per package to find packages that are slow to analyze.
+ */
+public class GoBatchInspectionRunner {
+  private static final Logger LOG = Logger.getInstance(GoBatchInspectionRunner.class);
+
+  @NotNull private final Project myProject;
+  @NotNull private final List<LocalInspectionTool> myTools;
+  private int myParallelism = Runtime.getRuntime().availableProcessors();
+
+  public GoBatchInspectionRunner(@NotNull Project project, @NotNull Collection<? extends LocalInspectionTool> tools) {
+    myProject = project;
+    myTools = ContainerUtil.newArrayList(tools);
+  }
+
+  @NotNull
+  public GoBatchInspectionRunner withParallelism(int parallelism) {
+    myParallelism = Math.max(1, parallelism);
+    return this;
+  }
+
+  @NotNull
+  public List<PackageReport> run(@NotNull AnalysisScope scope, @NotNull ProgressIndicator indicator) {
+    List<VirtualFile> files = ContainerUtil.newArrayList();
+    scope.accept(file -> {
+      files.add(file);
+      return true;
+    });
+    return run(files, indicator);
+  }
+
+  /**
+   * Every package is analyzed in a read action of its own,
+   * so the caller shouldn't hold a read action while a write action may be pending.
+   *
+   * @return reports in the order of package directories
+   */
+  @NotNull
+  public List<PackageReport> run(@NotNull Collection<VirtualFile> files, @NotNull ProgressIndicator indicator) {
+    MultiMap<VirtualFile, VirtualFile> packages = groupByPackage(files);
+    List<Callable<PackageReport>> tasks = ContainerUtil.newArrayList();
+    for (Map.Entry<VirtualFile, Collection<VirtualFile>> entry : packages.entrySet()) {
+      tasks.add(() -> inspectPackage(entry.getKey(), entry.getValue(), indicator));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(myParallelism);
+    try {
+      List<PackageReport> reports = ContainerUtil.newArrayList();
+      for (Future<PackageReport> future : pool.invokeAll(tasks)) {
+        reports.add(getResult(future));
+      }
+      return reports;
+    }
+    finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * @return a human-readable table of the slowest packages
+   */
+  @NotNull
+  public static String formatSlowestPackages(@NotNull Collection<PackageReport> reports, int limit) {
+    List<PackageReport> sorted = ContainerUtil.sorted(reports, (r1, r2) -> Long.compare(r2.getTotalTime(), r1.getTotalTime()));
+    StringBuilder result = new StringBuilder();
+    for (PackageReport report : ContainerUtil.getFirstItems(sorted, limit)) {
+      result.append(report).append('\n');
+    }
+    return result.toString();
+  }
+
+  @NotNull
+  private static MultiMap<VirtualFile, VirtualFile> groupByPackage(@NotNull Collection<VirtualFile> files) {
+    MultiMap<VirtualFile, VirtualFile> result = new MultiMap<VirtualFile, VirtualFile>() {
+      @NotNull
+      @Override
+      protected Map<VirtualFile, Collection<VirtualFile>> createMap() {
+        return new TreeMap<>(Comparator.comparing(VirtualFile::getPath));
+      }
+    };
+    for (VirtualFile file : files) {
+      VirtualFile directory = file.getParent();
+      if (directory != null && !file.isDirectory() && file.getFileType() == GoFileType.INSTANCE) {
+        result.putValue(directory, file);
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  private PackageReport inspectPackage(@NotNull VirtualFile directory,
+                                       @NotNull Collection<VirtualFile> files,
+                                       @NotNull ProgressIndicator indicator) {
+    Ref<PackageReport> result = Ref.create();
+    ProgressManager.getInstance().runProcess(() -> result.set(ApplicationManager.getApplication().runReadAction(
+      (Computable<PackageReport>)() -> doInspectPackage(directory, files))), indicator);
+    PackageReport report = result.get();
+    LOG.info(report.toString());
+    return report;
+  }
+
+  @NotNull
+  private PackageReport doInspectPackage(@NotNull VirtualFile directory, @NotNull Collection<VirtualFile> files) {
+    PsiManager psiManager = PsiManager.getInstance(myProject);
+    List<GoFile> goFiles = ContainerUtil.newArrayList();
+    for (VirtualFile file : files) {
+      PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+      if (psiFile instanceof GoFile) {
+        goFiles.add((GoFile)psiFile);
+      }
+    }
+
+    long start = System.nanoTime();
+    for (GoFile file : goFiles) {
+      resolveReferences(file);
+    }
+    long resolved = System.nanoTime();
+    MultiMap<String, ProblemDescriptor> problems = MultiMap.createSmart();
+    for (GoFile file : goFiles) {
+      inspectFile(file, problems);
+    }
+    long inspected = System.nanoTime();
+    return new PackageReport(directory, goFiles.size(), TimeUnit.NANOSECONDS.toMillis(resolved - start),
+                             TimeUnit.NANOSECONDS.toMillis(inspected - resolved), problems);
+  }
+
+  private static void resolveReferences(@NotNull GoFile file) {
+    file.accept(new PsiRecursiveElementWalkingVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        ProgressManager.checkCanceled();
+        for (PsiReference reference : element.getReferences()) {
+          if (reference instanceof PsiPolyVariantReference) {
+            ((PsiPolyVariantReference)reference).multiResolve(false);
+          }
+          else {
+            reference.resolve();
+          }
+        }
+        super.visitElement(element);
+      }
+    });
+  }
+
+  private void inspectFile(@NotNull GoFile file, @NotNull MultiMap<String, ProblemDescriptor> problems) {
+    InspectionManager manager = InspectionManager.getInstance(myProject);
+    LocalInspectionToolSession session = new LocalInspectionToolSession(file, 0, file.getTextLength());
+    List<ProblemsHolder> holders = ContainerUtil.newArrayList();
+    List<PsiElementVisitor> visitors = ContainerUtil.newArrayList();
+    for (LocalInspectionTool tool : myTools) {
+      ProblemsHolder holder = new ProblemsHolder(manager, file, false);
+      tool.inspectionStarted(session, false);
+      holders.add(holder);
+      visitors.add(tool.buildVisitor(holder, false, session));
+    }
+
+    file.accept(new PsiRecursiveElementWalkingVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        ProgressManager.checkCanceled();
+        for (PsiElementVisitor visitor : visitors) {
+          element.accept(visitor);
+        }
+        super.visitElement(element);
+      }
+    });
+
+    for (int i = 0; i < myTools.size(); i++) {
+      LocalInspectionTool tool = myTools.get(i);
+      ProblemsHolder holder = holders.get(i);
+      tool.inspectionFinished(session, holder);
+      for (ProblemDescriptor descriptor : holder.getResults()) {
+        PsiElement element = descriptor.getPsiElement();
+        if (element == null || !tool.isSuppressedFor(element)) {
+          problems.putValue(tool.getShortName(), descriptor);
+        }
+      }
+    }
+  }
+
+  @NotNull
+  private static PackageReport getResult(@NotNull Future<PackageReport> future) {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      throw new ProcessCanceledException(e);
+    }
+    catch (ExecutionException e) {
+      ExceptionUtil.rethrowUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public static class PackageReport {
+    @NotNull private final VirtualFile myDirectory;
+    private final int myFilesCount;
+    private final long myResolveTime;
+    private final long myInspectionTime;
+    @NotNull private final MultiMap<String, ProblemDescriptor> myProblems;
+
+    private PackageReport(@NotNull VirtualFile directory,
+                          int filesCount,
+                          long resolveTime,
+                          long inspectionTime,
+                          @NotNull MultiMap<String, ProblemDescriptor> problems) {
+      myDirectory = directory;
+      myFilesCount = filesCount;
+      myResolveTime = resolveTime;
+      myInspectionTime = inspectionTime;
+      myProblems = problems;
+    }
+
+    @NotNull
+    public VirtualFile getDirectory() {
+      return myDirectory;
+    }
+
+    public int getFilesCount() {
+      return myFilesCount;
+    }
+
+    /**
+     * @return milliseconds spent on resolving references of the package
+     */
+    public long getResolveTime() {
+      return myResolveTime;
+    }
+
+    /**
+     * @return milliseconds spent on running inspections after references are resolved
+     */
+    public long getInspectionTime() {
+      return myInspectionTime;
+    }
+
+    public long getTotalTime() {
+      return myResolveTime + myInspectionTime;
+    }
+
+    /**
+     * @return problems grouped by short names of inspections
+     */
+    @NotNull
+    public MultiMap<String, ProblemDescriptor> getProblems() {
+      return myProblems;
+    }
+
+    @Override
+    public String toString() {
+      return myDirectory.getPath() + ": " + myFilesCount + " files, resolve " + myResolveTime + " ms, inspections " + myInspectionTime +
+             " ms, " + myProblems.values().size() + " problems";
+    }
+  }
+}
@@ -19,6 +19,7 @@ package com.goide.inspections.unresolved;
 import com.goide.inspections.GoInspectionBase;
 import com.goide.psi.GoConstDefinition;
 import com.goide.psi.GoVisitor;
+import com.goide.psi.impl.GoLocalDefUse;
 import com.goide.quickfix.GoDeleteConstDefinitionQuickFix;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
@@ -34,7 +35,9 @@ public class GoUnusedConstInspection extends GoInspectionBase {
       @Override
       public void visitConstDefinition(@NotNull GoConstDefinition o) {
         if (o.isBlank()) return;
-        if (ReferencesSearch.search(o, o.getUseScope()).findFirst() == null) {
+        GoLocalDefUse defUse = GoLocalDefUse.forDefinition(o);
+        boolean unused = defUse != null ? defUse.getUsages(o).isEmpty() : ReferencesSearch.search(o, o.getUseScope()).findFirst() == null;
+        if (unused) {
           String constName = o.getName();
           holder.registerProblem(o, "Unused constant <code>#ref</code> #loc", ProblemHighlightType.LIKE_UNUSED_SYMBOL,
                                  new GoDeleteConstDefinitionQuickFix(constName));
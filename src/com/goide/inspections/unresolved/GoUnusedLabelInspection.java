@@ -21,6 +21,7 @@ import com.goide.psi.GoLabelDefinition;
 import com.goide.psi.GoLabeledStatement;
 import com.goide.psi.GoStatement;
 import com.goide.psi.GoVisitor;
+import com.goide.psi.impl.GoLocalDefUse;
 import com.goide.quickfix.GoRenameToBlankQuickFix;
 import com.intellij.codeInspection.*;
 import com.intellij.openapi.project.Project;
@@ -39,7 +40,9 @@ public class GoUnusedLabelInspection extends GoInspectionBase {
       public void visitLabelDefinition(@NotNull GoLabelDefinition o) {
         super.visitLabelDefinition(o);
         if (o.isBlank()) return;
-        if (ReferencesSearch.search(o, o.getUseScope()).findFirst() == null) {
+        GoLocalDefUse defUse = GoLocalDefUse.forDefinition(o);
+        boolean unused = defUse != null ? defUse.getUsages(o).isEmpty() : ReferencesSearch.search(o, o.getUseScope()).findFirst() == null;
+        if (unused) {
           String name = o.getName();
           holder.registerProblem(o, "Unused label <code>#ref</code> #loc", ProblemHighlightType.GENERIC_ERROR_OR_WARNING,
                                  new GoRenameToBlankQuickFix(o), new GoDeleteLabelStatementQuickFix(name));
@@ -18,15 +18,14 @@ package com.goide.inspections.unresolved;
 
 import com.goide.inspections.GoInspectionBase;
 import com.goide.psi.*;
+import com.goide.psi.impl.GoLocalDefUse;
 import com.goide.runconfig.testing.GoTestFinder;
 import com.goide.runconfig.testing.GoTestFunctionType;
 import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.psi.PsiReference;
 import com.intellij.psi.search.searches.ReferencesSearch;
-import com.intellij.util.Query;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -72,8 +71,11 @@ public class GoUnusedParameterInspection extends GoInspectionBase {
             ProgressManager.checkCanceled();
             if (parameter.isBlank()) continue;
 
-            Query<PsiReference> search = ReferencesSearch.search(parameter, parameter.getUseScope());
-            if (search.findFirst() != null) continue;
+            GoLocalDefUse defUse = GoLocalDefUse.forDefinition(parameter);
+            boolean used = defUse != null
+                           ? !defUse.getUsages(parameter).isEmpty()
+                           : ReferencesSearch.search(parameter, parameter.getUseScope()).findFirst() != null;
+            if (used) continue;
 
             holder.registerProblem(parameter, "Unused " + what + " <code>#ref</code> #loc", ProblemHighlightType.LIKE_UNUSED_SYMBOL);
           }
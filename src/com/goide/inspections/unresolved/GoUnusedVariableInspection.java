@@ -18,6 +18,7 @@ package com.goide.inspections.unresolved;
 
 import com.goide.inspections.GoInspectionBase;
 import com.goide.psi.*;
+import com.goide.psi.impl.GoLocalDefUse;
 import com.goide.psi.impl.GoVarProcessor;
 import com.goide.quickfix.GoDeleteVarDefinitionQuickFix;
 import com.goide.quickfix.GoRenameToBlankQuickFix;
@@ -29,6 +30,7 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.search.searches.ReferencesSearch;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -46,29 +48,14 @@ public class GoUnusedVariableInspection extends GoInspectionBase {
           PsiReference reference = o.getReference();
           PsiElement resolve = reference != null ? reference.resolve() : null;
           if (resolve != null) return;
-          boolean foundReference = !ReferencesSearch.search(o, o.getUseScope()).forEach(reference1 -> {
-            ProgressManager.checkCanceled();
-            PsiElement element = reference1.getElement();
-            if (element == null) return true;
-            PsiElement parent = element.getParent();
-            if (parent instanceof GoLeftHandExprList) {
-              PsiElement grandParent = parent.getParent();
-              if (grandParent instanceof GoAssignmentStatement &&
-                  ((GoAssignmentStatement)grandParent).getAssignOp().getAssign() != null) {
-                GoFunctionLit fn = PsiTreeUtil.getParentOfType(element, GoFunctionLit.class);
-                if (fn == null || !PsiTreeUtil.isAncestor(GoVarProcessor.getScope(o), fn, true)) {
-                  return true;
-                }
-              }
-            }
-            if (parent instanceof GoShortVarDeclaration) {
-              int op = ((GoShortVarDeclaration)parent).getVarAssign().getStartOffsetInParent();
-              if (element.getStartOffsetInParent() < op) {
-                return true;
-              }
-            }
-            return false;
-          });
+          GoLocalDefUse defUse = GoLocalDefUse.forDefinition(o);
+          boolean foundReference = defUse != null
+                                   ? ContainerUtil.exists(defUse.getUsages(o), element -> isUsage(o, element))
+                                   : !ReferencesSearch.search(o, o.getUseScope()).forEach(reference1 -> {
+                                     ProgressManager.checkCanceled();
+                                     PsiElement element = reference1.getElement();
+                                     return element == null || !isUsage(o, element);
+                                   });
 
           if (!foundReference) {
             reportError(o, holder);
@@ -78,6 +65,30 @@ public class GoUnusedVariableInspection extends GoInspectionBase {
     };
   }
 
+  /**
+   * Assignments and redeclarations don't make a variable used, unless it's assigned within a closure
+   */
+  private static boolean isUsage(@NotNull GoVarDefinition definition, @NotNull PsiElement element) {
+    PsiElement parent = element.getParent();
+    if (parent instanceof GoLeftHandExprList) {
+      PsiElement grandParent = parent.getParent();
+      if (grandParent instanceof GoAssignmentStatement &&
+          ((GoAssignmentStatement)grandParent).getAssignOp().getAssign() != null) {
+        GoFunctionLit fn = PsiTreeUtil.getParentOfType(element, GoFunctionLit.class);
+        if (fn == null || !PsiTreeUtil.isAncestor(GoVarProcessor.getScope(definition), fn, true)) {
+          return false;
+        }
+      }
+    }
+    if (parent instanceof GoShortVarDeclaration) {
+      int op = ((GoShortVarDeclaration)parent).getVarAssign().getStartOffsetInParent();
+      if (element.getStartOffsetInParent() < op) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   protected void reportError(@NotNull GoVarDefinition varDefinition, @NotNull ProblemsHolder holder) {
     holder.registerProblem(varDefinition, "Unused variable <code>#ref</code> #loc", ProblemHighlightType.GENERIC_ERROR_OR_WARNING,
                            new GoRenameToBlankQuickFix(varDefinition), new GoDeleteVarDefinitionQuickFix(varDefinition.getName()));
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.marker;
+
+import com.goide.go.GoImplementationsSearch;
+import com.goide.psi.GoTypeSpec;
+import com.goide.util.GoUtil;
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.codeInsight.navigation.NavigationGutterIconBuilder;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.NotNullLazyValue;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+public class GoImplementationsMarkerProvider implements LineMarkerProvider {
+  @Override
+  public LineMarkerInfo getLineMarkerInfo(@NotNull PsiElement element) {
+    return null;
+  }
+
+  @Override
+  public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
+    for (PsiElement element : elements) {
+      ProgressManager.checkCanceled();
+      PsiElement parent = element.getParent();
+      if (!(parent instanceof GoTypeSpec) || ((GoTypeSpec)parent).getIdentifier() != element) continue;
+      GoTypeSpec spec = (GoTypeSpec)parent;
+      if (GoImplementationsSearch.isInterface(spec)) {
+        GlobalSearchScope scope = GoUtil.goPathUseScope(spec, false);
+        if (!GoImplementationsSearch.processImplementations(spec, scope, type -> false)) {
+          result.add(NavigationGutterIconBuilder.create(AllIcons.Gutter.ImplementedMethod)
+                       .setTargets(new NotNullLazyValue<Collection<? extends PsiElement>>() {
+                         @NotNull
+                         @Override
+                         protected Collection<? extends PsiElement> compute() {
+                           CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+                           GoImplementationsSearch.processImplementations(spec, scope, processor);
+                           return processor.getResults();
+                         }
+                       })
+                       .setTooltipText("Has implementations")
+                       .setPopupTitle("Choose Implementation of " + spec.getName())
+                       .createLineMarkerInfo(element));
+        }
+      }
+      else {
+        GlobalSearchScope scope = GoUtil.goPathResolveScope(spec);
+        if (!GoImplementationsSearch.processImplementedInterfaces(spec, scope, type -> false)) {
+          result.add(NavigationGutterIconBuilder.create(AllIcons.Gutter.ImplementingMethod)
+                       .setTargets(new NotNullLazyValue<Collection<? extends PsiElement>>() {
+                         @NotNull
+                         @Override
+                         protected Collection<? extends PsiElement> compute() {
+                           CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+                           GoImplementationsSearch.processImplementedInterfaces(spec, scope, processor);
+                           return processor.getResults();
+                         }
+                       })
+                       .setTooltipText("Implements interfaces")
+                       .setPopupTitle("Choose Interface Implemented by " + spec.getName())
+                       .createLineMarkerInfo(element));
+        }
+      }
+    }
+  }
+}
@@ -24,12 +24,8 @@ import com.intellij.lang.WhitespacesBinders;
 import com.intellij.lang.impl.PsiBuilderAdapter;
 import com.intellij.lang.parser.GeneratedParserUtilBase;
 import com.intellij.openapi.util.Key;
-import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.impl.source.resolve.FileContextUtil;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.util.containers.ContainerUtil;
-import com.intellij.util.indexing.IndexingDataKeys;
 import gnu.trove.TObjectIntHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -47,15 +43,17 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     return flags;
   }
 
+  /**
+   * Collapses a function body into a lazy {@link GoTypes#BLOCK} chameleon, see {@link com.goide.psi.GoBlockElementType}.
+   * Bodies with unbalanced braces or local type declarations are left for the regular parser.
+   */
   public static boolean consumeBlock(PsiBuilder builder_, @SuppressWarnings("UnusedParameters") int level) {
-    PsiFile file = builder_.getUserDataUnprotected(FileContextUtil.CONTAINING_FILE_KEY);
-    VirtualFile data = file != null ? file.getUserData(IndexingDataKeys.VIRTUAL_FILE) : null;
-    if (data == null) return false;
+    if (builder_.getTokenType() != GoTypes.LBRACE) return false;
     int i = 0;
     PsiBuilder.Marker m = builder_.mark();
     do {
       IElementType type = builder_.getTokenType();
-      if (type == GoTypes.TYPE_ && nextIdentifier(builder_)) { // don't count a.(type), only type <ident>
+      if (type == GoTypes.TYPE_ && startsTypeDeclaration(builder_)) {
         m.rollbackTo();
         return false;
       }
@@ -65,7 +63,7 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     while (i > 0 && !builder_.eof());
     boolean result = i == 0;
     if (result) {
-      m.drop();
+      m.collapse(GoTypes.BLOCK);
     }
     else {
       m.rollbackTo();
@@ -73,13 +71,16 @@ public class GoParserUtil extends GeneratedParserUtilBase {
     return result;  
   }
 
-  private static boolean nextIdentifier(PsiBuilder builder_) {
+  /**
+   * Checks that the current {@code type} keyword is followed by {@code <ident>} or {@code (}, not by {@code )} as in {@code a.(type)}
+   */
+  private static boolean startsTypeDeclaration(PsiBuilder builder_) {
     IElementType e;
     int i = 0;
     //noinspection StatementWithEmptyBody
-    while ((e = builder_.rawLookup(++i)) == GoParserDefinition.WS || e == GoParserDefinition.NLS) {
+    while (GoParserDefinition.WHITESPACES.contains(e = builder_.rawLookup(++i)) || GoParserDefinition.COMMENTS.contains(e)) {
     }
-    return e == GoTypes.IDENTIFIER;
+    return e == GoTypes.IDENTIFIER || e == GoTypes.LPAREN;
   }
 
   public static boolean emptyImportList(PsiBuilder builder_, @SuppressWarnings("UnusedParameters") int level) {
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi;
+
+import com.goide.GoLanguage;
+import com.goide.GoParserDefinition;
+import com.goide.GoTypes;
+import com.goide.lexer.GoLexer;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.tree.ICompositeElementType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IErrorCounterReparseableElementType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Element type of code blocks.
+ * <p>
+ * Bodies of functions and methods are collapsed by the parser and expanded only when their children are requested,
+ * so passes that look at top-level declarations only never build body trees. Any block that stays balanced after
+ * an edit is reparsed on its own instead of the whole file.
+ * <p>
+ * Blocks with local type declarations are never collapsed: such declarations are stubbed, and the stub tree
+ * must not depend on whether a body has been expanded.
+ */
+public class GoBlockElementType extends IErrorCounterReparseableElementType implements ICompositeElementType {
+  public GoBlockElementType(@NotNull String debugName) {
+    super(debugName, GoLanguage.INSTANCE);
+  }
+
+  @NotNull
+  @Override
+  public ASTNode createCompositeNode() {
+    return new LazyParseableElement(this, null);
+  }
+
+  @Override
+  public int getErrorsCount(CharSequence seq, Language fileLanguage, Project project) {
+    return isCollapsible(seq) ? NO_ERRORS : FATAL_ERROR;
+  }
+
+  /**
+   * @return true if the text is a single block with balanced braces and without local type declarations
+   */
+  public static boolean isCollapsible(@NotNull CharSequence text) {
+    Lexer lexer = new GoLexer();
+    lexer.start(text);
+    if (lexer.getTokenType() != GoTypes.LBRACE) return false;
+    int balance = 0;
+    boolean afterType = false;
+    IElementType type;
+    while ((type = lexer.getTokenType()) != null) {
+      if (balance == 0 && lexer.getTokenStart() > 0) return false;
+      if (!GoParserDefinition.WHITESPACES.contains(type) && !GoParserDefinition.COMMENTS.contains(type)) {
+        // don't count a.(type), only type <ident> and type (
+        if (afterType && (type == GoTypes.IDENTIFIER || type == GoTypes.LPAREN)) return false;
+        afterType = type == GoTypes.TYPE_;
+      }
+      balance += type == GoTypes.LBRACE ? 1 : type == GoTypes.RBRACE ? -1 : 0;
+      lexer.advance();
+    }
+    return balance == 0;
+  }
+}
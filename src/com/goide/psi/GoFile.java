@@ -20,6 +20,7 @@ import com.goide.GoConstants;
 import com.goide.GoFileType;
 import com.goide.GoLanguage;
 import com.goide.GoTypes;
+import com.goide.psi.impl.GoPackageModificationTracker;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.runconfig.testing.GoTestFinder;
 import com.goide.sdk.GoPackageUtil;
@@ -28,6 +29,7 @@ import com.goide.stubs.GoConstSpecStub;
 import com.goide.stubs.GoFileStub;
 import com.goide.stubs.GoVarSpecStub;
 import com.goide.stubs.types.*;
+import com.goide.util.GoBuildConstraint;
 import com.goide.util.GoUtil;
 import com.intellij.extapi.psi.PsiFileBase;
 import com.intellij.openapi.fileTypes.FileType;
@@ -114,6 +116,15 @@ public class GoFile extends PsiFileBase {
     return !buildFlags.isEmpty() ? StringUtil.join(buildFlags, "|") : null;
   }
 
+  @NotNull
+  public GoBuildConstraint getBuildConstraint() {
+    GoFileStub stub = getStub();
+    if (stub != null) {
+      return stub.getBuildConstraint();
+    }
+    return CachedValuesManager.getCachedValue(this, () -> CachedValueProvider.Result.create(GoBuildConstraint.parse(getBuildFlags()), this));
+  }
+
 
   @NotNull
   public List<GoFunctionDeclaration> getFunctions() {
@@ -205,8 +216,10 @@ public class GoFile extends PsiFileBase {
         }
         GoImportString string = spec.getImportString();
         PsiDirectory dir = string.resolve();
-        // todo[zolotov]: implement package modification tracker
-        ContainerUtil.addIfNotNull(dependencies, dir);
+        if (dir != null) {
+          dependencies.add(dir);
+          dependencies.add(GoPackageModificationTracker.getPackageDependency(dir));
+        }
         Collection<String> packagesInDirectory = GoPackageUtil.getAllPackagesInDirectory(dir, module, true);
         if (!packagesInDirectory.isEmpty()) {
           for (String packageNames : packagesInDirectory) {
@@ -304,7 +317,7 @@ public class GoFile extends PsiFileBase {
     return GoFileType.INSTANCE;
   }
 
-  public boolean hasMainFunction() { // todo create a map for faster search
+  public boolean hasMainFunction() {
     List<GoFunctionDeclaration> functions = getFunctions();
     for (GoFunctionDeclaration function : functions) {
       if (GoConstants.MAIN.equals(function.getName())) {
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.*;
+import com.intellij.codeInsight.highlighting.ReadWriteAccessDetector;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Usages of local variables, constants, parameters and labels of a top-level declaration, including the ones of nested
+ * function literals.
+ * <p>
+ * The declaration is walked once, and only references named like some of its local definitions get resolved.
+ * Besides plain references these include keys of composite literals, e.g. {@code k} in {@code map[int]string{k: "a"}}.
+ * So checking all local definitions of a function costs a single pass over its body instead of a references search
+ * for each of them. The result is cached until the file changes.
+ */
+public class GoLocalDefUse {
+  private final Set<GoNamedElement> myDefinitions = ContainerUtil.newHashSet();
+  private final MultiMap<GoNamedElement, PsiElement> myUsages = MultiMap.createSmart();
+  private final Map<GoReferenceExpression, ReadWriteAccessDetector.Access> myAccess = ContainerUtil.newHashMap();
+
+  private GoLocalDefUse(@NotNull PsiElement declaration) {
+    Set<String> names = ContainerUtil.newHashSet();
+    List<PsiElement> references = ContainerUtil.newArrayList();
+    declaration.accept(new PsiRecursiveElementWalkingVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        if (element instanceof GoNamedElement && isLocalDefinition(element)) {
+          String name = ((GoNamedElement)element).getName();
+          if (name != null) {
+            myDefinitions.add((GoNamedElement)element);
+            names.add(name);
+          }
+        }
+        else if (element instanceof GoReferenceExpressionBase && ((GoReferenceExpressionBase)element).getQualifier() == null
+                 || element instanceof GoLabelRef) {
+          references.add(element);
+        }
+        super.visitElement(element);
+      }
+    });
+    if (myDefinitions.isEmpty()) return;
+
+    for (PsiElement reference : references) {
+      ProgressManager.checkCanceled();
+      PsiElement identifier = reference instanceof GoLabelRef ? ((GoLabelRef)reference).getIdentifier()
+                                                              : ((GoReferenceExpressionBase)reference).getIdentifier();
+      if (!names.contains(identifier.getText())) continue;
+      PsiReference psiReference = reference.getReference();
+      PsiElement target = psiReference != null ? psiReference.resolve() : null;
+      if (target instanceof GoNamedElement && myDefinitions.contains(target)) {
+        myUsages.putValue((GoNamedElement)target, reference);
+        if (reference instanceof GoReferenceExpression) {
+          myAccess.put((GoReferenceExpression)reference, ((GoReferenceExpression)reference).getReadWriteAccess());
+        }
+      }
+    }
+  }
+
+  /**
+   * @return usages of the top-level declaration the definition belongs to, or null if the definition isn't local,
+   * e.g. it's a package-level variable
+   */
+  @Nullable
+  public static GoLocalDefUse forDefinition(@NotNull GoNamedElement definition) {
+    if (!isLocalDefinition(definition)) return null;
+    PsiElement declaration = getTopLevelDeclaration(definition);
+    if (declaration == null) return null;
+    return CachedValuesManager.getCachedValue(declaration, () -> {
+      return CachedValueProvider.Result.create(new GoLocalDefUse(declaration), declaration);
+    });
+  }
+
+  /**
+   * @return references resolved to the local definition, in order of their occurrence
+   */
+  @NotNull
+  public Collection<PsiElement> getUsages(@NotNull GoNamedElement definition) {
+    return myUsages.get(definition);
+  }
+
+  @Nullable
+  public ReadWriteAccessDetector.Access getAccess(@NotNull GoReferenceExpression reference) {
+    return myAccess.get(reference);
+  }
+
+  private static boolean isLocalDefinition(@NotNull PsiElement element) {
+    return (element instanceof GoVarDefinition || element instanceof GoConstDefinition || element instanceof GoParamDefinition
+            || element instanceof GoLabelDefinition) && PsiTreeUtil.getParentOfType(element, GoBlock.class, GoSignature.class) != null;
+  }
+
+  @Nullable
+  private static PsiElement getTopLevelDeclaration(@NotNull PsiElement element) {
+    PsiElement parent = element.getParent();
+    while (parent != null && !(parent instanceof PsiFile)) {
+      element = parent;
+      parent = element.getParent();
+    }
+    return parent instanceof GoFile ? element : null;
+  }
+}
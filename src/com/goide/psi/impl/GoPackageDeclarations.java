@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.GoFile;
+import com.goide.psi.GoFunctionDeclaration;
+import com.goide.psi.GoMethodDeclaration;
+import com.goide.stubs.GoMethodDeclarationStub;
+import com.goide.stubs.types.GoMethodDeclarationStubElementType;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Comparing;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Functions and methods of a directory grouped by name, used to find duplicate declarations of a package.
+ * <p>
+ * The summary is built once per directory from stubs and lists a file as many times as it declares the name,
+ * regardless of package names, test suffixes or build constraints. These filters depend on the file being checked
+ * and its module, so they are applied to the few files declaring the name at query time.
+ */
+public class GoPackageDeclarations {
+  private final MultiMap<String, VirtualFile> myFunctions = MultiMap.createSmart();
+  private final MultiMap<String, VirtualFile> myMethods = MultiMap.createSmart();
+
+  private GoPackageDeclarations(@NotNull PsiDirectory directory) {
+    for (PsiFile file : directory.getFiles()) {
+      if (!(file instanceof GoFile)) continue;
+      GoFile goFile = (GoFile)file;
+      VirtualFile virtualFile = goFile.getVirtualFile();
+      if (virtualFile == null) continue;
+      for (GoFunctionDeclaration function : goFile.getFunctions()) {
+        putIfNotEmpty(myFunctions, function.getName(), virtualFile);
+      }
+      for (GoMethodDeclaration method : goFile.getMethods()) {
+        putIfNotEmpty(myMethods, methodKey(method), virtualFile);
+      }
+    }
+  }
+
+  /**
+   * @param sameFileOnly whether only declarations from the same file are taken into account, e.g. for main functions
+   * @return true if the package of the function declares another visible function with the same name
+   */
+  public static boolean hasDuplicate(@NotNull GoFunctionDeclaration function, boolean sameFileOnly) {
+    GoPackageDeclarations declarations = forFile(function.getContainingFile());
+    String name = function.getName();
+    return declarations != null && name != null
+           && hasDuplicate(declarations.myFunctions.get(name), function.getContainingFile(), sameFileOnly);
+  }
+
+  /**
+   * @return true if the package of the method declares another visible method with the same name and receiver type
+   */
+  public static boolean hasDuplicate(@NotNull GoMethodDeclaration method) {
+    GoPackageDeclarations declarations = forFile(method.getContainingFile());
+    String key = methodKey(method);
+    return declarations != null && key != null && hasDuplicate(declarations.myMethods.get(key), method.getContainingFile(), false);
+  }
+
+  @Nullable
+  private static GoPackageDeclarations forFile(@NotNull GoFile file) {
+    PsiDirectory directory = file.getParent();
+    if (directory == null) return null;
+    return CachedValuesManager.getCachedValue(directory, () -> {
+      return CachedValueProvider.Result.create(new GoPackageDeclarations(directory), directory,
+                                               GoPackageModificationTracker.getPackageDependency(directory));
+    });
+  }
+
+  private static boolean hasDuplicate(@NotNull Collection<VirtualFile> declaringFiles, @NotNull GoFile file, boolean sameFileOnly) {
+    if (declaringFiles.size() < 2) return false;
+    VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+    Module module = ModuleUtilCore.findModuleForPsiElement(file);
+    PsiManager manager = file.getManager();
+    int visible = 0;
+    for (VirtualFile declaringFile : declaringFiles) {
+      ProgressManager.checkCanceled();
+      if (sameFileOnly && !declaringFile.equals(virtualFile)) continue;
+      PsiFile psiFile = declaringFile.isValid() ? manager.findFile(declaringFile) : null;
+      if (psiFile instanceof GoFile && Comparing.equal(((GoFile)psiFile).getPackageName(), file.getPackageName())
+          && GoPsiImplUtil.allowed(psiFile, file, module)) {
+        visible++;
+      }
+    }
+    // the declaration itself is among the visible ones unless its file doesn't match the build target
+    return visible > (GoPsiImplUtil.allowed(file, file, module) ? 1 : 0);
+  }
+
+  @Nullable
+  private static String methodKey(@NotNull GoMethodDeclaration method) {
+    GoMethodDeclarationStub stub = method.getStub();
+    String typeText = stub != null ? stub.getTypeName() : GoMethodDeclarationStubElementType.calcTypeText(method);
+    String name = method.getName();
+    return typeText != null && name != null ? typeText + "." + name : null;
+  }
+
+  private static void putIfNotEmpty(@NotNull MultiMap<String, VirtualFile> map, @Nullable String key, @NotNull VirtualFile file) {
+    if (StringUtil.isNotEmpty(key)) {
+      map.putValue(key, file);
+    }
+  }
+}
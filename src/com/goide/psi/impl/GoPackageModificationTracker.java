@@ -0,0 +1,319 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.GoBlock;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoFunctionOrMethodDeclaration;
+import com.goide.psi.GoPackageClause;
+import com.goide.stubs.index.GoAllPublicNamesIndex;
+import com.intellij.ProjectTopics;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootAdapter;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks modifications of Go packages, i.e. directories with Go files.
+ * <p>
+ * Every package has its own counter that is incremented on any change in one of its files.
+ * Changes outside of function and method bodies can affect other packages, so they also increment a shared
+ * declarations counter that every package tracker takes into account.
+ * As a result, typing inside a function invalidates caches of the edited package only.
+ * <p>
+ * Package names of files change much more rarely, so they are tracked by a separate per-package counter
+ * that is incremented on changes that may touch a package clause.
+ * <p>
+ * Public names of edited files are remembered before their first declaration change and compared with the new ones
+ * once the public names tracker is asked for its count, so only changes of the names themselves are reported by it.
+ */
+public class GoPackageModificationTracker {
+  private final SimpleModificationTracker myDeclarationsTracker = new SimpleModificationTracker();
+  private final ConcurrentMap<VirtualFile, PackageTracker> myPackageTrackers = ContainerUtil.createConcurrentWeakMap();
+  private final PublicNamesTracker myPublicNamesTracker;
+
+  public GoPackageModificationTracker(@NotNull Project project) {
+    myPublicNamesTracker = new PublicNamesTracker(PsiManager.getInstance(project));
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void beforeChildAddition(@NotNull PsiTreeChangeEvent event) {
+        processBeforeEvent(event);
+      }
+
+      @Override
+      public void beforeChildRemoval(@NotNull PsiTreeChangeEvent event) {
+        processBeforeEvent(event);
+      }
+
+      @Override
+      public void beforeChildReplacement(@NotNull PsiTreeChangeEvent event) {
+        processBeforeEvent(event);
+      }
+
+      @Override
+      public void beforeChildMovement(@NotNull PsiTreeChangeEvent event) {
+        processBeforeEvent(event);
+      }
+
+      @Override
+      public void beforeChildrenChange(@NotNull PsiTreeChangeEvent event) {
+        processBeforeEvent(event);
+      }
+
+      @Override
+      public void beforePropertyChange(@NotNull PsiTreeChangeEvent event) {
+        processBeforeEvent(event);
+      }
+
+      @Override
+      public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        processEvent(event);
+      }
+
+      @Override
+      public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        processEvent(event);
+      }
+
+      @Override
+      public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        processEvent(event);
+      }
+
+      @Override
+      public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        processEvent(event);
+      }
+
+      @Override
+      public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        processEvent(event);
+      }
+
+      @Override
+      public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+        processEvent(event);
+      }
+    }, project);
+
+    project.getMessageBus().connect(project).subscribe(ProjectTopics.PROJECT_ROOTS, new ModuleRootAdapter() {
+      @Override
+      public void rootsChanged(ModuleRootEvent event) {
+        myDeclarationsTracker.incModificationCount();
+        myPublicNamesTracker.incModificationCount();
+      }
+    });
+  }
+
+  public static GoPackageModificationTracker getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GoPackageModificationTracker.class);
+  }
+
+  /**
+   * @return tracker of the package that contains the element,
+   * or {@link PsiModificationTracker#MODIFICATION_COUNT} if the element doesn't belong to a physical Go package
+   */
+  @NotNull
+  public static Object getPackageDependency(@NotNull PsiElement element) {
+    PsiFile file = element.getContainingFile();
+    if (file instanceof GoFile && file.isPhysical()) {
+      VirtualFile virtualFile = file.getVirtualFile();
+      VirtualFile directory = virtualFile != null ? virtualFile.getParent() : null;
+      if (directory != null) {
+        return getInstance(element.getProject()).getPackageTracker(directory);
+      }
+    }
+    return PsiModificationTracker.MODIFICATION_COUNT;
+  }
+
+  /**
+   * @return tracker of the package in the directory, it doesn't make sense to ask it for non-physical directories
+   */
+  @NotNull
+  public static ModificationTracker getPackageDependency(@NotNull PsiDirectory directory) {
+    return getInstance(directory.getProject()).getPackageTracker(directory.getVirtualFile());
+  }
+
+  /**
+   * @return tracker of package clauses of files in the directory, files being added, removed or renamed are not tracked by it
+   */
+  @NotNull
+  public static ModificationTracker getPackageNamesDependency(@NotNull PsiDirectory directory) {
+    return getInstance(directory.getProject()).getOrCreatePackageTracker(directory.getVirtualFile()).myPackageNamesTracker;
+  }
+
+  @NotNull
+  public ModificationTracker getPackageTracker(@NotNull VirtualFile directory) {
+    return getOrCreatePackageTracker(directory);
+  }
+
+  @NotNull
+  private PackageTracker getOrCreatePackageTracker(@NotNull VirtualFile directory) {
+    PackageTracker tracker = myPackageTrackers.get(directory);
+    return tracker != null ? tracker : ConcurrencyUtil.cacheOrGet(myPackageTrackers, directory, new PackageTracker());
+  }
+
+  @NotNull
+  public ModificationTracker getDeclarationsTracker() {
+    return myDeclarationsTracker;
+  }
+
+  /**
+   * @return tracker of keys of {@link com.goide.stubs.index.GoAllPublicNamesIndex}, it isn't affected by edits that keep
+   * public names of files intact, e.g. changes of signatures, comments or function bodies
+   */
+  @NotNull
+  public ModificationTracker getPublicNamesTracker() {
+    return myPublicNamesTracker;
+  }
+
+  private void processBeforeEvent(@NotNull PsiTreeChangeEvent event) {
+    PsiFile file = event.getFile();
+    if (file instanceof GoFile && !isInsideFunctionBody(event.getParent())) {
+      myPublicNamesTracker.rememberNames((GoFile)file);
+    }
+  }
+
+  private void processEvent(@NotNull PsiTreeChangeEvent event) {
+    PsiFile file = event.getFile();
+    if (file == null) {
+      // files were added, removed, moved or renamed, this can change import resolution anywhere
+      myDeclarationsTracker.incModificationCount();
+      myPublicNamesTracker.incModificationCount();
+      return;
+    }
+    if (!(file instanceof GoFile)) return;
+    VirtualFile virtualFile = file.getVirtualFile();
+    VirtualFile directory = virtualFile != null ? virtualFile.getParent() : null;
+    if (directory != null) {
+      PackageTracker tracker = myPackageTrackers.get(directory);
+      if (tracker != null) {
+        tracker.incModificationCount();
+        if (mayChangePackageClause(event.getParent())) {
+          tracker.myPackageNamesTracker.incModificationCount();
+        }
+      }
+    }
+    if (!isInsideFunctionBody(event.getParent())) {
+      myDeclarationsTracker.incModificationCount();
+      myPublicNamesTracker.markChanged((GoFile)file);
+    }
+  }
+
+  private static boolean isInsideFunctionBody(@Nullable PsiElement element) {
+    if (element == null || element instanceof PsiFile) return false;
+    GoFunctionOrMethodDeclaration declaration = PsiTreeUtil.getParentOfType(element, GoFunctionOrMethodDeclaration.class, false);
+    GoBlock body = declaration != null ? declaration.getBlock() : null;
+    return body != null && PsiTreeUtil.isAncestor(body, element, false);
+  }
+
+  private static boolean mayChangePackageClause(@Nullable PsiElement element) {
+    return element == null || element instanceof PsiFile || PsiTreeUtil.getParentOfType(element, GoPackageClause.class, false) != null;
+  }
+
+  private class PackageTracker extends SimpleModificationTracker {
+    private final SimpleModificationTracker myPackageNamesTracker = new SimpleModificationTracker();
+
+    @Override
+    public long getModificationCount() {
+      return super.getModificationCount() + myDeclarationsTracker.getModificationCount();
+    }
+  }
+
+  private static class PublicNamesTracker extends SimpleModificationTracker {
+    @NotNull private final PsiManager myPsiManager;
+    private final ConcurrentMap<VirtualFile, Set<String>> myNames = ContainerUtil.createConcurrentWeakMap();
+    private final Set<VirtualFile> myChangedFiles = ContainerUtil.newConcurrentSet();
+
+    private PublicNamesTracker(@NotNull PsiManager psiManager) {
+      myPsiManager = psiManager;
+    }
+
+    private void rememberNames(@NotNull GoFile file) {
+      VirtualFile virtualFile = file.getVirtualFile();
+      if (virtualFile != null && file.isPhysical() && !myNames.containsKey(virtualFile)) {
+        myNames.put(virtualFile, collectPublicNames(file));
+      }
+    }
+
+    private void markChanged(@NotNull GoFile file) {
+      VirtualFile virtualFile = file.getVirtualFile();
+      if (virtualFile != null && file.isPhysical()) {
+        myChangedFiles.add(virtualFile);
+      }
+    }
+
+    @Override
+    public long getModificationCount() {
+      boolean changed = false;
+      for (VirtualFile virtualFile : myChangedFiles) {
+        myChangedFiles.remove(virtualFile);
+        PsiFile file = virtualFile.isValid() ? myPsiManager.findFile(virtualFile) : null;
+        Set<String> names = file instanceof GoFile ? collectPublicNames((GoFile)file) : Collections.emptySet();
+        if (!names.equals(myNames.put(virtualFile, names))) {
+          changed = true;
+        }
+      }
+      if (changed) {
+        incModificationCount();
+      }
+      return super.getModificationCount();
+    }
+
+    /**
+     * @return keys the file contributes to {@link com.goide.stubs.index.GoAllPublicNamesIndex}
+     */
+    @NotNull
+    private static Set<String> collectPublicNames(@NotNull GoFile file) {
+      Set<String> names = ContainerUtil.newTroveSet();
+      IndexSink sink = new IndexSink() {
+        @Override
+        public <Psi extends PsiElement, K> void occurrence(@NotNull StubIndexKey<K, Psi> indexKey, @NotNull K value) {
+          if (indexKey == GoAllPublicNamesIndex.ALL_PUBLIC_NAMES) {
+            names.add((String)value);
+          }
+        }
+      };
+      for (StubElement<?> stub : file.calcStubTree().getPlainList()) {
+        IStubElementType stubType = stub.getStubType();
+        if (stubType != null) {
+          //noinspection unchecked
+          stubType.indexStub(stub, sink);
+        }
+      }
+      return names;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.psi.GoFile;
+import com.goide.psi.GoNamedElement;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps names of top-level constants, variables, functions and types of a directory to the files that declare them.
+ * <p>
+ * The table is built from stubs and contains all Go files of the directory regardless of their package names, test suffixes
+ * or build constraints, so it can be shared by all build targets. Callers are expected to apply these filters to found files.
+ * Files are stored as virtual files in order not to hold PSI of the whole directory.
+ */
+public class GoPackageSymbolTable {
+  private GoPackageSymbolTable() {}
+
+  @NotNull
+  public static List<GoFile> getFilesDeclaring(@NotNull PsiDirectory directory, @NotNull String name) {
+    Collection<VirtualFile> files = getSymbols(directory).get(name);
+    if (files.isEmpty()) return Collections.emptyList();
+    PsiManager manager = directory.getManager();
+    List<GoFile> result = ContainerUtil.newSmartList();
+    for (VirtualFile file : files) {
+      PsiFile psiFile = file.isValid() ? manager.findFile(file) : null;
+      if (psiFile instanceof GoFile) {
+        result.add((GoFile)psiFile);
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  private static MultiMap<String, VirtualFile> getSymbols(@NotNull PsiDirectory directory) {
+    return CachedValuesManager.getCachedValue(directory, () -> {
+      MultiMap<String, VirtualFile> symbols = MultiMap.createLinkedSet();
+      for (PsiFile file : directory.getFiles()) {
+        if (!(file instanceof GoFile)) continue;
+        GoFile goFile = (GoFile)file;
+        VirtualFile virtualFile = goFile.getVirtualFile();
+        if (virtualFile == null) continue;
+        putAll(symbols, goFile.getConstants(), virtualFile);
+        putAll(symbols, goFile.getVars(), virtualFile);
+        putAll(symbols, goFile.getFunctions(), virtualFile);
+        putAll(symbols, goFile.getTypes(), virtualFile);
+      }
+      return CachedValueProvider.Result.create(symbols, directory, GoPackageModificationTracker.getPackageDependency(directory));
+    });
+  }
+
+  private static void putAll(@NotNull MultiMap<String, VirtualFile> symbols,
+                             @NotNull Collection<? extends GoNamedElement> elements,
+                             @NotNull VirtualFile file) {
+    for (GoNamedElement element : elements) {
+      String name = element.getName();
+      if (StringUtil.isNotEmpty(name)) {
+        symbols.putValue(name, file);
+      }
+    }
+  }
+}
@@ -49,7 +49,6 @@ import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ObjectUtils;
 import com.intellij.util.PathUtil;
@@ -126,8 +125,16 @@ public class GoPsiImplUtil {
     return declaration;
   }
 
+  /**
+   * @return number of parameters, e.g. 2 for both {@code (a, b int)} and {@code (int, string)}, or -1 if there is no signature
+   */
   public static int getArity(@Nullable GoSignature s) {
-    return s == null ? -1 : s.getParameters().getParameterDeclarationList().size();
+    if (s == null) return -1;
+    int arity = 0;
+    for (GoParameterDeclaration declaration : s.getParameters().getParameterDeclarationList()) {
+      arity += Math.max(1, declaration.getParamDefinitionList().size());
+    }
+    return arity;
   }
 
   @Nullable
@@ -356,7 +363,7 @@ public class GoPsiImplUtil {
     return RecursionManager.doPreventingRecursion(o, true, () -> {
       if (context != null) return unwrapParType(o, context);
       return CachedValuesManager.getCachedValue(o, () -> CachedValueProvider.Result
-        .create(unwrapParType(o, createContextOnElement(o)), PsiModificationTracker.MODIFICATION_COUNT));
+        .create(unwrapParType(o, createContextOnElement(o)), GoPackageModificationTracker.getPackageDependency(o)));
     });
   }
 
@@ -848,10 +855,8 @@ public class GoPsiImplUtil {
 
   @NotNull
   public static List<GoMethodDeclaration> getMethods(@NotNull GoTypeSpec o) {
-    return CachedValuesManager.getCachedValue(o, () -> {
-      // todo[zolotov]: implement package modification tracker
-      return CachedValueProvider.Result.create(calcMethods(o), PsiModificationTracker.MODIFICATION_COUNT);
-    });
+    return CachedValuesManager.getCachedValue(o, () -> CachedValueProvider.Result
+      .create(calcMethods(o), GoPackageModificationTracker.getPackageDependency(o)));
   }
 
   public static boolean allowed(@NotNull PsiFile declarationFile, @Nullable PsiFile referenceFile, @Nullable Module contextModule) {
@@ -30,6 +30,7 @@ import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -69,7 +70,7 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
     if (dir == null) return true;
     String filePath = getPath(file);
     Module module = file != null ? ModuleUtilCore.findModuleForPsiElement(file) : null;
-    for (PsiFile f : dir.getFiles()) {
+    for (PsiFile f : getFilesToProcess(dir, processor)) {
       if (!(f instanceof GoFile) || Comparing.equal(getPath(f), filePath)) continue;
       if (packageName != null && !packageName.equals(((GoFile)f).getPackageName())) continue;
       if (!allowed(f, file, module)) continue;
@@ -78,6 +79,17 @@ public abstract class GoReferenceBase<T extends GoReferenceExpressionBase> exten
     return true;
   }
 
+  /**
+   * Resolve processors accept elements with the same name as the reference only,
+   * so there is no need to walk through the files that don't declare such a name
+   */
+  @NotNull
+  private Collection<? extends PsiFile> getFilesToProcess(@NotNull PsiDirectory dir, @NotNull GoScopeProcessor processor) {
+    return processor.isCompletion()
+           ? Arrays.asList(dir.getFiles())
+           : GoPackageSymbolTable.getFilesDeclaring(dir, myElement.getIdentifier().getText());
+  }
+
   protected boolean processBuiltin(@NotNull GoScopeProcessor processor, @NotNull ResolveState state, @NotNull GoCompositeElement element) {
     GoFile builtin = GoSdkUtil.findBuiltinFile(element);
     return builtin == null || processFileEntities(builtin, processor, state, true);
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig;
+
+import com.goide.GoFileType;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoImportSpec;
+import com.goide.runconfig.application.GoApplicationConfiguration;
+import com.goide.runconfig.application.GoApplicationRunningState;
+import com.goide.sdk.GoPackageUtil;
+import com.goide.sdk.GoSdkService;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.EnvironmentUtil;
+import com.intellij.util.TimeoutUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Keeps binaries produced by {@link GoBuildingRunner} between launches.
+ * <p>
+ * An entry is keyed by a digest of the build command line, its environment, the SDK and the contents of all source files
+ * of the target and of the packages it transitively imports. SDK sources aren't read, the SDK path and version stand for them.
+ * Build constraints of the files are ignored, so a change in an excluded file invalidates the entry as well.
+ * Targets with imports that cannot be resolved aren't cached, since changes of their sources cannot be tracked.
+ * <p>
+ * Entries are evicted in least-recently-used order once their total size exceeds {@code go.build.cache.size} megabytes.
+ */
+public class GoBuildCache {
+  /**
+   * Stands for the output file in command lines passed to {@link #computeKey}, so the key doesn't depend on where the binary goes
+   */
+  public static final String OUTPUT_PATH_PLACEHOLDER = "$OUTPUT_PATH$";
+  private static final Logger LOG = Logger.getInstance(GoBuildCache.class);
+  private static final Set<String> SOURCE_EXTENSIONS = ContainerUtil.newHashSet(
+    "go", "c", "h", "s", "S", "cc", "cpp", "cxx", "hh", "hpp", "hxx", "m", "f", "F", "for", "f90", "swig", "swigcxx", "syso");
+  private static final int MAX_READ_ATTEMPTS = 20;
+  private static final long READ_ATTEMPT_DELAY = 50;
+
+  @NotNull private final File myDirectory;
+  private final long myMaxSize;
+  private final Map<String, FileDigest> myFileDigests = ContainerUtil.newConcurrentMap();
+
+  public GoBuildCache() {
+    this(new File(PathManager.getSystemPath(), "go-build-cache"), Long.getLong("go.build.cache.size", 1024) * 1024 * 1024);
+  }
+
+  GoBuildCache(@NotNull File directory, long maxSize) {
+    myDirectory = directory;
+    myMaxSize = maxSize;
+  }
+
+  public static GoBuildCache getInstance() {
+    return ServiceManager.getService(GoBuildCache.class);
+  }
+
+  /**
+   * Collects sources of the target under a read action that gives way to write actions and hashes them outside of it
+   *
+   * @param buildCommandLine {@code go build} command line with {@link #OUTPUT_PATH_PLACEHOLDER} as the output file
+   * @return cache key or null if the closure of the target cannot be computed
+   */
+  @Nullable
+  public String computeKey(@NotNull GoApplicationRunningState state,
+                           @NotNull GeneralCommandLine buildCommandLine,
+                           @NotNull ProgressIndicator indicator) {
+    MessageDigest digest = createDigest();
+    if (digest == null) return null;
+    update(digest, buildCommandLine.getExePath());
+    update(digest, buildCommandLine.getWorkDirectory() != null ? buildCommandLine.getWorkDirectory().getPath() : "");
+    for (String parameter : buildCommandLine.getParametersList().getList()) {
+      update(digest, parameter);
+    }
+    Map<String, String> environment = new TreeMap<>();
+    if (buildCommandLine.getParentEnvironmentType() != GeneralCommandLine.ParentEnvironmentType.NONE) {
+      environment.putAll(EnvironmentUtil.getEnvironmentMap());
+    }
+    environment.putAll(buildCommandLine.getEnvironment());
+    for (Map.Entry<String, String> entry : environment.entrySet()) {
+      update(digest, entry.getKey());
+      update(digest, StringUtil.notNullize(entry.getValue()));
+    }
+
+    Module module = state.getConfiguration().getConfigurationModule().getModule();
+    Project project = state.getConfiguration().getProject();
+    GoSdkService sdkService = GoSdkService.getInstance(project);
+    String sdkHome = sdkService.getSdkHomePath(module);
+    update(digest, StringUtil.notNullize(sdkHome));
+    update(digest, StringUtil.notNullize(sdkService.getSdkVersion(module)));
+
+    List<VirtualFile> closure = collectClosure(state.getConfiguration(), project, module, sdkHome, indicator);
+    if (closure == null) return null;
+    for (VirtualFile file : closure) {
+      indicator.checkCanceled();
+      if (file.isDirectory()) {
+        update(digest, file.getPath());
+      }
+      else if (!updateWithFile(digest, file)) {
+        return null;
+      }
+    }
+    return StringUtil.toHexString(digest.digest());
+  }
+
+  @Nullable
+  private static List<VirtualFile> collectClosure(@NotNull GoApplicationConfiguration configuration,
+                                                  @NotNull Project project,
+                                                  @Nullable Module module,
+                                                  @Nullable String sdkHome,
+                                                  @NotNull ProgressIndicator indicator) {
+    for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+      indicator.checkCanceled();
+      Ref<List<VirtualFile>> result = Ref.create();
+      if (ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(
+        () -> result.set(doCollectClosure(configuration, project, module, sdkHome, indicator)))) {
+        return result.get();
+      }
+      TimeoutUtil.sleep(READ_ATTEMPT_DELAY);
+    }
+    return null;
+  }
+
+  /**
+   * @return directories of the closure, each followed by its source files, or null if some import cannot be resolved
+   */
+  @Nullable
+  private static List<VirtualFile> doCollectClosure(@NotNull GoApplicationConfiguration configuration,
+                                                    @NotNull Project project,
+                                                    @Nullable Module module,
+                                                    @Nullable String sdkHome,
+                                                    @NotNull ProgressIndicator indicator) {
+    if (project.isDisposed()) return null;
+    PsiManager psiManager = PsiManager.getInstance(project);
+    List<VirtualFile> result = ContainerUtil.newArrayList();
+    Deque<PsiDirectory> queue = new ArrayDeque<>();
+    Set<VirtualFile> visited = ContainerUtil.newHashSet();
+    if (configuration.getKind() == GoApplicationConfiguration.Kind.PACKAGE) {
+      VirtualFile directory = GoPackageUtil.findByImportPath(configuration.getPackage(), project, module);
+      PsiDirectory psiDirectory = directory != null ? psiManager.findDirectory(directory) : null;
+      if (psiDirectory == null) return null;
+      visited.add(directory);
+      queue.add(psiDirectory);
+    }
+    else {
+      VirtualFile file = LocalFileSystem.getInstance().findFileByPath(configuration.getFilePath());
+      PsiFile psiFile = file != null ? psiManager.findFile(file) : null;
+      if (!(psiFile instanceof GoFile) || !collectImportedDirectories((GoFile)psiFile, queue, visited, sdkHome)) return null;
+      result.add(file);
+    }
+
+    while (!queue.isEmpty()) {
+      indicator.checkCanceled();
+      ProgressManager.checkCanceled();
+      PsiDirectory directory = queue.poll();
+      result.add(directory.getVirtualFile());
+      VirtualFile[] children = directory.getVirtualFile().getChildren();
+      Arrays.sort(children, (o1, o2) -> o1.getName().compareTo(o2.getName()));
+      for (VirtualFile child : children) {
+        if (child.isDirectory() || !SOURCE_EXTENSIONS.contains(child.getExtension())
+            || StringUtil.endsWith(child.getNameSequence(), "_test.go")) {
+          continue;
+        }
+        result.add(child);
+        if (child.getFileType() == GoFileType.INSTANCE) {
+          PsiFile psiFile = psiManager.findFile(child);
+          if (psiFile instanceof GoFile && !collectImportedDirectories((GoFile)psiFile, queue, visited, sdkHome)) return null;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return false if some import cannot be resolved, so changes of its sources cannot be tracked
+   */
+  private static boolean collectImportedDirectories(@NotNull GoFile file,
+                                                    @NotNull Deque<PsiDirectory> queue,
+                                                    @NotNull Set<VirtualFile> visited,
+                                                    @Nullable String sdkHome) {
+    for (GoImportSpec importSpec : file.getImports()) {
+      if (importSpec.isCImport()) continue;
+      PsiDirectory directory = importSpec.getImportString().resolve();
+      if (directory == null) return false;
+      VirtualFile virtualFile = directory.getVirtualFile();
+      if (sdkHome != null && FileUtil.isAncestor(sdkHome, virtualFile.getPath(), false)) continue;
+      if (visited.add(virtualFile)) {
+        queue.add(directory);
+      }
+    }
+    return true;
+  }
+
+  private boolean updateWithFile(@NotNull MessageDigest digest, @NotNull VirtualFile file) {
+    FileDigest fileDigest = myFileDigests.get(file.getPath());
+    if (fileDigest == null || fileDigest.timeStamp != file.getTimeStamp() || fileDigest.length != file.getLength()) {
+      MessageDigest contentDigest = createDigest();
+      if (contentDigest == null) return false;
+      try {
+        fileDigest = new FileDigest(file.getTimeStamp(), file.getLength(), contentDigest.digest(file.contentsToByteArray()));
+      }
+      catch (IOException e) {
+        LOG.debug("Cannot read " + file.getPath(), e);
+        return false;
+      }
+      myFileDigests.put(file.getPath(), fileDigest);
+    }
+    update(digest, file.getName());
+    digest.update(fileDigest.digest);
+    return true;
+  }
+
+  /**
+   * Copies the cached binary to the output file and marks the entry as recently used
+   *
+   * @return false if there is no entry for the key or it cannot be copied
+   */
+  public boolean restore(@NotNull String key, @NotNull File outputFile) {
+    File entry = new File(myDirectory, key);
+    if (!entry.isFile()) return false;
+    try {
+      Files.copy(entry.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (IOException e) {
+      LOG.info("Cannot restore cached binary " + entry.getPath(), e);
+      return false;
+    }
+    //noinspection ResultOfMethodCallIgnored
+    entry.setLastModified(System.currentTimeMillis());
+    return outputFile.setExecutable(true);
+  }
+
+  /**
+   * Puts a freshly built binary into the cache and evicts least recently used entries that do not fit
+   */
+  public void store(@NotNull String key, @NotNull File outputFile) {
+    try {
+      FileUtil.createDirectory(myDirectory);
+      File temp = FileUtil.createTempFile(myDirectory, key, ".tmp", true, true);
+      Files.copy(outputFile.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      Files.move(temp.toPath(), new File(myDirectory, key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+    }
+    catch (IOException e) {
+      LOG.info("Cannot cache binary " + outputFile.getPath(), e);
+      return;
+    }
+    evict(key);
+  }
+
+  private synchronized void evict(@NotNull String keep) {
+    File[] entries = myDirectory.listFiles();
+    if (entries == null) return;
+    long total = 0;
+    for (File entry : entries) {
+      total += entry.length();
+    }
+    if (total <= myMaxSize) return;
+    Arrays.sort(entries, (o1, o2) -> Long.compare(o1.lastModified(), o2.lastModified()));
+    for (File entry : entries) {
+      if (total <= myMaxSize) break;
+      if (entry.getName().equals(keep)) continue;
+      long length = entry.length();
+      if (FileUtil.delete(entry)) {
+        total -= length;
+      }
+    }
+  }
+
+  @Nullable
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e) {
+      LOG.error(e);
+      return null;
+    }
+  }
+
+  private static void update(@NotNull MessageDigest digest, @NotNull String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte)0);
+  }
+
+  private static class FileDigest {
+    private final long timeStamp;
+    private final long length;
+    @NotNull private final byte[] digest;
+
+    private FileDigest(long timeStamp, long length, @NotNull byte[] digest) {
+      this.timeStamp = timeStamp;
+      this.length = length;
+      this.digest = digest;
+    }
+  }
+}
@@ -21,11 +21,13 @@ import com.goide.dlv.DlvDebugProcess;
 import com.goide.dlv.DlvRemoteVmConnection;
 import com.goide.runconfig.application.GoApplicationConfiguration;
 import com.goide.runconfig.application.GoApplicationRunningState;
+import com.goide.util.GoExecutor;
 import com.goide.util.GoHistoryProcessListener;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.ExecutionResult;
 import com.intellij.execution.RunProfileStarter;
 import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.execution.configurations.RunProfile;
 import com.intellij.execution.configurations.RunProfileState;
 import com.intellij.execution.executors.DefaultDebugExecutor;
@@ -37,7 +39,12 @@ import com.intellij.execution.runners.ExecutionEnvironment;
 import com.intellij.execution.runners.RunContentBuilder;
 import com.intellij.execution.ui.RunContentDescriptor;
 import com.intellij.internal.statistic.UsageTrigger;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.ArrayUtil;
@@ -58,6 +65,7 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 
 public class GoBuildingRunner extends AsyncGenericProgramRunner {
+  private static final Logger LOG = Logger.getInstance(GoBuildingRunner.class);
   private static final String ID = "GoBuildingRunner";
 
   @NotNull
@@ -83,14 +91,38 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
     FileDocumentManager.getInstance().saveAllDocuments();
 
     AsyncPromise<RunProfileStarter> buildingPromise = new AsyncPromise<>();
+    GoApplicationRunningState applicationState = (GoApplicationRunningState)state;
+    GeneralCommandLine keyCommandLine = createBuildExecutor(applicationState, GoBuildCache.OUTPUT_PATH_PLACEHOLDER).createCommandLine();
+    new Task.Backgroundable(environment.getProject(), "Checking build cache", true) {
+      @Override
+      public void run(@NotNull ProgressIndicator indicator) {
+        String key = null;
+        try {
+          key = GoBuildCache.getInstance().computeKey(applicationState, keyCommandLine, indicator);
+        }
+        catch (ProcessCanceledException ignore) {
+        }
+        catch (Exception e) {
+          LOG.warn("Cannot compute build cache key", e);
+        }
+        if (key != null && GoBuildCache.getInstance().restore(key, outputFile)) {
+          LOG.debug("Reusing cached binary for " + applicationState.getTarget());
+          buildingPromise.setResult(createStarter(applicationState, outputFile, new GoHistoryProcessListener(), false));
+          return;
+        }
+        String cacheKey = key;
+        ApplicationManager.getApplication().invokeLater(() -> build(applicationState, outputFile, cacheKey, buildingPromise));
+      }
+    }.queue();
+    return buildingPromise;
+  }
+
+  private void build(@NotNull GoApplicationRunningState state,
+                     @NotNull File outputFile,
+                     @Nullable String cacheKey,
+                     @NotNull AsyncPromise<RunProfileStarter> buildingPromise) {
     GoHistoryProcessListener historyProcessListener = new GoHistoryProcessListener();
-    ((GoApplicationRunningState)state).createCommonExecutor()
-      .withParameters("build")
-      .withParameterString(((GoApplicationRunningState)state).getGoBuildParams())
-      .withParameters("-o", outputFile.getAbsolutePath())
-      .withParameters(((GoApplicationRunningState)state).isDebug() ? new String[]{"-gcflags", "-N -l"} : ArrayUtil.EMPTY_STRING_ARRAY)
-      .withParameters(((GoApplicationRunningState)state).getTarget())
-      .disablePty()
+    createBuildExecutor(state, outputFile.getAbsolutePath())
       .withPresentableName("go build")
       .withProcessListener(historyProcessListener)
       .withProcessListener(new ProcessAdapter() {
@@ -99,15 +131,36 @@ public class GoBuildingRunner extends AsyncGenericProgramRunner {
         public void processTerminated(ProcessEvent event) {
           super.processTerminated(event);
           boolean compilationFailed = event.getExitCode() != 0;
-          if (((GoApplicationRunningState)state).isDebug()) {
-              buildingPromise.setResult(new MyDebugStarter(outputFile.getAbsolutePath(), historyProcessListener, compilationFailed));
-            }
-            else {
-              buildingPromise.setResult(new MyRunStarter(outputFile.getAbsolutePath(), historyProcessListener, compilationFailed));
-            }
+          if (!compilationFailed && cacheKey != null) {
+            GoBuildCache.getInstance().store(cacheKey, outputFile);
+          }
+          buildingPromise.setResult(createStarter(state, outputFile, historyProcessListener, compilationFailed));
         }
       }).executeWithProgress(false);
-    return buildingPromise;
+  }
+
+  /**
+   * The target goes last, {@code go build} treats everything after the first package as packages
+   */
+  @NotNull
+  static GoExecutor createBuildExecutor(@NotNull GoApplicationRunningState state, @NotNull String outputPath) {
+    return state.createCommonExecutor()
+      .withParameters("build")
+      .withParameterString(state.getGoBuildParams())
+      .withParameters("-o", outputPath)
+      .withParameters(state.isDebug() ? new String[]{"-gcflags", "-N -l"} : ArrayUtil.EMPTY_STRING_ARRAY)
+      .withParameters(state.getTarget())
+      .disablePty();
+  }
+
+  @NotNull
+  private RunProfileStarter createStarter(@NotNull GoApplicationRunningState state,
+                                          @NotNull File outputFile,
+                                          @NotNull GoHistoryProcessListener historyProcessListener,
+                                          boolean compilationFailed) {
+    return state.isDebug()
+           ? new MyDebugStarter(outputFile.getAbsolutePath(), historyProcessListener, compilationFailed)
+           : new MyRunStarter(outputFile.getAbsolutePath(), historyProcessListener, compilationFailed);
   }
 
   @NotNull
@@ -21,6 +21,7 @@ import com.goide.GoFileType;
 import com.goide.psi.GoFile;
 import com.goide.psi.GoPackageClause;
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.stubs.index.GoPackageFilesIndex;
 import com.intellij.execution.actions.ConfigurationContext;
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.execution.process.ProcessHandler;
@@ -104,7 +105,8 @@ public class GoRunUtil {
   @Contract("null -> false")
   public static boolean isMainGoFile(@Nullable PsiFile psiFile) {
     if (!GoTestFinder.isTestFile(psiFile) && psiFile instanceof GoFile) {
-      return GoConstants.MAIN.equals(((GoFile)psiFile).getPackageName()) && ((GoFile)psiFile).hasMainFunction();
+      GoFile file = (GoFile)psiFile;
+      return GoConstants.MAIN.equals(file.getPackageName()) && GoPackageFilesIndex.hasMainFunction(file);
     }
     return false;
   }
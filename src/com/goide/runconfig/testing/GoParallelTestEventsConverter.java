@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing;
+
+import com.intellij.execution.testframework.TestConsoleProperties;
+import com.intellij.execution.testframework.sm.ServiceMessageBuilder;
+import com.intellij.execution.testframework.sm.runner.OutputToGeneralTestEventsConverter;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
+import com.intellij.util.containers.ContainerUtil;
+import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.ParseException;
+import java.util.Map;
+
+/**
+ * Parses output of {@link GoParallelTestProcessHandler}: every package gets its own framework converter and is reported
+ * as a test suite. Output which isn't tagged with a package is passed to a shared converter.
+ */
+public class GoParallelTestEventsConverter extends OutputToGeneralTestEventsConverter implements GoTestEventsConverterBase {
+  @NotNull private final GoTestFramework myFramework;
+  @NotNull private final TestConsoleProperties myConsoleProperties;
+  private final Map<String, OutputToGeneralTestEventsConverter> myPackageConverters = ContainerUtil.newLinkedHashMap();
+  @Nullable private OutputToGeneralTestEventsConverter myDefaultConverter;
+  @Nullable private ServiceMessageVisitor myVisitor;
+
+  public GoParallelTestEventsConverter(@NotNull GoTestFramework framework, @NotNull TestConsoleProperties consoleProperties) {
+    super(framework.getName(), consoleProperties);
+    myFramework = framework;
+    myConsoleProperties = consoleProperties;
+  }
+
+  @Override
+  public boolean processServiceMessages(@NotNull String text, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
+    if (myVisitor == null && visitor != null) {
+      myVisitor = visitor;
+    }
+    if (!(outputType instanceof GoParallelTestProcessHandler.PackageOutputType)) {
+      if (myDefaultConverter == null) {
+        myDefaultConverter = myFramework.createTestEventsConverter(myConsoleProperties);
+      }
+      return ((GoTestEventsConverterBase)myDefaultConverter).processServiceMessages(text, outputType, visitor);
+    }
+
+    GoParallelTestProcessHandler.PackageOutputType packageOutputType = (GoParallelTestProcessHandler.PackageOutputType)outputType;
+    String packageName = packageOutputType.getPackageName();
+    Key baseType = packageOutputType.getBaseType();
+    OutputToGeneralTestEventsConverter converter = myPackageConverters.get(packageName);
+    if (baseType == null) {
+      if (converter != null) {
+        finishPackage(packageName, converter, visitor);
+      }
+      return true;
+    }
+    if (converter == null) {
+      converter = myFramework.createTestEventsConverter(myConsoleProperties);
+      myPackageConverters.put(packageName, converter);
+      super.processServiceMessages(ServiceMessageBuilder.testSuiteStarted(packageName).toString(), null, visitor);
+    }
+    return ((GoTestEventsConverterBase)converter).processServiceMessages(text, baseType, visitor);
+  }
+
+  private void finishPackage(@NotNull String packageName,
+                             @NotNull OutputToGeneralTestEventsConverter converter,
+                             @Nullable ServiceMessageVisitor visitor) throws ParseException {
+    myPackageConverters.remove(packageName);
+    converter.flushBufferBeforeTerminating();
+    Disposer.dispose(converter);
+    super.processServiceMessages(ServiceMessageBuilder.testSuiteFinished(packageName).toString(), null, visitor);
+  }
+
+  @Override
+  public void flushBufferBeforeTerminating() {
+    try {
+      for (Map.Entry<String, OutputToGeneralTestEventsConverter> entry : ContainerUtil.newArrayList(myPackageConverters.entrySet())) {
+        finishPackage(entry.getKey(), entry.getValue(), myVisitor);
+      }
+    }
+    catch (ParseException ignore) {
+    }
+    if (myDefaultConverter != null) {
+      myDefaultConverter.flushBufferBeforeTerminating();
+    }
+    myVisitor = null;
+    super.flushBufferBeforeTerminating();
+  }
+
+  @Override
+  public void dispose() {
+    for (OutputToGeneralTestEventsConverter converter : myPackageConverters.values()) {
+      Disposer.dispose(converter);
+    }
+    myPackageConverters.clear();
+    if (myDefaultConverter != null) {
+      Disposer.dispose(myDefaultConverter);
+      myDefaultConverter = null;
+    }
+    myVisitor = null;
+    super.dispose();
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing;
+
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.execution.process.*;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.Pair;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Runs a {@code go test} process per package, at most {@code poolSize} of them at once.
+ * <p>
+ * Output of a package is buffered until its process terminates and then replayed as a single block of whole lines
+ * tagged with {@link PackageOutputType}, so {@link GoParallelTestEventsConverter} can parse every package with its own converter
+ * and results appear package by package while the rest are still running.
+ */
+public class GoParallelTestProcessHandler extends ProcessHandler {
+  private final Deque<Pair<String, GeneralCommandLine>> myQueue = new ArrayDeque<>();
+  private final Set<ProcessHandler> myRunning = ContainerUtil.newHashSet();
+  private final Object myOutputLock = new Object();
+  private final int myPoolSize;
+  private volatile int myExitCode;
+  private boolean myFinished;
+
+  /**
+   * @param commandLines command lines by package names
+   */
+  public GoParallelTestProcessHandler(@NotNull Map<String, GeneralCommandLine> commandLines, int poolSize) {
+    for (Map.Entry<String, GeneralCommandLine> entry : commandLines.entrySet()) {
+      myQueue.add(Pair.create(entry.getKey(), entry.getValue()));
+    }
+    myPoolSize = Math.max(1, poolSize);
+  }
+
+  @Override
+  public void startNotify() {
+    super.startNotify();
+    startNextPackages();
+  }
+
+  private void startNextPackages() {
+    List<Pair<String, GeneralCommandLine>> toStart = ContainerUtil.newArrayList();
+    boolean finished;
+    synchronized (myQueue) {
+      while (!myQueue.isEmpty() && myRunning.size() + toStart.size() < myPoolSize) {
+        toStart.add(myQueue.poll());
+      }
+      finished = toStart.isEmpty() && myRunning.isEmpty() && !myFinished;
+      myFinished |= finished;
+    }
+    if (finished) {
+      notifyProcessTerminated(myExitCode);
+      return;
+    }
+    for (Pair<String, GeneralCommandLine> pair : toStart) {
+      startPackage(pair.first, pair.second);
+    }
+  }
+
+  private void startPackage(@NotNull String packageName, @NotNull GeneralCommandLine commandLine) {
+    PackageOutput output = new PackageOutput(packageName);
+    KillableColoredProcessHandler handler;
+    try {
+      handler = new KillableColoredProcessHandler(commandLine, true);
+    }
+    catch (ExecutionException e) {
+      output.add(e.getMessage() + "\n", ProcessOutputTypes.STDERR);
+      packageFinished(null, output, 1);
+      return;
+    }
+    handler.addProcessListener(new ProcessAdapter() {
+      @Override
+      public void onTextAvailable(ProcessEvent event, Key outputType) {
+        if (outputType != ProcessOutputTypes.SYSTEM) {
+          output.add(event.getText(), outputType);
+        }
+      }
+
+      @Override
+      public void processTerminated(ProcessEvent event) {
+        packageFinished(handler, output, event.getExitCode());
+      }
+    });
+    synchronized (myQueue) {
+      if (isProcessTerminating()) {
+        return;
+      }
+      myRunning.add(handler);
+    }
+    handler.startNotify();
+  }
+
+  private void packageFinished(@Nullable ProcessHandler handler, @NotNull PackageOutput output, int exitCode) {
+    synchronized (myOutputLock) {
+      for (Pair<String, Key> line : output.getLines()) {
+        notifyTextAvailable(line.first, line.second);
+      }
+      notifyTextAvailable("\n", new PackageOutputType(output.myPackageName, null));
+    }
+    synchronized (myQueue) {
+      myRunning.remove(handler);
+      if (exitCode != 0) {
+        myExitCode = exitCode;
+      }
+    }
+    startNextPackages();
+  }
+
+  @Override
+  protected void destroyProcessImpl() {
+    List<ProcessHandler> running;
+    synchronized (myQueue) {
+      myQueue.clear();
+      running = ContainerUtil.newArrayList(myRunning);
+    }
+    for (ProcessHandler handler : running) {
+      handler.destroyProcess();
+    }
+    if (running.isEmpty()) {
+      startNextPackages();
+    }
+  }
+
+  @Override
+  protected void detachProcessImpl() {
+    destroyProcessImpl();
+  }
+
+  @Override
+  public boolean detachIsDefault() {
+    return false;
+  }
+
+  @Nullable
+  @Override
+  public OutputStream getProcessInput() {
+    return null;
+  }
+
+  /**
+   * Output type of a line printed by a package, the line with {@code null} base type marks the end of the package output
+   */
+  public static class PackageOutputType extends Key<Object> {
+    @NotNull private final String myPackageName;
+    @Nullable private final Key myBaseType;
+
+    public PackageOutputType(@NotNull String packageName, @Nullable Key baseType) {
+      super(packageName + ":" + baseType);
+      myPackageName = packageName;
+      myBaseType = baseType;
+    }
+
+    @NotNull
+    public String getPackageName() {
+      return myPackageName;
+    }
+
+    @Nullable
+    public Key getBaseType() {
+      return myBaseType;
+    }
+  }
+
+  private static class PackageOutput {
+    @NotNull private final String myPackageName;
+    private final List<Pair<String, Key>> myLines = ContainerUtil.newArrayList();
+    private final Map<Key, StringBuilder> myIncompleteLines = ContainerUtil.newLinkedHashMap();
+    private final Map<Key, PackageOutputType> myOutputTypes = ContainerUtil.newHashMap();
+
+    private PackageOutput(@NotNull String packageName) {
+      myPackageName = packageName;
+    }
+
+    private synchronized void add(@NotNull String text, @NotNull Key outputType) {
+      StringBuilder builder = myIncompleteLines.get(outputType);
+      if (builder == null) {
+        myIncompleteLines.put(outputType, builder = new StringBuilder());
+      }
+      builder.append(text);
+      int lineEnd;
+      while ((lineEnd = builder.indexOf("\n")) >= 0) {
+        myLines.add(Pair.create(builder.substring(0, lineEnd + 1), getOutputType(outputType)));
+        builder.delete(0, lineEnd + 1);
+      }
+    }
+
+    @NotNull
+    private synchronized List<Pair<String, Key>> getLines() {
+      for (Map.Entry<Key, StringBuilder> entry : myIncompleteLines.entrySet()) {
+        if (entry.getValue().length() > 0) {
+          myLines.add(Pair.create(entry.getValue().append('\n').toString(), getOutputType(entry.getKey())));
+        }
+      }
+      myIncompleteLines.clear();
+      return myLines;
+    }
+
+    @NotNull
+    private PackageOutputType getOutputType(@NotNull Key baseType) {
+      PackageOutputType outputType = myOutputTypes.get(baseType);
+      if (outputType == null) {
+        myOutputTypes.put(baseType, outputType = new PackageOutputType(myPackageName, baseType));
+      }
+      return outputType;
+    }
+  }
+}
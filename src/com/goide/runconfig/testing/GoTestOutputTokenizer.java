@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing;
+
+import com.intellij.util.ArrayUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds markers of test framework output in a line within a single pass.
+ * <p>
+ * Markers are dispatched by their first character, so a line of plain test output costs a table lookup per character
+ * and no allocations, instead of a number of regular expressions tried one after another. Markers have to start
+ * with an ASCII character, the first listed marker wins if several of them start at the same offset.
+ */
+public class GoTestOutputTokenizer {
+  private static final int DISPATCH_SIZE = 128;
+
+  @NotNull private final String[] myMarkers;
+  @NotNull private final int[][] myDispatch = new int[DISPATCH_SIZE][];
+
+  public GoTestOutputTokenizer(@NotNull String... markers) {
+    myMarkers = markers;
+    for (int i = 0; i < markers.length; i++) {
+      char first = markers[i].charAt(0);
+      assert first < DISPATCH_SIZE : markers[i];
+      int[] candidates = myDispatch[first];
+      myDispatch[first] = candidates != null ? ArrayUtil.append(candidates, i) : new int[]{i};
+    }
+  }
+
+  /**
+   * @return index of the marker that starts at the offset or -1
+   */
+  public int markerAt(@NotNull CharSequence line, int offset) {
+    if (offset < 0 || offset >= line.length()) return -1;
+    char c = line.charAt(offset);
+    int[] candidates = c < DISPATCH_SIZE ? myDispatch[c] : null;
+    if (candidates != null) {
+      for (int marker : candidates) {
+        if (regionMatches(line, offset, myMarkers[marker])) return marker;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return offset of the first marker found at or after the given offset, or -1
+   */
+  public int find(@NotNull CharSequence line, int from) {
+    for (int i = Math.max(from, 0); i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c < DISPATCH_SIZE && myDispatch[c] != null && markerAt(line, i) >= 0) return i;
+    }
+    return -1;
+  }
+
+  public int getMarkerLength(int marker) {
+    return myMarkers[marker].length();
+  }
+
+  /**
+   * @return offset of the first character after the whitespaces that start at the offset, whitespaces are the ones of {@code \s}
+   */
+  public static int skipWhitespaces(@NotNull CharSequence line, int offset) {
+    while (offset < line.length() && isWhitespace(line.charAt(offset))) offset++;
+    return offset;
+  }
+
+  /**
+   * @return end offset of the test name that starts at the offset, or the offset itself if there is no name there.
+   * Test names are identifiers optionally followed by a slash and a subtest path, see {@link com.goide.GoConstants#TEST_NAME_REGEX}.
+   */
+  public static int skipTestName(@NotNull CharSequence line, int offset) {
+    int length = line.length();
+    if (offset >= length) return offset;
+    int codePoint = Character.codePointAt(line, offset);
+    if (!Character.isLetter(codePoint) && codePoint != '_') return offset;
+    int end = offset + Character.charCount(codePoint);
+    while (end < length) {
+      codePoint = Character.codePointAt(line, end);
+      if (!Character.isLetterOrDigit(codePoint) && codePoint != '_') break;
+      end += Character.charCount(codePoint);
+    }
+    if (end < length && line.charAt(end) == '/') {
+      end++;
+      while (end < length && !isWhitespace(line.charAt(end))) end++;
+    }
+    return end;
+  }
+
+  /**
+   * @return true if the line ends with the suffix, optionally followed by a line separator, and the suffix starts at or after {@code from}
+   */
+  public static boolean endsWithBeforeLineSeparator(@NotNull CharSequence line, int from, @NotNull String suffix) {
+    int end = line.length();
+    if (end > 0 && line.charAt(end - 1) == '\n') end--;
+    if (end > 0 && line.charAt(end - 1) == '\r') end--;
+    int start = end - suffix.length();
+    return start >= from && start >= 0 && regionMatches(line, start, suffix);
+  }
+
+  private static boolean regionMatches(@NotNull CharSequence line, int offset, @NotNull String marker) {
+    if (offset + marker.length() > line.length()) return false;
+    for (int i = 0; i < marker.length(); i++) {
+      if (line.charAt(offset + i) != marker.charAt(i)) return false;
+    }
+    return true;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+}
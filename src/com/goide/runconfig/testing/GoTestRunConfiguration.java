@@ -47,6 +47,7 @@ public class GoTestRunConfiguration extends GoRunConfigurationBase<GoTestRunning
   private static final String PACKAGE_ATTRIBUTE_NAME = "package";
   private static final String KIND_ATTRIBUTE_NAME = "kind";
   private static final String FRAMEWORK_ATTRIBUTE_NAME = "framework";
+  private static final String PARALLEL_PACKAGES_ATTRIBUTE_NAME = "parallelPackages";
 
   @NotNull private String myPackage = "";
   @NotNull private String myFilePath = "";
@@ -55,13 +56,16 @@ public class GoTestRunConfiguration extends GoRunConfigurationBase<GoTestRunning
   @NotNull private String myPattern = "";
   @NotNull private Kind myKind = Kind.DIRECTORY;
   private GoTestFramework myTestFramework = GotestFramework.INSTANCE;
+  private boolean myRunPackagesInParallel;
 
   public GoTestRunConfiguration(@NotNull Project project, String name, @NotNull ConfigurationType configurationType) {
     super(name, new GoModuleBasedConfiguration(project), configurationType.getConfigurationFactories()[0]);
   }
 
   public OutputToGeneralTestEventsConverter createTestEventsConverter(@NotNull TestConsoleProperties consoleProperties) {
-    return myTestFramework.createTestEventsConverter(consoleProperties);
+    return shouldRunPackagesInParallel()
+           ? new GoParallelTestEventsConverter(myTestFramework, consoleProperties)
+           : myTestFramework.createTestEventsConverter(consoleProperties);
   }
 
   @NotNull
@@ -149,6 +153,9 @@ public class GoTestRunConfiguration extends GoRunConfigurationBase<GoTestRunning
     if (!myPattern.isEmpty()) {
       JDOMExternalizerUtil.addElementWithValueAttribute(element, PATTERN_ATTRIBUTE_NAME, myPattern);
     }
+    if (myRunPackagesInParallel) {
+      JDOMExternalizerUtil.addElementWithValueAttribute(element, PARALLEL_PACKAGES_ATTRIBUTE_NAME, "true");
+    }
   }
 
   @Override
@@ -166,6 +173,7 @@ public class GoTestRunConfiguration extends GoRunConfigurationBase<GoTestRunning
     myFilePath = StringUtil.notNullize(JDOMExternalizerUtil.getFirstChildValueAttribute(element, FILE_PATH_ATTRIBUTE_NAME));
     myPattern = StringUtil.notNullize(JDOMExternalizerUtil.getFirstChildValueAttribute(element, PATTERN_ATTRIBUTE_NAME));
     myTestFramework = GoTestFramework.fromName(JDOMExternalizerUtil.getFirstChildValueAttribute(element, FRAMEWORK_ATTRIBUTE_NAME));
+    myRunPackagesInParallel = Boolean.parseBoolean(JDOMExternalizerUtil.getFirstChildValueAttribute(element, PARALLEL_PACKAGES_ATTRIBUTE_NAME));
   }
 
   @NotNull
@@ -222,6 +230,24 @@ public class GoTestRunConfiguration extends GoRunConfigurationBase<GoTestRunning
     return myTestFramework;
   }
 
+  /**
+   * @return the stored option, it's kept for other kinds of configuration as well in case the kind is switched back
+   */
+  public boolean isRunPackagesInParallel() {
+    return myRunPackagesInParallel;
+  }
+
+  /**
+   * @return true if packages of the directory should be tested by separate {@code go test} processes
+   */
+  public boolean shouldRunPackagesInParallel() {
+    return myRunPackagesInParallel && myKind == Kind.DIRECTORY;
+  }
+
+  public void setRunPackagesInParallel(boolean runPackagesInParallel) {
+    myRunPackagesInParallel = runPackagesInParallel;
+  }
+
   public enum Kind {
     DIRECTORY, PACKAGE, FILE
   }
@@ -16,6 +16,7 @@
 
 package com.goide.runconfig.testing;
 
+import com.goide.GoConstants;
 import com.goide.psi.GoFile;
 import com.goide.psi.GoFunctionDeclaration;
 import com.goide.runconfig.GoConsoleFilter;
@@ -25,6 +26,7 @@ import com.intellij.execution.DefaultExecutionResult;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.ExecutionResult;
 import com.intellij.execution.Executor;
+import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.execution.filters.TextConsoleBuilder;
 import com.intellij.execution.filters.TextConsoleBuilderFactory;
 import com.intellij.execution.process.ProcessHandler;
@@ -41,7 +43,9 @@ import com.intellij.openapi.module.Module;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.util.ObjectUtils;
@@ -52,6 +56,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class GoTestRunningState extends GoRunningState<GoTestRunConfiguration> {
   private String myCoverageFilePath;
@@ -86,10 +91,73 @@ public class GoTestRunningState extends GoRunningState<GoTestRunConfiguration> {
     return executionResult;
   }
 
+  @NotNull
   @Override
-  protected GoExecutor patchExecutor(@NotNull GoExecutor executor) throws ExecutionException {
+  protected ProcessHandler startProcess() throws ExecutionException {
+    if (!myConfiguration.shouldRunPackagesInParallel() || myCoverageFilePath != null) {
+      return super.startProcess();
+    }
+    String directoryPath = FileUtil.isAbsolutePlatformIndependent(myConfiguration.getDirectoryPath())
+                           ? myConfiguration.getDirectoryPath()
+                           : FileUtil.join(myConfiguration.getWorkingDirectory(), myConfiguration.getDirectoryPath());
+    VirtualFile directory = LocalFileSystem.getInstance().findFileByPath(directoryPath);
+    if (directory == null) {
+      throw new ExecutionException("Testing directory doesn't exist");
+    }
+    Map<String, GeneralCommandLine> commandLines = ContainerUtil.newLinkedHashMap();
+    for (VirtualFile packageDirectory : findTestPackageDirectories(directory)) {
+      String relativePath = FileUtil.getRelativePath(myConfiguration.getWorkingDirectory(), packageDirectory.getPath(), '/');
+      if (relativePath == null) {
+        throw new ExecutionException("Package directory '" + packageDirectory.getPath() + "' is not under working directory");
+      }
+      String packagePath = ".".equals(relativePath) ? "." : "./" + relativePath;
+      GoExecutor executor = patchTestExecutor(createCommonExecutor(), packagePath);
+      commandLines.put(packagePath, executor.withParameterString(myConfiguration.getParams()).createCommandLine());
+    }
+    return new GoParallelTestProcessHandler(commandLines, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @return directories that {@code go test ./...} would test, i.e. ones with test files
+   * except for {@code testdata} and hidden directories
+   */
+  @NotNull
+  private static Collection<VirtualFile> findTestPackageDirectories(@NotNull VirtualFile root) {
+    Collection<VirtualFile> result = ContainerUtil.newLinkedHashSet();
+    VfsUtilCore.visitChildrenRecursively(root, new VirtualFileVisitor() {
+      @Override
+      public boolean visitFile(@NotNull VirtualFile file) {
+        if (file.isDirectory()) {
+          String name = file.getName();
+          return file.equals(root)
+                 || !GoConstants.TESTDATA_NAME.equals(name) && !StringUtil.startsWithChar(name, '.') && !StringUtil.startsWithChar(name, '_');
+        }
+        if (file.getName().endsWith(GoConstants.TEST_SUFFIX_WITH_EXTENSION)) {
+          ContainerUtil.addIfNotNull(result, file.getParent());
+        }
+        return true;
+      }
+    });
+    return result;
+  }
+
+  @Override
+  protected final GoExecutor patchExecutor(@NotNull GoExecutor executor) throws ExecutionException {
+    return patchTestExecutor(executor, null);
+  }
+
+  /**
+   * @param packagePath path of a single package to test relative to the working directory,
+   *                    set when packages of a directory are run in parallel
+   */
+  protected GoExecutor patchTestExecutor(@NotNull GoExecutor executor, @Nullable String packagePath) throws ExecutionException {
     executor.withParameters("test", "-v");
     executor.withParameterString(myConfiguration.getGoToolParams());
+    if (packagePath != null) {
+      executor.withParameters(packagePath);
+      addFilterParameter(executor, ObjectUtils.notNull(myFailedTestsPattern, myConfiguration.getPattern()));
+      return executor;
+    }
     switch (myConfiguration.getKind()) {
       case DIRECTORY:
         String relativePath = FileUtil.getRelativePath(myConfiguration.getWorkingDirectory(),
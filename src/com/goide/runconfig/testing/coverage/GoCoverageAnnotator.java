@@ -199,13 +199,15 @@ public class GoCoverageAnnotator extends BaseCoverageAnnotator {
             if (!file.isDirectory() && GoCoverageEngine.INSTANCE.coverageProjectViewStatisticsApplicableTo(file)) {
               DirCoverageInfo dirCoverageInfo = getOrCreateDirectoryInfo(file.getParent());
               FileCoverageInfo fileCoverageInfo = getOrCreateFileInfo(file);
-              data.processFile(file.getPath(), rangeData -> {
-                if (rangeData.hits > 0) {
-                  fileCoverageInfo.coveredLineCount += rangeData.statements;
+              GoCoverageProjectData.FileData fileData = data.getFileData(file.getPath());
+              if (fileData != null) {
+                for (int i = 0; i < fileData.getRangesCount(); i++) {
+                  if (fileData.getHits(i) > 0) {
+                    fileCoverageInfo.coveredLineCount += fileData.getStatements(i);
+                  }
+                  fileCoverageInfo.totalLineCount += fileData.getStatements(i);
                 }
-                fileCoverageInfo.totalLineCount += rangeData.statements;
-                return true;
-              });
+              }
 
               if (fileCoverageInfo.totalLineCount > 0) {
                 dirCoverageInfo.totalLineCount += fileCoverageInfo.totalLineCount;
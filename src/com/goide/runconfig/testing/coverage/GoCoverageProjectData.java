@@ -16,13 +16,17 @@
 
 package com.goide.runconfig.testing.coverage;
 
-import com.intellij.openapi.util.Factory;
 import com.intellij.rt.coverage.data.CoverageData;
+import com.intellij.rt.coverage.data.LineData;
 import com.intellij.rt.coverage.data.ProjectData;
+import com.intellij.util.ArrayUtil;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.ContainerUtil;
+import gnu.trove.TLongIntHashMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Map;
 
 public class GoCoverageProjectData extends ProjectData {
@@ -37,25 +41,23 @@ public class GoCoverageProjectData extends ProjectData {
     }
   }
 
-  public void processFile(@NotNull String filePath, @NotNull Processor<RangeData> processor) {
+  @Nullable
+  public FileData getFileData(@NotNull String filePath) {
+    return myFilesData.get(filePath);
+  }
+
+  @NotNull
+  public FileData getOrCreateFileData(@NotNull String filePath) {
     FileData fileData = myFilesData.get(filePath);
-    if (fileData != null) {
-      for (RangeData rangeData : fileData.myRangesData.values()) {
-        if (!processor.process(rangeData)) {
-          return;
-        }
-      }
+    if (fileData == null) {
+      fileData = new FileData(filePath);
+      myFilesData.put(filePath, fileData);
     }
+    return fileData;
   }
 
-  public void addData(String filePath, int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-    FileData fileData = ContainerUtil.getOrCreate(myFilesData, filePath, new Factory<FileData>() {
-      @Override
-      public FileData create() {
-        return new FileData(filePath);
-      }
-    });
-    fileData.add(startLine, startColumn, endLine, endColumn, statements, hits);
+  public void addData(@NotNull String filePath, int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
+    getOrCreateFileData(filePath).add(startLine, startColumn, endLine, endColumn, statements, hits);
   }
 
   @Override
@@ -63,25 +65,12 @@ public class GoCoverageProjectData extends ProjectData {
     super.merge(data);
     if (data instanceof GoCoverageProjectData) {
       for (Map.Entry<String, FileData> entry : ((GoCoverageProjectData)data).myFilesData.entrySet()) {
-        String filePath = entry.getKey();
-        FileData fileData = myFilesData.get(filePath);
-        FileData fileDataToMerge = entry.getValue();
+        FileData fileData = myFilesData.get(entry.getKey());
         if (fileData != null) {
-          for (Map.Entry<String, RangeData> dataEntry : fileDataToMerge.myRangesData.entrySet()) {
-            RangeData existingRangeData = fileData.myRangesData.get(dataEntry.getKey());
-            if (existingRangeData != null) {
-              fileData.myRangesData.put(dataEntry.getKey(),
-                                        new RangeData(existingRangeData.startLine, existingRangeData.startColumn, existingRangeData.endLine,
-                                                      existingRangeData.endColumn, existingRangeData.statements,
-                                                      existingRangeData.hits + dataEntry.getValue().hits));
-            }
-            else {
-              fileData.myRangesData.put(dataEntry.getKey(), dataEntry.getValue());
-            }
-          }
+          fileData.merge(entry.getValue());
         }
         else {
-          myFilesData.put(filePath, fileDataToMerge);
+          myFilesData.put(entry.getKey(), entry.getValue().copy());
         }
       }
     }
@@ -101,90 +90,183 @@ public class GoCoverageProjectData extends ProjectData {
     return myFilesData.hashCode();
   }
 
+  /**
+   * Coverage ranges of a single file stored in a flat int array, {@link #STRIDE} values per range.
+   * <p>
+   * Ranges are identified by their start position: a range reported twice replaces the previous one,
+   * while merging sums hits of ranges with the same position.
+   */
   public static class FileData {
+    private static final int START_LINE = 0;
+    private static final int START_COLUMN = 1;
+    private static final int END_LINE = 2;
+    private static final int END_COLUMN = 3;
+    private static final int STATEMENTS = 4;
+    private static final int HITS = 5;
+    private static final int STRIDE = 6;
+
     @NotNull
     public final String myFilePath;
     @NotNull
-    public final Map<String, RangeData> myRangesData = ContainerUtil.newHashMap();
+    private int[] myRanges;
+    private int mySize;
+    @NotNull
+    private final TLongIntHashMap myRangeIndices;
 
     public FileData(@NotNull String filePath) {
+      this(filePath, new int[STRIDE * 16], 0, new TLongIntHashMap());
+    }
+
+    private FileData(@NotNull String filePath, @NotNull int[] ranges, int size, @NotNull TLongIntHashMap rangeIndices) {
       myFilePath = filePath;
+      myRanges = ranges;
+      mySize = size;
+      myRangeIndices = rangeIndices;
     }
 
     public void add(int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-      myRangesData.put(rangeKey(startLine, startColumn, endLine, endColumn),
-                       new RangeData(startLine, startColumn, endLine, endColumn, statements, hits));
+      int index = findRange(startLine, startColumn, endLine, endColumn);
+      if (index < 0) {
+        index = appendRange(startLine, startColumn, endLine, endColumn, statements);
+      }
+      myRanges[index * STRIDE + STATEMENTS] = statements;
+      myRanges[index * STRIDE + HITS] = hits;
     }
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (!(o instanceof FileData)) return false;
+    private void merge(@NotNull FileData data) {
+      int[] ranges = data.myRanges;
+      for (int i = 0; i < data.mySize; i++) {
+        int offset = i * STRIDE;
+        int startLine = ranges[offset + START_LINE];
+        int startColumn = ranges[offset + START_COLUMN];
+        int endLine = ranges[offset + END_LINE];
+        int endColumn = ranges[offset + END_COLUMN];
+        int index = findRange(startLine, startColumn, endLine, endColumn);
+        if (index >= 0) {
+          myRanges[index * STRIDE + HITS] += ranges[offset + HITS];
+        }
+        else {
+          index = appendRange(startLine, startColumn, endLine, endColumn, ranges[offset + STATEMENTS]);
+          myRanges[index * STRIDE + HITS] = ranges[offset + HITS];
+        }
+      }
+    }
 
-      FileData fileData = (FileData)o;
+    @NotNull
+    private FileData copy() {
+      return new FileData(myFilePath, myRanges.clone(), mySize, (TLongIntHashMap)myRangeIndices.clone());
+    }
 
-      if (!myFilePath.equals(fileData.myFilePath)) return false;
-      return myRangesData.equals(fileData.myRangesData);
+    private int findRange(int startLine, int startColumn, int endLine, int endColumn) {
+      long key = position(startLine, startColumn);
+      if (!myRangeIndices.containsKey(key)) return -1;
+      int index = myRangeIndices.get(key);
+      int offset = index * STRIDE;
+      return myRanges[offset + END_LINE] == endLine && myRanges[offset + END_COLUMN] == endColumn ? index : -1;
     }
 
-    @Override
-    public int hashCode() {
-      int result = myFilePath.hashCode();
-      result = 31 * result + myRangesData.hashCode();
-      return result;
+    private int appendRange(int startLine, int startColumn, int endLine, int endColumn, int statements) {
+      if ((mySize + 1) * STRIDE > myRanges.length) {
+        myRanges = ArrayUtil.realloc(myRanges, myRanges.length * 2);
+      }
+      int index = mySize++;
+      int offset = index * STRIDE;
+      myRanges[offset + START_LINE] = startLine;
+      myRanges[offset + START_COLUMN] = startColumn;
+      myRanges[offset + END_LINE] = endLine;
+      myRanges[offset + END_COLUMN] = endColumn;
+      myRanges[offset + STATEMENTS] = statements;
+      long key = position(startLine, startColumn);
+      if (!myRangeIndices.containsKey(key)) {
+        myRangeIndices.put(key, index);
+      }
+      return index;
     }
-  }
 
-  public static class RangeData {
-    public final int startLine;
-    public final int startColumn;
-    public final int endLine;
-    public final int endColumn;
-    public final int hits;
-    public final int statements;
+    private static long position(int line, int column) {
+      return ((long)line << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    public int getRangesCount() {
+      return mySize;
+    }
+
+    public int getStatements(int range) {
+      return myRanges[range * STRIDE + STATEMENTS];
+    }
+
+    public int getHits(int range) {
+      return myRanges[range * STRIDE + HITS];
+    }
+
+    /**
+     * Sums hits of all ranges per line, a line covered by several ranges is reported as partially covered
+     */
+    @NotNull
+    public LineData[] createLines() {
+      int max = -1;
+      for (int i = 0; i < mySize; i++) {
+        max = Math.max(max, myRanges[i * STRIDE + END_LINE]);
+      }
+      if (max < 0) return new LineData[0];
+
+      int[] hits = new int[max + 1];
+      byte[] ranges = new byte[max + 1];
+      for (int i = 0; i < mySize; i++) {
+        int offset = i * STRIDE;
+        for (int line = Math.max(myRanges[offset + START_LINE], 0); line <= myRanges[offset + END_LINE]; line++) {
+          hits[line] += myRanges[offset + HITS];
+          if (ranges[line] < 2) ranges[line]++;
+        }
+      }
 
-    public RangeData(int startLine, int startColumn, int endLine, int endColumn, int statements, int hits) {
-      this.startLine = startLine;
-      this.startColumn = startColumn;
-      this.endLine = endLine;
-      this.endColumn = endColumn;
-      this.hits = hits;
-      this.statements = statements;
+      LineData[] lines = new LineData[max + 1];
+      for (int line = 0; line <= max; line++) {
+        if (ranges[line] == 0) continue;
+        LineData data = new LineData(line, null);
+        data.setHits(hits[line]);
+        if (ranges[line] > 1) {
+          // emulate partial
+          data.setFalseHits(0, 0);
+          data.setTrueHits(0, 0);
+        }
+        data.fillArrays();
+        lines[line] = data;
+      }
+      return lines;
     }
 
     @Override
     public boolean equals(Object o) {
       if (this == o) return true;
-      if (!(o instanceof RangeData)) return false;
+      if (!(o instanceof FileData)) return false;
 
-      RangeData data = (RangeData)o;
+      FileData fileData = (FileData)o;
 
-      if (startLine != data.startLine) return false;
-      if (startColumn != data.startColumn) return false;
-      if (endLine != data.endLine) return false;
-      if (endColumn != data.endColumn) return false;
-      if (hits != data.hits) return false;
-      return statements == data.statements;
+      if (!myFilePath.equals(fileData.myFilePath)) return false;
+      if (mySize != fileData.mySize) return false;
+      for (int i = 0; i < mySize; i++) {
+        int offset = i * STRIDE;
+        int index = fileData.findRange(myRanges[offset + START_LINE], myRanges[offset + START_COLUMN],
+                                       myRanges[offset + END_LINE], myRanges[offset + END_COLUMN]);
+        if (index < 0) return false;
+        int otherOffset = index * STRIDE;
+        if (myRanges[offset + STATEMENTS] != fileData.myRanges[otherOffset + STATEMENTS]) return false;
+        if (myRanges[offset + HITS] != fileData.myRanges[otherOffset + HITS]) return false;
+      }
+      return true;
     }
 
     @Override
     public int hashCode() {
-      int result = startLine;
-      result = 31 * result + startColumn;
-      result = 31 * result + endLine;
-      result = 31 * result + endColumn;
-      result = 31 * result + hits;
-      result = 31 * result + statements;
+      int result = myFilePath.hashCode();
+      result = 31 * result + mySize;
       return result;
     }
 
     @Override
     public String toString() {
-      return rangeKey(startLine, startColumn, endLine, endColumn) + "; hits: " + hits + "; statements: " + statements;
+      return myFilePath + ": " + Arrays.toString(Arrays.copyOf(myRanges, mySize * STRIDE));
     }
   }
-
-  private static String rangeKey(int startLine, int startColumn, int endLine, int endColumn) {
-    return startLine + ":" + startColumn + "-" + endLine + ":" + endColumn;
-  }
 }
@@ -27,17 +27,19 @@ import com.intellij.execution.configurations.RunConfigurationBase;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.CharsetToolkit;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.rt.coverage.data.ClassData;
-import com.intellij.rt.coverage.data.LineData;
 import com.intellij.rt.coverage.data.ProjectData;
-import gnu.trove.TIntObjectHashMap;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.*;
-import java.util.List;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
 public class GoCoverageRunner extends CoverageRunner {
   private static final Logger LOG = Logger.getInstance(GoCoverageRunner.class);
@@ -60,96 +62,29 @@ public class GoCoverageRunner extends CoverageRunner {
                     ? ((ModuleBasedConfiguration)configuration).getConfigurationModule().getModule()
                     : null;
 
-    try {
-      BufferedReader reader = new BufferedReader(new FileReader(sessionDataFile.getAbsolutePath()));
-      try {
-        return parseCoverage(reader, project, module);
-      }
-      catch (IOException e) {
-        LOG.warn(e);
-      }
-      finally {
-        try {
-          reader.close();
-        }
-        catch (IOException e) {
-          LOG.warn(e);
-        }
-      }
+    try (InputStream stream = new FileInputStream(sessionDataFile)) {
+      return parseCoverage(stream, project, module);
     }
-    catch (FileNotFoundException e) {
+    catch (IOException e) {
       LOG.warn(e);
     }
-
     return null;
   }
 
+  /**
+   * Parses a profile produced by {@code go test -coverprofile}. Lines have the form
+   * {@code import/path/file.go:startLine.startColumn,endLine.endColumn statements hits}, malformed ones are skipped.
+   */
   @Nullable
-  public static GoCoverageProjectData parseCoverage(@NotNull BufferedReader dataReader,
+  public static GoCoverageProjectData parseCoverage(@NotNull InputStream dataStream,
                                                     @NotNull Project project,
                                                     @Nullable Module module) throws IOException {
     GoCoverageProjectData result = new GoCoverageProjectData();
-    String line;
-
-    while ((line = dataReader.readLine()) != null) {
-      if (line.isEmpty()) continue;
-      List<String> fileNameTail = StringUtil.split(line, ":");
-      VirtualFile file = GoPackageUtil.findByImportPath(fileNameTail.get(0), project, module);
-      if (file == null) continue;
-      String filePath = file.getPath();
-
-      List<String> tailParts = StringUtil.split(fileNameTail.get(1), " ");
-      if (tailParts.size() != 3) continue;
-
-      int statements = Integer.parseInt(tailParts.get(1));
-      int hit = Integer.parseInt(tailParts.get(2));
-
-      String offsets = tailParts.get(0);
-      int firstDot = offsets.indexOf('.');
-      int comma = offsets.indexOf(',', firstDot);
-      int secondDot = offsets.indexOf('.', comma);
-      if (firstDot == -1 || comma == -1 || secondDot == -1) continue;
-
-      int lineStart = Integer.parseInt(offsets.substring(0, firstDot));
-      int columnStart = Integer.parseInt(offsets.substring(firstDot + 1, comma));
-      int lineEnd = Integer.parseInt(offsets.substring(comma + 1, secondDot));
-      int columnEnd = Integer.parseInt(offsets.substring(secondDot + 1));
-
-      result.addData(filePath, lineStart, columnStart, lineEnd, columnEnd, statements, hit);
-    }
-
+    new ProfileReader(dataStream, project, module).read(result);
     result.processFiles(fileData -> {
-      ClassData classData = result.getOrCreateClassData(fileData.myFilePath);
-      int max = -1;
-      TIntObjectHashMap<LineData> linesMap = new TIntObjectHashMap<>();
-      for (GoCoverageProjectData.RangeData rangeData : fileData.myRangesData.values()) {
-        for (int i = rangeData.startLine; i <= rangeData.endLine; i++) {
-          LineData existingData = linesMap.get(i);
-          if (existingData != null) {
-            existingData.setHits(existingData.getHits() + rangeData.hits);
-            // emulate partial
-            existingData.setFalseHits(0, 0);
-            existingData.setTrueHits(0, 0);
-          }
-          else {
-            LineData newData = new LineData(i, null);
-            newData.setHits(newData.getHits() + rangeData.hits);
-            linesMap.put(i, newData);
-          }
-        }
-        max = Math.max(max, rangeData.endLine);
-      }
-
-      LineData[] linesArray = new LineData[max + 1];
-      linesMap.forEachValue(data -> {
-        data.fillArrays();
-        linesArray[data.getLineNumber()] = data;
-        return true;
-      });
-      classData.setLines(linesArray);
+      result.getOrCreateClassData(fileData.myFilePath).setLines(fileData.createLines());
       return true;
     });
-
     return result;
   }
 
@@ -172,4 +107,126 @@ public class GoCoverageRunner extends CoverageRunner {
   public boolean acceptsCoverageEngine(@NotNull CoverageEngine engine) {
     return engine instanceof GoCoverageEngine;
   }
+
+  /**
+   * Scans the profile byte by byte without creating a string per line. Consecutive lines usually belong to the same file,
+   * so the path of the previous line is compared as bytes and its file is reused; other paths are resolved once per profile.
+   */
+  private static class ProfileReader {
+    private static final char[] SEPARATORS = {'.', ',', '.', ' ', ' ', '\n'};
+
+    @NotNull private final InputStream myStream;
+    @NotNull private final Project myProject;
+    @Nullable private final Module myModule;
+    @NotNull private final byte[] myBuffer = new byte[64 * 1024];
+    private int myPosition;
+    private int myLimit;
+    private int myLastChar;
+
+    @NotNull private byte[] myPath = new byte[256];
+    private int myPathLength;
+    @NotNull private byte[] myPreviousPath = new byte[256];
+    private int myPreviousPathLength = -1;
+    @Nullable private GoCoverageProjectData.FileData myPreviousFileData;
+    @NotNull private final Map<String, GoCoverageProjectData.FileData> myFilesByImportPath = ContainerUtil.newHashMap();
+
+    private ProfileReader(@NotNull InputStream stream, @NotNull Project project, @Nullable Module module) {
+      myStream = stream;
+      myProject = project;
+      myModule = module;
+    }
+
+    private void read(@NotNull GoCoverageProjectData result) throws IOException {
+      int[] values = new int[SEPARATORS.length];
+      int c;
+      while ((c = readChar()) != -1) {
+        myPathLength = 0;
+        while (c != -1 && c != ':' && c != '\n') {
+          appendToPath(c);
+          c = readChar();
+        }
+        myLastChar = c;
+        if (c == ':' && readValues(values)) {
+          GoCoverageProjectData.FileData fileData = findFileData(result);
+          if (fileData != null) {
+            fileData.add(values[0], values[1], values[2], values[3], values[4], values[5]);
+          }
+        }
+        while (myLastChar != -1 && myLastChar != '\n') {
+          myLastChar = readChar();
+        }
+      }
+    }
+
+    private boolean readValues(@NotNull int[] values) throws IOException {
+      for (int i = 0; i < SEPARATORS.length; i++) {
+        int value = 0;
+        int digits = 0;
+        int c;
+        while ((c = readChar()) >= '0' && c <= '9') {
+          value = value * 10 + c - '0';
+          digits++;
+        }
+        boolean last = i == SEPARATORS.length - 1;
+        if (last && c == '\r') {
+          c = readChar();
+        }
+        myLastChar = c;
+        if (digits == 0 || c != SEPARATORS[i] && !(last && c == -1)) return false;
+        values[i] = value;
+      }
+      return true;
+    }
+
+    @Nullable
+    private GoCoverageProjectData.FileData findFileData(@NotNull GoCoverageProjectData result) {
+      if (myPathLength == myPreviousPathLength && equalBytes(myPath, myPreviousPath, myPathLength)) {
+        return myPreviousFileData;
+      }
+      String importPath = new String(myPath, 0, myPathLength, CharsetToolkit.UTF8_CHARSET);
+      GoCoverageProjectData.FileData fileData;
+      if (myFilesByImportPath.containsKey(importPath)) {
+        fileData = myFilesByImportPath.get(importPath);
+      }
+      else {
+        VirtualFile file = GoPackageUtil.findByImportPath(importPath, myProject, myModule);
+        fileData = file != null ? result.getOrCreateFileData(file.getPath()) : null;
+        myFilesByImportPath.put(importPath, fileData);
+      }
+
+      if (myPreviousPath.length < myPathLength) {
+        myPreviousPath = new byte[myPath.length];
+      }
+      System.arraycopy(myPath, 0, myPreviousPath, 0, myPathLength);
+      myPreviousPathLength = myPathLength;
+      myPreviousFileData = fileData;
+      return fileData;
+    }
+
+    private void appendToPath(int c) {
+      if (myPathLength == myPath.length) {
+        myPath = ArrayUtil.realloc(myPath, myPath.length * 2);
+      }
+      myPath[myPathLength++] = (byte)c;
+    }
+
+    private int readChar() throws IOException {
+      if (myPosition == myLimit) {
+        myLimit = myStream.read(myBuffer);
+        myPosition = 0;
+        if (myLimit <= 0) {
+          myLimit = 0;
+          return -1;
+        }
+      }
+      return myBuffer[myPosition++] & 0xFF;
+    }
+
+    private static boolean equalBytes(@NotNull byte[] first, @NotNull byte[] second, int length) {
+      for (int i = 0; i < length; i++) {
+        if (first[i] != second[i]) return false;
+      }
+      return true;
+    }
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing.frameworks.gobench;
+
+import com.goide.runconfig.testing.GoTestRunConfiguration;
+import com.intellij.execution.RunManager;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Shows {@link GobenchCompareDialog} for the selected gobench run configuration
+ */
+public class GobenchCompareAction extends DumbAwareAction {
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    GoTestRunConfiguration configuration = getSelectedConfiguration(e.getProject());
+    e.getPresentation().setEnabled(configuration != null && !getRuns(configuration).isEmpty());
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    Project project = e.getProject();
+    GoTestRunConfiguration configuration = getSelectedConfiguration(project);
+    if (project == null || configuration == null) return;
+    List<GobenchHistory.Run> runs = getRuns(configuration);
+    if (!runs.isEmpty()) {
+      new GobenchCompareDialog(project, configuration.getName(), runs).show();
+    }
+  }
+
+  @NotNull
+  private static List<GobenchHistory.Run> getRuns(@NotNull GoTestRunConfiguration configuration) {
+    return GobenchHistory.getInstance(configuration.getProject()).getRuns(configuration.getName());
+  }
+
+  @Nullable
+  private static GoTestRunConfiguration getSelectedConfiguration(@Nullable Project project) {
+    RunnerAndConfigurationSettings settings = project != null ? RunManager.getInstance(project).getSelectedConfiguration() : null;
+    Object configuration = settings != null ? settings.getConfiguration() : null;
+    return configuration instanceof GoTestRunConfiguration
+           && ((GoTestRunConfiguration)configuration).getTestFramework() == GobenchFramework.INSTANCE
+           ? (GoTestRunConfiguration)configuration
+           : null;
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing.frameworks.gobench;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.ListCellRendererWrapper;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.Function;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.ListTableModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares results of two gobench runs in benchstat manner: mean ± deviation of every metric and the difference of means
+ * if it's significant, {@code ~} otherwise
+ */
+public class GobenchCompareDialog extends DialogWrapper {
+  private final JComboBox<GobenchHistory.Run> myBaselineComboBox;
+  private final JComboBox<GobenchHistory.Run> myCurrentComboBox;
+  private final ListTableModel<Row> myModel = new ListTableModel<>(
+    column("Benchmark", row -> row.name),
+    column("Unit", row -> row.unit),
+    column("Baseline", row -> row.baseline),
+    column("Current", row -> row.current),
+    column("Delta", row -> row.delta),
+    column("Significance", row -> row.significance));
+
+  public GobenchCompareDialog(@NotNull Project project, @NotNull String configurationName, @NotNull List<GobenchHistory.Run> runs) {
+    super(project);
+    setTitle("Compare Benchmark Results of " + configurationName);
+    GobenchHistory.Run[] items = ContainerUtil.reverse(runs).toArray(new GobenchHistory.Run[runs.size()]);
+    myBaselineComboBox = createRunComboBox(items);
+    myCurrentComboBox = createRunComboBox(items);
+    myCurrentComboBox.setSelectedIndex(0);
+    myBaselineComboBox.setSelectedIndex(Math.min(1, items.length - 1));
+    myBaselineComboBox.addActionListener(e -> updateRows());
+    myCurrentComboBox.addActionListener(e -> updateRows());
+    updateRows();
+    init();
+  }
+
+  @NotNull
+  private static JComboBox<GobenchHistory.Run> createRunComboBox(@NotNull GobenchHistory.Run[] runs) {
+    JComboBox<GobenchHistory.Run> comboBox = new JComboBox<>(runs);
+    DateFormat format = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.MEDIUM);
+    comboBox.setRenderer(new ListCellRendererWrapper<GobenchHistory.Run>() {
+      @Override
+      public void customize(JList list, GobenchHistory.Run run, int index, boolean selected, boolean hasFocus) {
+        if (run != null) {
+          setText(format.format(new Date(run.timestamp)));
+        }
+      }
+    });
+    return comboBox;
+  }
+
+  private void updateRows() {
+    GobenchHistory.Run baseline = (GobenchHistory.Run)myBaselineComboBox.getSelectedItem();
+    GobenchHistory.Run current = (GobenchHistory.Run)myCurrentComboBox.getSelectedItem();
+    myModel.setItems(baseline != null && current != null ? compare(baseline, current) : ContainerUtil.newArrayList());
+  }
+
+  @NotNull
+  static List<Row> compare(@NotNull GobenchHistory.Run baseline, @NotNull GobenchHistory.Run current) {
+    List<Row> rows = ContainerUtil.newArrayList();
+    for (GobenchHistory.Benchmark benchmark : current.benchmarks) {
+      GobenchHistory.Benchmark old = baseline.find(benchmark.name, benchmark.unit);
+      rows.add(new Row(benchmark.name, benchmark.unit, old != null ? old.getValues() : null, benchmark.getValues()));
+    }
+    for (GobenchHistory.Benchmark old : baseline.benchmarks) {
+      if (current.find(old.name, old.unit) == null) {
+        rows.add(new Row(old.name, old.unit, old.getValues(), null));
+      }
+    }
+    return rows;
+  }
+
+  @Nullable
+  @Override
+  protected JComponent createCenterPanel() {
+    JBTable table = new JBTable(myModel);
+    table.setStriped(true);
+    return FormBuilder.createFormBuilder()
+      .addLabeledComponent("&Baseline:", myBaselineComboBox)
+      .addLabeledComponent("&Current:", myCurrentComboBox)
+      .addComponentFillVertically(ScrollPaneFactory.createScrollPane(table), 0)
+      .getPanel();
+  }
+
+  @Nullable
+  @Override
+  public JComponent getPreferredFocusedComponent() {
+    return myBaselineComboBox;
+  }
+
+  @NotNull
+  @Override
+  protected Action[] createActions() {
+    return new Action[]{getOKAction()};
+  }
+
+  @NotNull
+  private static ColumnInfo<Row, String> column(@NotNull String name, @NotNull Function<Row, String> getter) {
+    return new ColumnInfo<Row, String>(name) {
+      @Nullable
+      @Override
+      public String valueOf(Row row) {
+        return getter.fun(row);
+      }
+    };
+  }
+
+  static class Row {
+    @NotNull final String name;
+    @NotNull final String unit;
+    @NotNull final String baseline;
+    @NotNull final String current;
+    @NotNull final String delta;
+    @NotNull final String significance;
+
+    Row(@NotNull String name, @NotNull String unit, @Nullable double[] baseline, @Nullable double[] current) {
+      this.name = name;
+      this.unit = unit;
+      this.baseline = baseline != null ? GobenchStatistics.formatMeanAndDeviation(baseline) : "";
+      this.current = current != null ? GobenchStatistics.formatMeanAndDeviation(current) : "";
+      if (baseline == null || current == null) {
+        delta = "";
+        significance = "";
+        return;
+      }
+      double p = GobenchStatistics.mannWhitneyPValue(baseline, current);
+      double oldMean = GobenchStatistics.mean(baseline);
+      double newMean = GobenchStatistics.mean(current);
+      delta = p < GobenchStatistics.ALPHA && oldMean != 0
+              ? String.format(Locale.US, "%+.2f%%", (newMean - oldMean) / oldMean * 100)
+              : "~";
+      significance = String.format(Locale.US, "p=%.3f n=%d+%d", p, baseline.length, current.length);
+    }
+  }
+}
@@ -16,43 +16,107 @@
 
 package com.goide.runconfig.testing.frameworks.gobench;
 
-import com.goide.GoConstants;
+import com.goide.runconfig.testing.GoTestOutputTokenizer;
+import com.goide.runconfig.testing.GoTestRunConfiguration;
 import com.goide.runconfig.testing.frameworks.gotest.GoTestEventsConverterBaseImpl;
+import com.intellij.execution.configurations.RunProfile;
+import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.execution.testframework.TestConsoleProperties;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
+import gnu.trove.TDoubleArrayList;
 import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 public class GobenchEventsConverter extends GoTestEventsConverterBaseImpl {
-  private static final Pattern RUN = Pattern.compile("^(Benchmark(" + GoConstants.TEST_NAME_REGEX + ")?)");
-  private static final Pattern FAIL = Pattern.compile("^--- FAIL: (Benchmark(" + GoConstants.TEST_NAME_REGEX + ")?).*");
+  private static final int BENCHMARK = 0;
+  private static final int FAIL = 1;
+  private static final GoTestOutputTokenizer TOKENIZER = new GoTestOutputTokenizer("Benchmark", "--- FAIL: ");
+
+  private final Map<String, Map<String, TDoubleArrayList>> mySamples = ContainerUtil.newLinkedHashMap();
+  @NotNull private final TestConsoleProperties myProperties;
 
   public GobenchEventsConverter(@NotNull TestConsoleProperties properties) {
     super(GobenchFramework.NAME, properties);
+    myProperties = properties;
   }
 
   @Override
   protected int processLine(@NotNull String line, int start, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
-    Matcher matcher;
-    if ((matcher = RUN.matcher(line)).find(start)) {
-      startTest(matcher.group(1), visitor);
-      int newStartOffset = findFirstNonWSIndex(line, matcher.end(1));
+    if (start == 0 && TOKENIZER.markerAt(line, 0) == BENCHMARK) {
+      int nameEnd = GoTestOutputTokenizer.skipTestName(line, TOKENIZER.getMarkerLength(BENCHMARK));
+      startTest(line.substring(0, nameEnd), visitor);
+      int newStartOffset = findFirstNonWSIndex(line, nameEnd);
       return newStartOffset != -1 ? newStartOffset : line.length();
     }
-    if ((matcher = FAIL.matcher(line.substring(start))).find()) {
-      finishTest(matcher.group(1), TestResult.FAILED, visitor);
-      int newStartOffset = findFirstNonWSIndex(line, start + matcher.end(1));
-      return newStartOffset != -1 ? newStartOffset : line.length();
+    if (TOKENIZER.markerAt(line, start) == FAIL) {
+      int nameStart = start + TOKENIZER.getMarkerLength(FAIL);
+      if (TOKENIZER.markerAt(line, nameStart) == BENCHMARK) {
+        int nameEnd = GoTestOutputTokenizer.skipTestName(line, nameStart + TOKENIZER.getMarkerLength(BENCHMARK));
+        finishTest(line.substring(nameStart, nameEnd), TestResult.FAILED, visitor);
+        int newStartOffset = findFirstNonWSIndex(line, nameEnd);
+        return newStartOffset != -1 ? newStartOffset : line.length();
+      }
+    }
+    String currentTestName = getCurrentTestName();
+    GobenchResult result = currentTestName != null ? GobenchResult.parse(line, start) : null;
+    if (result != null) {
+      addSamples(currentTestName, result);
     }
     return start;
   }
 
+  private void addSamples(@NotNull String benchmarkName, @NotNull GobenchResult result) {
+    Map<String, TDoubleArrayList> samples = mySamples.get(benchmarkName);
+    if (samples == null) {
+      mySamples.put(benchmarkName, samples = ContainerUtil.newLinkedHashMap());
+    }
+    for (Map.Entry<String, Double> metric : result.getMetrics().entrySet()) {
+      TDoubleArrayList values = samples.get(metric.getKey());
+      if (values == null) {
+        samples.put(metric.getKey(), values = new TDoubleArrayList());
+      }
+      values.add(metric.getValue());
+    }
+  }
+
+  @Override
+  protected void processFinished(@Nullable ServiceMessageVisitor visitor) throws ParseException {
+    if (mySamples.isEmpty()) return;
+    if (visitor != null && hasRepeatedRuns()) {
+      StringBuilder summary = new StringBuilder("\nMean ± standard deviation of repeated runs:\n");
+      for (Map.Entry<String, Map<String, TDoubleArrayList>> benchmark : mySamples.entrySet()) {
+        summary.append(benchmark.getKey());
+        for (Map.Entry<String, TDoubleArrayList> metric : benchmark.getValue().entrySet()) {
+          double[] values = metric.getValue().toNativeArray();
+          summary.append("  ").append(GobenchStatistics.formatMeanAndDeviation(values)).append(' ').append(metric.getKey());
+        }
+        summary.append('\n');
+      }
+      processOutput(summary.toString(), ProcessOutputTypes.STDOUT, visitor);
+    }
+    RunProfile configuration = myProperties.getConfiguration();
+    if (configuration instanceof GoTestRunConfiguration) {
+      Project project = ((GoTestRunConfiguration)configuration).getProject();
+      GobenchHistory.getInstance(project).addRun(myProperties, ((GoTestRunConfiguration)configuration).getName(), mySamples);
+    }
+  }
+
+  private boolean hasRepeatedRuns() {
+    for (Map<String, TDoubleArrayList> samples : mySamples.values()) {
+      for (TDoubleArrayList values : samples.values()) {
+        if (values.size() > 1) return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   protected void startTest(@NotNull String testName, @Nullable ServiceMessageVisitor visitor) throws ParseException {
     String currentTestName = getCurrentTestName();
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing.frameworks.gobench;
+
+import com.intellij.openapi.components.*;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.xmlb.annotations.AbstractCollection;
+import com.intellij.util.xmlb.annotations.Attribute;
+import com.intellij.util.xmlb.annotations.Tag;
+import com.intellij.util.xmlb.annotations.Transient;
+import gnu.trove.TDoubleArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of recent gobench runs per run configuration, kept in the workspace file
+ */
+@State(
+  name = "GobenchHistory",
+  storages = @Storage(file = StoragePathMacros.WORKSPACE_FILE)
+)
+public class GobenchHistory implements PersistentStateComponent<GobenchHistory.State> {
+  private static final int MAX_RUNS_PER_CONFIGURATION = Integer.getInteger("go.bench.history.size", 30);
+
+  @NotNull private State myState = new State();
+  private final Map<Object, Run> mySessionRuns = ContainerUtil.createWeakMap();
+
+  public static GobenchHistory getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, GobenchHistory.class);
+  }
+
+  @NotNull
+  @Override
+  public State getState() {
+    return myState;
+  }
+
+  @Override
+  public void loadState(State state) {
+    myState = state;
+  }
+
+  /**
+   * @return runs of the configuration from the oldest to the newest
+   */
+  @NotNull
+  public synchronized List<Run> getRuns(@NotNull String configurationName) {
+    return ContainerUtil.filter(myState.runs, run -> configurationName.equals(run.configuration));
+  }
+
+  /**
+   * Records results of a run. Results reported for the same session, e.g. by converters of different packages
+   * of a single test run, are merged into one run.
+   *
+   * @param samples values of every benchmark by metric units
+   */
+  public synchronized void addRun(@NotNull Object session,
+                                  @NotNull String configurationName,
+                                  @NotNull Map<String, Map<String, TDoubleArrayList>> samples) {
+    Run run = mySessionRuns.get(session);
+    boolean isNew = run == null || !myState.runs.contains(run);
+    if (isNew) {
+      run = new Run();
+      run.configuration = configurationName;
+      run.timestamp = System.currentTimeMillis();
+      mySessionRuns.put(session, run);
+    }
+    for (Map.Entry<String, Map<String, TDoubleArrayList>> benchmark : samples.entrySet()) {
+      for (Map.Entry<String, TDoubleArrayList> metric : benchmark.getValue().entrySet()) {
+        Benchmark result = new Benchmark();
+        result.name = benchmark.getKey();
+        result.unit = metric.getKey();
+        StringBuilder builder = new StringBuilder();
+        for (double value : metric.getValue().toNativeArray()) {
+          if (builder.length() > 0) builder.append(' ');
+          builder.append(value);
+        }
+        result.samples = builder.toString();
+        run.benchmarks.add(result);
+      }
+    }
+    if (!isNew) return;
+    myState.runs.add(run);
+
+    List<Run> runs = getRuns(configurationName);
+    for (int i = 0; i < runs.size() - MAX_RUNS_PER_CONFIGURATION; i++) {
+      myState.runs.remove(runs.get(i));
+    }
+  }
+
+  public static class State {
+    @AbstractCollection(surroundWithTag = false)
+    public List<Run> runs = ContainerUtil.newArrayList();
+  }
+
+  @Tag("run")
+  public static class Run {
+    @Attribute("configuration")
+    public String configuration = "";
+    @Attribute("timestamp")
+    public long timestamp;
+    @AbstractCollection(surroundWithTag = false)
+    public List<Benchmark> benchmarks = ContainerUtil.newArrayList();
+
+    @Nullable
+    public Benchmark find(@NotNull String name, @NotNull String unit) {
+      return ContainerUtil.find(benchmarks, benchmark -> name.equals(benchmark.name) && unit.equals(benchmark.unit));
+    }
+  }
+
+  @Tag("benchmark")
+  public static class Benchmark {
+    @Attribute("name")
+    public String name = "";
+    @Attribute("unit")
+    public String unit = "";
+    @Attribute("samples")
+    public String samples = "";
+
+    @NotNull
+    @Transient
+    public double[] getValues() {
+      List<String> values = StringUtil.split(samples, " ");
+      TDoubleArrayList result = new TDoubleArrayList(values.size());
+      for (String value : values) {
+        try {
+          result.add(Double.parseDouble(value));
+        }
+        catch (NumberFormatException ignore) {
+        }
+      }
+      return result.toNativeArray();
+    }
+  }
+}
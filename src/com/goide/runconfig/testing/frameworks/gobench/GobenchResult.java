@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing.frameworks.gobench;
+
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Measurements printed by {@code go test -bench} for a single benchmark run, e.g.
+ * {@code 2000000  728 ns/op  16.45 MB/s  144 B/op  3 allocs/op}.
+ * Metrics are keyed by their units, so custom ones are kept as well.
+ */
+public class GobenchResult {
+  public static final String NS_PER_OP = "ns/op";
+  public static final String MB_PER_S = "MB/s";
+  public static final String B_PER_OP = "B/op";
+  public static final String ALLOCS_PER_OP = "allocs/op";
+
+  private final long myIterations;
+  @NotNull private final Map<String, Double> myMetrics;
+
+  private GobenchResult(long iterations, @NotNull Map<String, Double> metrics) {
+    myIterations = iterations;
+    myMetrics = metrics;
+  }
+
+  public long getIterations() {
+    return myIterations;
+  }
+
+  /**
+   * @return metric values by units in order of appearance
+   */
+  @NotNull
+  public Map<String, Double> getMetrics() {
+    return Collections.unmodifiableMap(myMetrics);
+  }
+
+  /**
+   * @return result parsed from the text after the benchmark name or null if the text isn't a result line
+   */
+  @Nullable
+  public static GobenchResult parse(@NotNull CharSequence text, int start) {
+    int end = text.length();
+    int offset = skipWhitespaces(text, start, end);
+    int tokenEnd = skipToken(text, offset, end);
+    long iterations = parseIterations(text, offset, tokenEnd);
+    if (iterations <= 0) return null;
+
+    Map<String, Double> metrics = ContainerUtil.newLinkedHashMap();
+    offset = skipWhitespaces(text, tokenEnd, end);
+    while (offset < end) {
+      tokenEnd = skipToken(text, offset, end);
+      double value;
+      try {
+        value = Double.parseDouble(text.subSequence(offset, tokenEnd).toString());
+      }
+      catch (NumberFormatException e) {
+        return null;
+      }
+      offset = skipWhitespaces(text, tokenEnd, end);
+      tokenEnd = skipToken(text, offset, end);
+      if (offset == tokenEnd) return null;
+      metrics.put(text.subSequence(offset, tokenEnd).toString(), value);
+      offset = skipWhitespaces(text, tokenEnd, end);
+    }
+    return metrics.isEmpty() ? null : new GobenchResult(iterations, metrics);
+  }
+
+  private static long parseIterations(@NotNull CharSequence text, int start, int end) {
+    if (start == end || end - start > 18) return -1;
+    long result = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') return -1;
+      result = result * 10 + c - '0';
+    }
+    return result;
+  }
+
+  private static int skipWhitespaces(@NotNull CharSequence text, int offset, int end) {
+    while (offset < end && Character.isWhitespace(text.charAt(offset))) offset++;
+    return offset;
+  }
+
+  private static int skipToken(@NotNull CharSequence text, int offset, int end) {
+    while (offset < end && !Character.isWhitespace(text.charAt(offset))) offset++;
+    return offset;
+  }
+}
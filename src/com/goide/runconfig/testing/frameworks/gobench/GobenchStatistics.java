@@ -0,0 +1,165 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing.frameworks.gobench;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Statistics used to summarize repeated benchmark runs and to compare them the way benchstat does:
+ * a difference is significant if the two-sided Mann-Whitney U-test gives p below {@link #ALPHA}.
+ */
+public class GobenchStatistics {
+  public static final double ALPHA = 0.05;
+  private static final int MAX_EXACT_SAMPLES = 20;
+
+  private GobenchStatistics() {
+  }
+
+  public static double mean(@NotNull double[] values) {
+    if (values.length == 0) return Double.NaN;
+    double sum = 0;
+    for (double value : values) {
+      sum += value;
+    }
+    return sum / values.length;
+  }
+
+  /**
+   * @return sample standard deviation, zero for less than two values
+   */
+  public static double stddev(@NotNull double[] values) {
+    if (values.length < 2) return 0;
+    double mean = mean(values);
+    double sum = 0;
+    for (double value : values) {
+      sum += (value - mean) * (value - mean);
+    }
+    return Math.sqrt(sum / (values.length - 1));
+  }
+
+  /**
+   * @return two-sided p-value of the Mann-Whitney U-test, exact for small samples without ties
+   * and normal approximation with tie correction otherwise
+   */
+  public static double mannWhitneyPValue(@NotNull double[] x, @NotNull double[] y) {
+    int n1 = x.length;
+    int n2 = y.length;
+    if (n1 == 0 || n2 == 0) return 1;
+
+    int n = n1 + n2;
+    double[] all = new double[n];
+    System.arraycopy(x, 0, all, 0, n1);
+    System.arraycopy(y, 0, all, n1, n2);
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (o1, o2) -> Double.compare(all[o1], all[o2]));
+
+    double rankSumX = 0;
+    double tieCorrection = 0;
+    for (int i = 0; i < n; ) {
+      int j = i;
+      while (j + 1 < n && all[order[j + 1]] == all[order[i]]) j++;
+      double rank = (i + j) / 2.0 + 1;
+      for (int k = i; k <= j; k++) {
+        if (order[k] < n1) rankSumX += rank;
+      }
+      int ties = j - i + 1;
+      tieCorrection += (double)ties * ties * ties - ties;
+      i = j + 1;
+    }
+    double u = rankSumX - n1 * (n1 + 1) / 2.0;
+    double uMin = Math.min(u, (double)n1 * n2 - u);
+
+    if (tieCorrection == 0 && n1 <= MAX_EXACT_SAMPLES && n2 <= MAX_EXACT_SAMPLES) {
+      return Math.min(1, 2 * exactCumulativeProbability(n1, n2, (int)uMin));
+    }
+    double sigma = Math.sqrt(n1 * n2 / 12.0 * ((n + 1) - tieCorrection / ((double)n * (n - 1))));
+    if (sigma == 0) return 1;
+    double z = (Math.abs(u - n1 * n2 / 2.0) - 0.5) / sigma;
+    return Math.min(1, erfc(Math.max(z, 0) / Math.sqrt(2)));
+  }
+
+  /**
+   * @return P(U <= u) for samples of sizes n1 and n2 under the null hypothesis
+   */
+  private static double exactCumulativeProbability(int n1, int n2, int u) {
+    // counts[i][j][k] is the number of arrangements of i and j values having U = k
+    double[][][] counts = new double[n1 + 1][n2 + 1][];
+    for (int i = 0; i <= n1; i++) {
+      for (int j = 0; j <= n2; j++) {
+        double[] current = new double[i * j + 1];
+        if (i == 0 || j == 0) {
+          current[0] = 1;
+        }
+        else {
+          double[] withoutX = counts[i - 1][j];
+          double[] withoutY = counts[i][j - 1];
+          for (int k = 0; k < current.length; k++) {
+            if (k >= j && k - j < withoutX.length) current[k] += withoutX[k - j];
+            if (k < withoutY.length) current[k] += withoutY[k];
+          }
+        }
+        counts[i][j] = current;
+      }
+    }
+    double[] distribution = counts[n1][n2];
+    double total = 0;
+    double cumulative = 0;
+    for (int k = 0; k < distribution.length; k++) {
+      total += distribution[k];
+      if (k <= u) cumulative += distribution[k];
+    }
+    return cumulative / total;
+  }
+
+  /**
+   * Complementary error function, Numerical Recipes approximation with relative error below 1.2e-7
+   */
+  private static double erfc(double x) {
+    double z = Math.abs(x);
+    double t = 1 / (1 + 0.5 * z);
+    double result = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 +
+                    t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 +
+                    t * (-0.82215223 + t * 0.17087277)))))))));
+    return x >= 0 ? result : 2 - result;
+  }
+
+  /**
+   * Formats a metric value with three significant digits at most
+   */
+  @NotNull
+  public static String format(double value) {
+    double abs = Math.abs(value);
+    String pattern = abs >= 100 || abs == 0 ? "%.0f" : abs >= 10 ? "%.1f" : abs >= 1 ? "%.2f" : "%.3g";
+    return String.format(Locale.US, pattern, value);
+  }
+
+  /**
+   * @return formatted mean with relative deviation, e.g. {@code 109 ± 2%}
+   */
+  @NotNull
+  public static String formatMeanAndDeviation(@NotNull double[] values) {
+    double mean = mean(values);
+    double deviation = mean != 0 ? stddev(values) / Math.abs(mean) * 100 : 0;
+    return format(mean) + " ± " + String.format(Locale.US, "%.0f%%", deviation);
+  }
+}
@@ -18,6 +18,7 @@ package com.goide.runconfig.testing.frameworks.gocheck;
 
 import com.goide.runconfig.testing.GoTestEventsConverterBase;
 import com.goide.runconfig.testing.GoTestLocator;
+import com.goide.runconfig.testing.GoTestOutputTokenizer;
 import com.intellij.execution.testframework.TestConsoleProperties;
 import com.intellij.execution.testframework.sm.ServiceMessageBuilder;
 import com.intellij.execution.testframework.sm.runner.OutputToGeneralTestEventsConverter;
@@ -25,6 +26,7 @@ import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.containers.ContainerUtil;
 import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
+import jetbrains.buildServer.messages.serviceMessages.TestStdOut;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -72,6 +74,9 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
   private static final Pattern ERROR_ACTUAL = Pattern.compile("\\.\\.\\. ((obtained)|(value)) (.*?)( \\+)?\\s*$");
   private static final Pattern ERROR_EXPECTED = Pattern.compile("\\.\\.\\. ((expected)|(regex)) (.*?)( \\+)?\\s*$");
   private static final Pattern ERROR_CONTINUATION = Pattern.compile("\\.\\.\\. {5}(.*?)( +\\+)?\\s*$");
+  // every line of a test is checked for the result markers, regular expressions are tried only for lines that have some of them
+  private static final GoTestOutputTokenizer SECTION_MARKERS =
+    new GoTestOutputTokenizer("START: ", "PASS: ", "FAIL: ", "PANIC: ", "MISS: ", "SKIP: ");
   private static final Pattern PANIC_VALUE = Pattern.compile("(.*)\\.\\.\\. (Panic: .* \\(.*\\)\\s*)$");
 
   private Scope myScope = Scope.GLOBAL;
@@ -117,17 +122,18 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
   @Override
   public boolean processServiceMessages(@NotNull String text, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
     Matcher matcher;
+    boolean hasSectionMarker = myScope != Scope.GLOBAL && SECTION_MARKERS.find(text, 0) >= 0;
 
     switch (myScope) {
       case GLOBAL:
-        if (SUITE_START.matcher(text).matches()) {
+        if (text.startsWith("=== RUN ") && SUITE_START.matcher(text).matches()) {
           myScope = Scope.SUITE;
           return true;
         }
         break;
 
       case SUITE:
-        if ((matcher = TEST_START.matcher(text)).matches()) {
+        if (hasSectionMarker && (matcher = TEST_START.matcher(text)).matches()) {
           myStdOut = ContainerUtil.newArrayList();
           myTestName = matcher.group(2);
           processTestSectionStart(myTestName, outputType, visitor);
@@ -142,19 +148,19 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
           myScope = Scope.TEST;
           return processTestStarted(myTestName, outputType, visitor);
         }
-        if (SUITE_END.matcher(text).matches()) {
+        if ((text.startsWith("PASS") || text.startsWith("FAIL")) && SUITE_END.matcher(text).matches()) {
           myScope = Scope.GLOBAL;
           if (mySuiteName != null) {
             String suiteFinishedMsg = ServiceMessageBuilder.testSuiteFinished(mySuiteName).toString();
             super.processServiceMessages(suiteFinishedMsg, outputType, visitor);
-            processStdOut("SuiteTearDown", outputType, visitor);
+            processStdOut("SuiteTearDown", visitor);
           }
           return true;
         }
         break;
 
       case SUITE_SETUP:
-        TestResult suiteSetUpResult = detectTestResult(text, true);
+        TestResult suiteSetUpResult = hasSectionMarker ? detectTestResult(text, true) : null;
         if (suiteSetUpResult != null) {
           myScope = Scope.SUITE;
           if (suiteSetUpResult.getStatus() != Status.PASSED) {
@@ -165,14 +171,14 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
         break;
 
       case SUITE_TEARDOWN:
-        if (detectTestResult(text, false) != null) {
+        if (hasSectionMarker && detectTestResult(text, false) != null) {
           myScope = Scope.SUITE;
           return true;
         }
         break;
 
       case TEST:
-        if ((matcher = TEST_START.matcher(text)).matches()) {
+        if (hasSectionMarker && (matcher = TEST_START.matcher(text)).matches()) {
           String stdOutLeftover = matcher.group(1);
           if (!StringUtil.isEmptyOrSpaces(stdOutLeftover)) {
             myStdOut.add(stdOutLeftover);
@@ -188,7 +194,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
           }
         }
 
-        TestResult testResult = detectTestResult(text, true);
+        TestResult testResult = hasSectionMarker ? detectTestResult(text, true) : null;
         if (testResult != null) {
           myScope = Scope.SUITE;
           if (StringUtil.notNullize(testResult.myAttributes.get("details")).contains("Fixture has panicked")
@@ -202,7 +208,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
         break;
 
       case TEST_SETUP:
-        TestResult testSetUpResult = detectTestResult(text, true);
+        TestResult testSetUpResult = hasSectionMarker ? detectTestResult(text, true) : null;
         if (testSetUpResult != null) {
           myScope = Scope.TEST;
           if (testSetUpResult.getStatus() != Status.PASSED) {
@@ -214,7 +220,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
 
       case TEST_TEARDOWN:
         boolean isSetUpFailed = myFixtureFailure != null;
-        TestResult testTearDownResult = detectTestResult(text, !isSetUpFailed);
+        TestResult testTearDownResult = hasSectionMarker ? detectTestResult(text, !isSetUpFailed) : null;
         if (testTearDownResult != null) {
           myScope = Scope.TEST;
           if (!isSetUpFailed && testTearDownResult.getStatus() != Status.PASSED) {
@@ -272,7 +278,7 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
   }
 
   private void processTestResult(@NotNull TestResult testResult, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
-    processStdOut(myTestName, outputType, visitor);
+    processStdOut(myTestName, visitor);
 
     switch (testResult.getStatus()) {
       case PASSED:
@@ -304,14 +310,13 @@ public class GocheckEventsConverter extends OutputToGeneralTestEventsConverter i
     super.processServiceMessages(testFinishedMsg, outputType, visitor);
   }
 
-  private void processStdOut(@NotNull String testName, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
+  private void processStdOut(@NotNull String testName, ServiceMessageVisitor visitor) {
     if (myStdOut == null) {
       return;
     }
     String allStdOut = StringUtil.join(myStdOut, "");
-    if (!StringUtil.isEmptyOrSpaces(allStdOut)) {
-      String testStdOutMsg = ServiceMessageBuilder.testStdOut(testName).addAttribute("out", allStdOut).toString();
-      super.processServiceMessages(testStdOutMsg, outputType, visitor);
+    if (!StringUtil.isEmptyOrSpaces(allStdOut) && visitor != null) {
+      new TestStdOut(testName, allStdOut).visit(visitor);
     }
     myStdOut = null;
   }
@@ -27,6 +27,7 @@ import com.intellij.openapi.module.Module;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 
@@ -38,8 +39,8 @@ public class GocheckRunningState extends GoTestRunningState {
   }
 
   @Override
-  protected GoExecutor patchExecutor(@NotNull GoExecutor executor) throws ExecutionException {
-    return super.patchExecutor(executor).withParameters("-check.vv");
+  protected GoExecutor patchTestExecutor(@NotNull GoExecutor executor, @Nullable String packagePath) throws ExecutionException {
+    return super.patchTestExecutor(executor, packagePath).withParameters("-check.vv");
   }
 
   @NotNull
@@ -24,8 +24,7 @@ import com.intellij.execution.testframework.sm.ServiceMessageBuilder;
 import com.intellij.execution.testframework.sm.runner.OutputToGeneralTestEventsConverter;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
-import jetbrains.buildServer.messages.serviceMessages.ServiceMessageTypes;
-import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
+import jetbrains.buildServer.messages.serviceMessages.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -79,22 +78,18 @@ public abstract class GoTestEventsConverterBaseImpl extends OutputToGeneralTestE
     if (text.isEmpty()) {
       return;
     }
+    if (visitor == null) {
+      return;
+    }
+    // output is the bulk of events, so it's visited as is instead of being formatted into a service message and parsed back
     boolean isErrorMessage = ProcessOutputTypes.STDERR == outputType;
     if (myCurrentTestName != null) {
-      ServiceMessageBuilder builder = isErrorMessage ? ServiceMessageBuilder.testStdErr(myCurrentTestName)
-                                                     : ServiceMessageBuilder.testStdOut(myCurrentTestName);
-      super.processServiceMessages(builder.addAttribute("out", text).toString(), outputType, visitor);
+      ServiceMessage message = isErrorMessage ? new TestStdErr(myCurrentTestName, text) : new TestStdOut(myCurrentTestName, text);
+      message.visit(visitor);
       return;
     }
-
-    ServiceMessageBuilder messageBuilder = new ServiceMessageBuilder(ServiceMessageTypes.MESSAGE);
-    if (isErrorMessage) {
-      messageBuilder.addAttribute("text", StringUtil.trimEnd(text, "\n")).addAttribute("status", "ERROR");
-    }
-    else {
-      messageBuilder.addAttribute("text", text).addAttribute("status", "NORMAL");
-    }
-    super.processServiceMessages(messageBuilder.toString(), outputType, visitor);
+    Message message = isErrorMessage ? new Message(StringUtil.trimEnd(text, "\n"), "ERROR", null) : new Message(text, "NORMAL", null);
+    message.visit(visitor);
   }
 
   @Override
@@ -124,6 +119,7 @@ public abstract class GoTestEventsConverterBaseImpl extends OutputToGeneralTestE
           finishTestInner(myCurrentTestName, TestResult.PASSED, myVisitor);
         }
       }
+      processFinished(myVisitor);
     }
     catch (ParseException ignore) {
     }
@@ -131,6 +127,12 @@ public abstract class GoTestEventsConverterBaseImpl extends OutputToGeneralTestE
     super.flushBufferBeforeTerminating();
   }
 
+  /**
+   * Called once the whole output is processed and the last test is finished
+   */
+  protected void processFinished(@Nullable ServiceMessageVisitor visitor) throws ParseException {
+  }
+
   protected void finishTest(@NotNull String name, @NotNull TestResult result, @Nullable ServiceMessageVisitor visitor)
     throws ParseException {
     if (isCurrentlyRunningTest(name)) {
@@ -16,22 +16,20 @@
 
 package com.goide.runconfig.testing.frameworks.gotest;
 
-import com.goide.GoConstants;
+import com.goide.runconfig.testing.GoTestOutputTokenizer;
 import com.intellij.execution.testframework.TestConsoleProperties;
 import com.intellij.openapi.util.Key;
 import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class GotestEventsConverter extends GoTestEventsConverterBaseImpl {
-  private static final Pattern RUN = Pattern.compile("^=== RUN\\s+(" + GoConstants.TEST_NAME_REGEX + ")");
-  private static final Pattern PASSED = Pattern.compile("--- PASS:\\s+(" + GoConstants.TEST_NAME_REGEX + ")");
-  private static final Pattern SKIP = Pattern.compile("--- SKIP:\\s+(" + GoConstants.TEST_NAME_REGEX + ")");
-  private static final Pattern FAILED = Pattern.compile("--- FAIL:\\s+(" + GoConstants.TEST_NAME_REGEX + ")");
-  private static final Pattern FINISHED = Pattern.compile("^(PASS)|(FAIL)$");
+  // markers of finished tests go first, their indices match RESULTS
+  private static final GoTestOutputTokenizer TOKENIZER = new GoTestOutputTokenizer("--- PASS:", "--- FAIL:", "--- SKIP:", "=== RUN");
+  private static final TestResult[] RESULTS = {TestResult.PASSED, TestResult.FAILED, TestResult.SKIPPED};
+  private static final int RUN = 3;
 
   public GotestEventsConverter(@NotNull TestConsoleProperties consoleProperties) {
     super(GotestFramework.NAME, consoleProperties);
@@ -39,30 +37,36 @@ public class GotestEventsConverter extends GoTestEventsConverterBaseImpl {
 
   @Override
   protected int processLine(@NotNull String line, int start, Key outputType, ServiceMessageVisitor visitor) throws ParseException {
-    Matcher matcher;
-    if ((matcher = RUN.matcher(line)).find(start)) {
-      startTest(matcher.group(1), visitor);
-      return line.length();
-    }
-    if ((matcher = SKIP.matcher(line)).find(start)) {
-      processOutput(line.substring(start, matcher.start()), outputType, visitor);
-      finishTest(matcher.group(1), TestResult.SKIPPED, visitor);
-      return line.length();
-    }
-    if ((matcher = FAILED.matcher(line)).find(start)) {
-      processOutput(line.substring(start, matcher.start()), outputType, visitor);
-      finishTest(matcher.group(1), TestResult.FAILED, visitor);
-      return line.length();
+    if (start == 0 && TOKENIZER.markerAt(line, 0) == RUN) {
+      String testName = readTestName(line, TOKENIZER.getMarkerLength(RUN));
+      if (testName != null) {
+        startTest(testName, visitor);
+        return line.length();
+      }
     }
-    if ((matcher = PASSED.matcher(line)).find(start)) {
-      processOutput(line.substring(start, matcher.start()), outputType, visitor);
-      finishTest(matcher.group(1), TestResult.PASSED, visitor);
-      return line.length();
+    for (int offset = TOKENIZER.find(line, start); offset >= 0; offset = TOKENIZER.find(line, offset + 1)) {
+      int marker = TOKENIZER.markerAt(line, offset);
+      String testName = marker != RUN ? readTestName(line, offset + TOKENIZER.getMarkerLength(marker)) : null;
+      if (testName != null) {
+        processOutput(line.substring(start, offset), outputType, visitor);
+        finishTest(testName, RESULTS[marker], visitor);
+        return line.length();
+      }
     }
-    if (FINISHED.matcher(line).find(start)) {
+    if (start == 0 && line.startsWith("PASS") || GoTestOutputTokenizer.endsWithBeforeLineSeparator(line, start, "FAIL")) {
       finishDelayedTest(visitor);
       return line.length();
     }
     return start;
   }
+
+  /**
+   * Reads a test name that follows the marker after at least one whitespace
+   */
+  @Nullable
+  private static String readTestName(@NotNull String line, int markerEnd) {
+    int nameStart = GoTestOutputTokenizer.skipWhitespaces(line, markerEnd);
+    int nameEnd = GoTestOutputTokenizer.skipTestName(line, nameStart);
+    return nameStart > markerEnd && nameEnd > nameStart ? line.substring(nameStart, nameEnd) : null;
+  }
 }
@@ -53,6 +53,7 @@ public class GoTestRunConfigurationEditorForm extends SettingsEditor<GoTestRunCo
   private JRadioButton myGotestFrameworkRadioButton;
   private JRadioButton myGocheckFrameworkRadioButton;
   private JRadioButton myGobenchRadioButton;
+  private JCheckBox myParallelPackagesCheckBox;
 
   public GoTestRunConfigurationEditorForm(@NotNull Project project) {
     super(null);
@@ -80,6 +81,7 @@ public class GoTestRunConfigurationEditorForm extends SettingsEditor<GoTestRunCo
     myFileLabel.setVisible(file);
     myPatternEditor.setVisible(!file);
     myPatternLabel.setVisible(!file);
+    myParallelPackagesCheckBox.setVisible(allInDirectory);
   }
 
   @Override
@@ -97,6 +99,7 @@ public class GoTestRunConfigurationEditorForm extends SettingsEditor<GoTestRunCo
     myFileField.setText(filePath.isEmpty() ? configuration.getProject().getBasePath() : filePath);
 
     myPatternEditor.setText(configuration.getPattern());
+    myParallelPackagesCheckBox.setSelected(configuration.isRunPackagesInParallel());
 
     myCommonSettingsPanel.resetEditorFrom(configuration);
   }
@@ -115,6 +118,7 @@ public class GoTestRunConfigurationEditorForm extends SettingsEditor<GoTestRunCo
     configuration.setDirectoryPath(myDirectoryField.getText());
     configuration.setFilePath(myFileField.getText());
     configuration.setPattern(myPatternEditor.getText());
+    configuration.setRunPackagesInParallel(myParallelPackagesCheckBox.isSelected());
 
     myCommonSettingsPanel.applyEditorTo(configuration);
   }
@@ -20,24 +20,31 @@ import com.goide.GoConstants;
 import com.goide.project.GoBuildTargetSettings;
 import com.goide.project.GoModuleSettings;
 import com.goide.psi.GoFile;
+import com.goide.psi.impl.GoPackageModificationTracker;
 import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.stubs.index.GoIdFilter;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiFileSystemItem;
+import com.intellij.psi.search.DelegatingGlobalSearchScope;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.CachedValue;
 import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.ConcurrencyUtil;
 import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.IdFilter;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -45,10 +52,13 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 public class GoPackageUtil {
   private static final Key<CachedValue<Collection<String>>> PACKAGES_CACHE = Key.create("packages_cache");
   private static final Key<CachedValue<Collection<String>>> PACKAGES_TEST_TRIMMED_CACHE = Key.create("packages_test_trimmed_cache");
+  private static final Key<CachedValue<ConcurrentMap<String, PackageScope>>> PACKAGE_SCOPES_CACHE = Key.create("package_scopes_cache");
+  private static final String ALL_PACKAGES = "*";
 
   private GoPackageUtil() {}
 
@@ -84,14 +94,34 @@ public class GoPackageUtil {
 
   @NotNull
   public static GlobalSearchScope packageScope(@NotNull GoFile file) {
-    List<GoFile> files = getAllPackageFiles(file);
-    return GlobalSearchScope.filesWithLibrariesScope(file.getProject(), ContainerUtil.map(files, PsiFile::getVirtualFile));
+    String packageName = file.getPackageName();
+    PsiDirectory parent = file.getParent();
+    if (parent == null || StringUtil.isEmpty(packageName)) {
+      return new PackageScope(file.getProject(), Collections.singletonList(file.getVirtualFile()));
+    }
+    return packageScope(parent, packageName);
   }
-  
+
+  /**
+   * The scope is cached per directory until files are added, removed or renamed or their package clauses change.
+   * Use {@link GoIdFilter#getFilesFilter(GlobalSearchScope)} to get an id filter for it.
+   */
   @NotNull
   public static GlobalSearchScope packageScope(@NotNull PsiDirectory psiDirectory, @Nullable String packageName) {
-    List<GoFile> files = getAllPackageFiles(psiDirectory, packageName);
-    return GlobalSearchScope.filesWithLibrariesScope(psiDirectory.getProject(), ContainerUtil.map(files, PsiFile::getVirtualFile));
+    ConcurrentMap<String, PackageScope> scopes = CachedValuesManager.getManager(psiDirectory.getProject()).getCachedValue(
+      psiDirectory, PACKAGE_SCOPES_CACHE, () -> {
+        ModificationTracker packageNamesTracker = GoPackageModificationTracker.getPackageNamesDependency(psiDirectory);
+        return CachedValueProvider.Result.create(ContainerUtil.newConcurrentMap(), VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                                                 packageNamesTracker);
+      }, false);
+    String key = packageName != null ? packageName : ALL_PACKAGES;
+    PackageScope scope = scopes.get(key);
+    if (scope == null) {
+      List<GoFile> files = getAllPackageFiles(psiDirectory, packageName);
+      scope = ConcurrencyUtil.cacheOrGet(scopes, key, new PackageScope(psiDirectory.getProject(),
+                                                                       ContainerUtil.map(files, PsiFile::getVirtualFile)));
+    }
+    return scope;
   }
 
   @NotNull
@@ -106,10 +136,11 @@ public class GoPackageUtil {
     return CachedValuesManager.getManager(dir.getProject()).getCachedValue(dir, key, () -> {
       Module module = ModuleUtilCore.findModuleForPsiElement(dir);
       GoBuildTargetSettings buildTargetSettings = module != null ? GoModuleSettings.getInstance(module).getBuildTargetSettings() : null;
-      // todo[zolotov]: implement package modification tracker
+      ModificationTracker packageTracker = GoPackageModificationTracker.getPackageDependency(dir);
       return buildTargetSettings != null
-             ? CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, module, trimTestSuffices), dir, buildTargetSettings)
-             : CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, null, trimTestSuffices), dir); 
+             ? CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, module, trimTestSuffices), dir, packageTracker,
+                                                 buildTargetSettings)
+             : CachedValueProvider.Result.create(getAllPackagesInDirectoryInner(dir, null, trimTestSuffices), dir, packageTracker);
     }, false);
   }
 
@@ -143,4 +174,21 @@ public class GoPackageUtil {
     }
     return null;
   }
+
+  /**
+   * Files of a package along with their id filter, so index queries restricted to the package don't have to build it every time
+   */
+  public static class PackageScope extends DelegatingGlobalSearchScope {
+    @NotNull private final IdFilter myIdFilter;
+
+    private PackageScope(@NotNull Project project, @NotNull Collection<VirtualFile> files) {
+      super(GlobalSearchScope.filesWithLibrariesScope(project, files));
+      myIdFilter = GoIdFilter.createFilesFilter(files);
+    }
+
+    @NotNull
+    public IdFilter getIdFilter() {
+      return myIdFilter;
+    }
+  }
 }
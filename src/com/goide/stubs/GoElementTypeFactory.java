@@ -16,11 +16,13 @@
 
 package com.goide.stubs;
 
+import com.goide.psi.GoBlockElementType;
 import com.goide.psi.GoType;
 import com.goide.psi.GoVarSpec;
 import com.goide.psi.impl.*;
 import com.goide.stubs.types.*;
 import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.IElementType;
 import com.intellij.util.ReflectionUtil;
 import com.intellij.util.containers.HashMap;
 import org.jetbrains.annotations.NotNull;
@@ -46,6 +48,10 @@ public class GoElementTypeFactory {
 
   private GoElementTypeFactory() {}
 
+  public static IElementType blockFactory(@NotNull String name) {
+    return new GoBlockElementType(name);
+  }
+
   public static IStubElementType stubFactory(@NotNull String name) {
     if ("CONST_DEFINITION".equals(name)) return new GoConstDefinitionStubElementType(name);
     if ("FIELD_DEFINITION".equals(name)) return new GoFieldDefinitionStubElementType(name);
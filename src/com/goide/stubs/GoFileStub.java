@@ -20,6 +20,7 @@ import com.goide.GoFileElementType;
 import com.goide.psi.GoFile;
 import com.goide.psi.GoPackageClause;
 import com.goide.stubs.types.GoPackageClauseStubElementType;
+import com.goide.util.GoBuildConstraint;
 import com.intellij.psi.stubs.PsiFileStubImpl;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.tree.IStubFileElementType;
@@ -29,6 +30,7 @@ import org.jetbrains.annotations.Nullable;
 
 public class GoFileStub extends PsiFileStubImpl<GoFile> {
   private final StringRef myBuildFlags;
+  private volatile GoBuildConstraint myBuildConstraint;
 
   public GoFileStub(@NotNull GoFile file) {
     this(file, StringRef.fromNullableString(file.getBuildFlags()));
@@ -50,6 +52,15 @@ public class GoFileStub extends PsiFileStubImpl<GoFile> {
     return myBuildFlags.getString();
   }
 
+  @NotNull
+  public GoBuildConstraint getBuildConstraint() {
+    GoBuildConstraint constraint = myBuildConstraint;
+    if (constraint == null) {
+      myBuildConstraint = constraint = GoBuildConstraint.parse(getBuildFlags());
+    }
+    return constraint;
+  }
+
   @Nullable
   public StubElement<GoPackageClause> getPackageClauseStub() {
     return findChildStubByType(GoPackageClauseStubElementType.INSTANCE);
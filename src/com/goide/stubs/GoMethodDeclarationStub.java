@@ -24,19 +24,28 @@ import org.jetbrains.annotations.Nullable;
 
 public class GoMethodDeclarationStub extends GoFunctionOrMethodDeclarationStub<GoMethodDeclaration> {
   private final StringRef myTypeName;
+  private final int myArity;
 
-  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, StringRef typeName) {
+  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, StringRef name, boolean isPublic, StringRef typeName,
+                                 int arity) {
     super(parent, elementType, name, isPublic);
     myTypeName = typeName;
+    myArity = arity;
   }
 
-  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, String typeName) {
+  public GoMethodDeclarationStub(StubElement parent, IStubElementType elementType, String name, boolean isPublic, String typeName,
+                                 int arity) {
     super(parent, elementType, name, isPublic);
     myTypeName = StringRef.fromString(typeName);
+    myArity = arity;
   }
 
   @Nullable
   public String getTypeName() {
     return myTypeName == null ? null : myTypeName.getString();
   }
+
+  public int getArity() {
+    return myArity;
+  }
 }
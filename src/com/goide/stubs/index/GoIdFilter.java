@@ -17,6 +17,7 @@
 package com.goide.stubs.index;
 
 import com.goide.runconfig.testing.GoTestFinder;
+import com.goide.sdk.GoPackageUtil;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
@@ -33,9 +34,11 @@ import com.intellij.psi.util.CachedValueProvider;
 import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.IdFilter;
+import gnu.trove.TIntArrayList;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.BitSet;
 
 public class GoIdFilter extends IdFilter {
@@ -82,21 +85,44 @@ public class GoIdFilter extends IdFilter {
 
   @Nullable
   public static IdFilter getFilesFilter(@NotNull GlobalSearchScope scope) {
+    if (scope instanceof GoPackageUtil.PackageScope) {
+      return ((GoPackageUtil.PackageScope)scope).getIdFilter();
+    }
     if (scope instanceof GlobalSearchScope.FilesScope) {
-      BitSet bitSet = new BitSet();
-      for (VirtualFile file : (GlobalSearchScope.FilesScope)scope) {
-        addToBitSet(bitSet, file);
-      }
-      return new GoIdFilter(bitSet);
+      return createFilesFilter((GlobalSearchScope.FilesScope)scope);
     }
     return null;
   }
 
+  /**
+   * Unlike project-wide filters, the filter stores ids of a few files only, so its size doesn't depend on the number of files in VFS
+   */
+  @NotNull
+  public static IdFilter createFilesFilter(@NotNull Iterable<VirtualFile> files) {
+    TIntArrayList ids = new TIntArrayList();
+    for (VirtualFile file : files) {
+      if (file instanceof VirtualFileWithId) {
+        ids.add(getId((VirtualFileWithId)file));
+      }
+    }
+    int[] sortedIds = ids.toNativeArray();
+    Arrays.sort(sortedIds);
+    return new IdFilter() {
+      @Override
+      public boolean containsFileId(int id) {
+        return id >= 0 && Arrays.binarySearch(sortedIds, id) >= 0;
+      }
+    };
+  }
+
   private static void addToBitSet(@NotNull BitSet set, @NotNull VirtualFile file) {
     if (file instanceof VirtualFileWithId) {
-      int id = ((VirtualFileWithId)file).getId();
-      if (id < 0) id = -id; // workaround for encountering invalid files, see EA-49915, EA-50599
-      set.set(id);
+      set.set(getId((VirtualFileWithId)file));
     }
   }
+
+  private static int getId(@NotNull VirtualFileWithId file) {
+    int id = file.getId();
+    return id < 0 ? -id : id; // workaround for encountering invalid files, see EA-49915, EA-50599
+  }
 }
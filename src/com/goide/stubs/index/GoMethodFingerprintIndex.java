@@ -17,18 +17,21 @@
 package com.goide.stubs.index;
 
 import com.goide.GoFileElementType;
-import com.goide.psi.GoMethodSpec;
+import com.goide.psi.GoNamedSignatureOwner;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StringStubIndexExtension;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.Processor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-
-public class GoMethodFingerprintIndex extends StringStubIndexExtension<GoMethodSpec> {
-  public static final StubIndexKey<String, GoMethodSpec> KEY = StubIndexKey.createIndexKey("go.method.fingerprint");
+/**
+ * Indexes interface method specs and method declarations by name and arity, e.g. {@code Read/1}
+ */
+public class GoMethodFingerprintIndex extends StringStubIndexExtension<GoNamedSignatureOwner> {
+  public static final StubIndexKey<String, GoNamedSignatureOwner> KEY = StubIndexKey.createIndexKey("go.method.fingerprint");
 
   @Override
   public int getVersion() {
@@ -37,11 +40,21 @@ public class GoMethodFingerprintIndex extends StringStubIndexExtension<GoMethodS
 
   @NotNull
   @Override
-  public StubIndexKey<String, GoMethodSpec> getKey() {
+  public StubIndexKey<String, GoNamedSignatureOwner> getKey() {
     return KEY;
   }
 
-  public static Collection<GoMethodSpec> find(@NotNull String name, @NotNull Project project, GlobalSearchScope scope) {
-    return StubIndex.getElements(KEY, name, project, scope, GoMethodSpec.class);
+  @NotNull
+  public static String fingerprint(@NotNull String name, int arity) {
+    return name + "/" + arity;
+  }
+
+  public static <T extends GoNamedSignatureOwner> boolean process(@NotNull String fingerprint,
+                                                                  @NotNull Project project,
+                                                                  @Nullable GlobalSearchScope scope,
+                                                                  @NotNull Class<T> requiredClass,
+                                                                  @NotNull Processor<? super T> processor) {
+    return StubIndex.getInstance().processElements(KEY, fingerprint, project, scope, GoNamedSignatureOwner.class, element ->
+      !requiredClass.isInstance(element) || processor.process(requiredClass.cast(element)));
   }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoConstants;
+import com.goide.GoFileElementType;
+import com.goide.GoFileType;
+import com.goide.psi.GoFile;
+import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.util.GoBuildMatcher;
+import com.goide.util.GoTargetSystem;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps package names to Go files along with the data needed to decide whether the file's directory can be imported:
+ * build constraints, usage of cgo and presence of the main function.
+ * <p>
+ * Import paths themselves depend on project roots and vendoring settings, so they are computed once per found directory
+ * instead of being stored in the index.
+ */
+public class GoPackageFilesIndex extends FileBasedIndexExtension<String, GoPackageFilesIndex.FileInfo> {
+  public static final ID<String, FileInfo> KEY = ID.create("go.package.files");
+
+  @NotNull
+  @Override
+  public ID<String, FileInfo> getName() {
+    return KEY;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, FileInfo, FileContent> getIndexer() {
+    return inputData -> {
+      PsiFile psiFile = inputData.getPsiFile();
+      if (!(psiFile instanceof GoFile)) return Collections.emptyMap();
+      GoFile file = (GoFile)psiFile;
+      String packageName = file.getPackageName();
+      if (StringUtil.isEmpty(packageName)) return Collections.emptyMap();
+      return Collections.singletonMap(packageName, new FileInfo(file.getBuildFlags(), file.hasCPathImport(), file.hasMainFunction()));
+    };
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public DataExternalizer<FileInfo> getValueExternalizer() {
+    return FileInfo.EXTERNALIZER;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GoFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  @Override
+  public int getVersion() {
+    return GoFileElementType.VERSION;
+  }
+
+  /**
+   * Processes directories with production files of the given package that match build target of the module.
+   * Every directory is processed once.
+   *
+   * @param packageName package to look for, all packages from the scope are looked for if null
+   */
+  public static boolean processImportableDirectories(@NotNull GlobalSearchScope scope,
+                                                     @Nullable String packageName,
+                                                     @Nullable Module module,
+                                                     boolean allowMain,
+                                                     @NotNull Processor<VirtualFile> processor) {
+    FileBasedIndex index = FileBasedIndex.getInstance();
+    Collection<String> packageNames;
+    if (packageName != null) {
+      packageNames = Collections.singletonList(packageName);
+    }
+    else {
+      CommonProcessors.CollectProcessor<String> collector = new CommonProcessors.CollectProcessor<>();
+      index.processAllKeys(KEY, collector, scope, null);
+      packageNames = collector.getResults();
+    }
+
+    GoBuildMatcher matcher = module != null ? GoTargetSystem.forModule(module).getBuildMatcher() : null;
+    Set<VirtualFile> directories = ContainerUtil.newLinkedHashSet();
+    for (String name : packageNames) {
+      if (!allowMain && GoConstants.MAIN.equals(name) || GoConstants.DOCUMENTATION.equals(name)) continue;
+      index.processValues(KEY, name, null, (file, info) -> {
+        ProgressManager.checkCanceled();
+        VirtualFile directory = file.getParent();
+        if (directory == null || directories.contains(directory)) return true;
+        if (!GoPsiImplUtil.allowed(file, null)) return true;
+        if (matcher != null && !matcher.matchFile(file.getName(), info.getBuildFlags(), info.usesCgo())) return true;
+        directories.add(directory);
+        return true;
+      }, scope);
+    }
+    return ContainerUtil.process(directories, processor);
+  }
+
+  /**
+   * Looks the main function of the file up in the index, the file is traversed only if it isn't indexed yet.
+   */
+  public static boolean hasMainFunction(@NotNull GoFile file) {
+    String packageName = file.getPackageName();
+    VirtualFile virtualFile = file.getVirtualFile();
+    Project project = file.getProject();
+    if (packageName != null && virtualFile != null && !DumbService.isDumb(project)) {
+      GlobalSearchScope scope = GlobalSearchScope.fileScope(project, virtualFile);
+      List<FileInfo> values = FileBasedIndex.getInstance().getValues(KEY, packageName, scope);
+      if (!values.isEmpty()) return values.get(0).hasMainFunction();
+    }
+    return file.hasMainFunction();
+  }
+
+  public static class FileInfo {
+    private static final DataExternalizer<FileInfo> EXTERNALIZER = new DataExternalizer<FileInfo>() {
+      @Override
+      public void save(@NotNull DataOutput out, FileInfo value) throws IOException {
+        IOUtil.writeUTF(out, StringUtil.notNullize(value.myBuildFlags));
+        out.writeByte((value.myUsesCgo ? 1 : 0) | (value.myHasMainFunction ? 2 : 0));
+      }
+
+      @Override
+      public FileInfo read(@NotNull DataInput in) throws IOException {
+        String buildFlags = StringUtil.nullize(IOUtil.readUTF(in));
+        byte flags = in.readByte();
+        return new FileInfo(buildFlags, (flags & 1) != 0, (flags & 2) != 0);
+      }
+    };
+
+    @Nullable private final String myBuildFlags;
+    private final boolean myUsesCgo;
+    private final boolean myHasMainFunction;
+
+    public FileInfo(@Nullable String buildFlags, boolean usesCgo, boolean hasMainFunction) {
+      myBuildFlags = buildFlags;
+      myUsesCgo = usesCgo;
+      myHasMainFunction = hasMainFunction;
+    }
+
+    @Nullable
+    public String getBuildFlags() {
+      return myBuildFlags;
+    }
+
+    public boolean usesCgo() {
+      return myUsesCgo;
+    }
+
+    public boolean hasMainFunction() {
+      return myHasMainFunction;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof FileInfo)) return false;
+      FileInfo info = (FileInfo)o;
+      return myUsesCgo == info.myUsesCgo && myHasMainFunction == info.myHasMainFunction
+             && StringUtil.equals(myBuildFlags, info.myBuildFlags);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = myBuildFlags != null ? myBuildFlags.hashCode() : 0;
+      result = 31 * result + (myUsesCgo ? 1 : 0);
+      result = 31 * result + (myHasMainFunction ? 1 : 0);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoFileElementType;
+import com.goide.GoFileType;
+import com.goide.GoParserDefinition;
+import com.goide.GoTypes;
+import com.goide.lexer.GoLexer;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoImportSpec;
+import com.goide.psi.impl.GoPsiImplUtil;
+import com.goide.psi.impl.imports.GoImportReferenceSet;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.containers.MultiMap;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps selector names of qualified references like {@code pkg.Name} to import paths of packages the qualifier may denote.
+ * Imports dotted into the file are stored under {@link #DOT_IMPORTS} since their symbols are used without a qualifier.
+ * <p>
+ * Only the file itself is looked at, so a plain import is matched by its local package name, i.e. the last element of the path.
+ * Qualifiers that match no import are attributed to every plain import whose local name isn't used as a qualifier,
+ * because the package name of such an import may differ from its path. So the index errs on the side of more files,
+ * the references themselves are still resolved by the search.
+ */
+public class GoQualifiedReferenceIndex extends FileBasedIndexExtension<String, Set<String>> {
+  public static final ID<String, Set<String>> KEY = ID.create("go.qualified.references");
+  public static final String DOT_IMPORTS = ".";
+
+  private static final DataExternalizer<Set<String>> EXTERNALIZER = new DataExternalizer<Set<String>>() {
+    @Override
+    public void save(@NotNull DataOutput out, Set<String> value) throws IOException {
+      DataInputOutputUtil.writeINT(out, value.size());
+      for (String path : value) {
+        IOUtil.writeUTF(out, path);
+      }
+    }
+
+    @Override
+    public Set<String> read(@NotNull DataInput in) throws IOException {
+      int size = DataInputOutputUtil.readINT(in);
+      Set<String> result = ContainerUtil.newHashSet(size);
+      for (int i = 0; i < size; i++) {
+        result.add(IOUtil.readUTF(in));
+      }
+      return result;
+    }
+  };
+
+  @NotNull
+  @Override
+  public ID<String, Set<String>> getName() {
+    return KEY;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, Set<String>, FileContent> getIndexer() {
+    return inputData -> {
+      PsiFile psiFile = inputData.getPsiFile();
+      return psiFile instanceof GoFile ? index((GoFile)psiFile, inputData.getContentAsText()) : Collections.emptyMap();
+    };
+  }
+
+  @NotNull
+  private static Map<String, Set<String>> index(@NotNull GoFile file, @NotNull CharSequence text) {
+    MultiMap<String, String> qualifiers = MultiMap.createSet();
+    Set<String> dotImports = ContainerUtil.newHashSet();
+    for (GoImportSpec spec : file.getImports()) {
+      String path = spec.getPath();
+      if (StringUtil.isEmpty(path) || spec.isForSideEffects() || GoPsiImplUtil.isCImport(spec)) continue;
+      if (spec.isDot()) {
+        dotImports.add(path);
+        continue;
+      }
+      String alias = spec.getAlias();
+      qualifiers.putValue(alias != null ? alias : GoPsiImplUtil.getLocalPackageName(path), path);
+    }
+    if (qualifiers.isEmpty() && dotImports.isEmpty()) return Collections.emptyMap();
+
+    Map<String, Set<String>> result = ContainerUtil.newHashMap();
+    if (!dotImports.isEmpty()) {
+      result.put(DOT_IMPORTS, dotImports);
+    }
+    MultiMap<String, String> unknownQualifierNames = MultiMap.createSet();
+    Set<String> usedQualifiers = ContainerUtil.newHashSet();
+    Lexer lexer = new GoLexer();
+    lexer.start(text);
+    IElementType previous = null;
+    String qualifier = null;
+    boolean afterQualifier = false;
+    IElementType type;
+    while ((type = lexer.getTokenType()) != null) {
+      if (GoParserDefinition.WHITESPACES.contains(type) || GoParserDefinition.COMMENTS.contains(type)) {
+        lexer.advance();
+        continue;
+      }
+      if (type == GoTypes.IDENTIFIER) {
+        String identifier = text.subSequence(lexer.getTokenStart(), lexer.getTokenEnd()).toString();
+        if (afterQualifier) {
+          Collection<String> paths = qualifiers.get(qualifier);
+          if (!paths.isEmpty()) {
+            usedQualifiers.add(qualifier);
+            for (String path : paths) {
+              getOrCreate(result, identifier).add(path);
+            }
+          }
+          else {
+            unknownQualifierNames.putValue(qualifier, identifier);
+          }
+          qualifier = null;
+        }
+        else {
+          // the first identifier of a chain only, a.b.c is a selector of a field or a method after a.b
+          qualifier = previous != GoTypes.DOT ? identifier : null;
+        }
+        afterQualifier = false;
+      }
+      else {
+        afterQualifier = type == GoTypes.DOT && qualifier != null;
+        if (!afterQualifier) qualifier = null;
+      }
+      previous = type;
+      lexer.advance();
+    }
+
+    List<String> unusedPaths = ContainerUtil.newArrayList();
+    for (Map.Entry<String, Collection<String>> entry : qualifiers.entrySet()) {
+      if (!usedQualifiers.contains(entry.getKey())) unusedPaths.addAll(entry.getValue());
+    }
+    if (!unusedPaths.isEmpty()) {
+      for (String name : unknownQualifierNames.values()) {
+        getOrCreate(result, name).addAll(unusedPaths);
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  private static Set<String> getOrCreate(@NotNull Map<String, Set<String>> map, @NotNull String key) {
+    Set<String> set = map.get(key);
+    if (set == null) {
+      map.put(key, set = ContainerUtil.newHashSet());
+    }
+    return set;
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public DataExternalizer<Set<String>> getValueExternalizer() {
+    return EXTERNALIZER;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(GoFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  @Override
+  public int getVersion() {
+    return GoFileElementType.VERSION;
+  }
+
+  /**
+   * Collects files that may reference the name via a qualifier denoting one of the import paths, or have one of the paths
+   * dotted into them. Files with relative imports are collected too, since the imported directory isn't known to the index.
+   */
+  @NotNull
+  public static Set<VirtualFile> getFilesReferencing(@NotNull String name,
+                                                     @NotNull Collection<String> importPaths,
+                                                     @NotNull GlobalSearchScope scope) {
+    Set<VirtualFile> result = ContainerUtil.newHashSet();
+    FileBasedIndex index = FileBasedIndex.getInstance();
+    for (String key : new String[]{name, DOT_IMPORTS}) {
+      index.processValues(KEY, key, null, (file, paths) -> {
+        ProgressManager.checkCanceled();
+        if (!result.contains(file) && matches(paths, importPaths)) {
+          result.add(file);
+        }
+        return true;
+      }, scope);
+    }
+    return result;
+  }
+
+  private static boolean matches(@NotNull Set<String> paths, @NotNull Collection<String> importPaths) {
+    for (String path : paths) {
+      if (importPaths.contains(path) || GoImportReferenceSet.isRelativeImport(path)) return true;
+    }
+    return false;
+  }
+}
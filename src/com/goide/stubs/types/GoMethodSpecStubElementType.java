@@ -40,7 +40,7 @@ public class GoMethodSpecStubElementType extends GoNamedStubElementType<GoMethod
     String name = stub.getName();
     int arity = stub.getArity();
     if (name != null && arity >= 0) {
-      sink.occurrence(GoMethodFingerprintIndex.KEY, name + "/" + arity);
+      sink.occurrence(GoMethodFingerprintIndex.KEY, GoMethodFingerprintIndex.fingerprint(name, arity));
     }
   }
 
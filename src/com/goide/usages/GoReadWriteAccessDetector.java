@@ -17,6 +17,7 @@
 package com.goide.usages;
 
 import com.goide.psi.*;
+import com.goide.psi.impl.GoLocalDefUse;
 import com.intellij.codeInsight.highlighting.ReadWriteAccessDetector;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiReference;
@@ -42,7 +43,14 @@ public class GoReadWriteAccessDetector extends ReadWriteAccessDetector {
   @NotNull
   @Override
   public Access getReferenceAccess(@Nullable PsiElement referencedElement, @NotNull PsiReference reference) {
-    return getExpressionAccess(reference.getElement());
+    PsiElement element = reference.getElement();
+    if (referencedElement instanceof GoNamedElement && element instanceof GoReferenceExpression) {
+      // all usages of a local are highlighted at once, so their access is taken from the def-use computed for the whole function
+      GoLocalDefUse defUse = GoLocalDefUse.forDefinition((GoNamedElement)referencedElement);
+      Access access = defUse != null ? defUse.getAccess((GoReferenceExpression)element) : null;
+      if (access != null) return access;
+    }
+    return getExpressionAccess(element);
   }
 
   @NotNull
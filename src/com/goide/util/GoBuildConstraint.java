@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.util;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed form of the {@code +build} lines of a file.
+ * <p>
+ * Every line has to be satisfied, a line is satisfied by any of its space-separated options and an option is satisfied
+ * by all of its comma-separated terms. Build flags are parsed once per file, evaluation against a target is cached
+ * by {@link GoBuildMatcher}.
+ *
+ * @see "$GOROOT/src/go/build/build.go#shouldBuild"
+ */
+public class GoBuildConstraint {
+  public static final GoBuildConstraint EMPTY = new GoBuildConstraint("", new Term[0][][]);
+
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+  @NotNull private final String myText;
+  @NotNull private final Term[][][] myLines;
+
+  private GoBuildConstraint(@NotNull String text, @NotNull Term[][][] lines) {
+    myText = text;
+    myLines = lines;
+  }
+
+  /**
+   * @param buildFlags +build lines joined with '|', as returned by {@link com.goide.psi.GoFile#getBuildFlags()}
+   */
+  @NotNull
+  public static GoBuildConstraint parse(@Nullable String buildFlags) {
+    if (StringUtil.isEmpty(buildFlags)) return EMPTY;
+    List<String> lines = StringUtil.split(buildFlags, "|");
+    Term[][][] result = new Term[lines.size()][][];
+    for (int i = 0; i < result.length; i++) {
+      String[] options = WHITESPACES.split(lines.get(i));
+      result[i] = new Term[options.length][];
+      for (int j = 0; j < options.length; j++) {
+        result[i][j] = parseOption(options[j]);
+      }
+    }
+    return new GoBuildConstraint(buildFlags, result);
+  }
+
+  @NotNull
+  private static Term[] parseOption(@NotNull String option) {
+    if (!StringUtil.containsChar(option, ',')) return new Term[]{Term.parse(option)};
+    return ContainerUtil.map2Array(StringUtil.split(option, ","), Term.class, Term::parse);
+  }
+
+  @NotNull
+  public String getText() {
+    return myText;
+  }
+
+  public boolean isEmpty() {
+    return myLines.length == 0;
+  }
+
+  boolean matches(@NotNull GoBuildMatcher matcher) {
+    for (Term[][] line : myLines) {
+      if (!matchesLine(line, matcher)) return false;
+    }
+    return true;
+  }
+
+  private static boolean matchesLine(@NotNull Term[][] options, @NotNull GoBuildMatcher matcher) {
+    for (Term[] option : options) {
+      if (matchesOption(option, matcher)) return true;
+    }
+    return false;
+  }
+
+  private static boolean matchesOption(@NotNull Term[] terms, @NotNull GoBuildMatcher matcher) {
+    for (Term term : terms) {
+      if (!term.matches(matcher)) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || o instanceof GoBuildConstraint && myText.equals(((GoBuildConstraint)o).myText);
+  }
+
+  @Override
+  public int hashCode() {
+    return myText.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return myText;
+  }
+
+  private static class Term {
+    private static final Term INVALID = new Term("", false);
+
+    @NotNull private final String myTag;
+    private final boolean myNegated;
+
+    private Term(@NotNull String tag, boolean negated) {
+      myTag = tag;
+      myNegated = negated;
+    }
+
+    @NotNull
+    private static Term parse(@NotNull String term) {
+      // bad syntax, reject always
+      if (term.startsWith("!!")) return INVALID;
+      return term.startsWith("!") ? new Term(term.substring(1), true) : new Term(term, false);
+    }
+
+    private boolean matches(@NotNull GoBuildMatcher matcher) {
+      return matcher.matchTag(myTag) != myNegated;
+    }
+  }
+}
@@ -22,20 +22,26 @@ import com.goide.sdk.GoSdkUtil;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiFile;
+import com.intellij.util.ConcurrencyUtil;
 import com.intellij.util.ThreeState;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Evaluates file names and build constraints against a target.
+ * Results are cached, so a matcher should be obtained with {@link GoTargetSystem#getBuildMatcher()} where possible:
+ * the target is recreated on every change of build target settings and drops the caches along with it.
+ *
  * @see "$GOROOT/src/go/build/build.go" and relevant functions
  */
 public class GoBuildMatcher {
-  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
-
   @NotNull private final GoTargetSystem myTarget;
+  private final ConcurrentMap<String, Boolean> myFileNames = ContainerUtil.newConcurrentMap();
+  private final ConcurrentMap<GoBuildConstraint, Boolean> myConstraints = ContainerUtil.newConcurrentMap();
 
   public GoBuildMatcher(@NotNull GoTargetSystem target) {
     myTarget = target;
@@ -55,24 +61,24 @@ public class GoBuildMatcher {
     }
     if (((GoFile)file).hasCPathImport() && myTarget.cgoEnabled != ThreeState.YES) return false;
 
-    return match(file.getName(), ((GoFile)file).getBuildFlags(), checkBuildFlags);
+    return matchFileName(file.getName()) && (!checkBuildFlags || matchConstraint(((GoFile)file).getBuildConstraint()));
   }
 
-  private boolean match(@NotNull String fileName, @Nullable String buildFlags, boolean checkBuildFlags) {
-    if (!matchFileName(fileName)) return false;
-
-    if (!checkBuildFlags || buildFlags == null) return true;
-    for (String line : StringUtil.split(buildFlags, "|")) {
-      if (!matchBuildFlagsLine(line)) return false;
-    }
-    return true;
+  /**
+   * Matches a file by already collected data, e.g. from indices
+   */
+  public boolean matchFile(@NotNull String fileName, @Nullable String buildFlags, boolean hasCPathImport) {
+    if (hasCPathImport && myTarget.cgoEnabled != ThreeState.YES) return false;
+    return matchFileName(fileName) && matchConstraint(GoBuildConstraint.parse(buildFlags));
   }
 
-  private boolean matchBuildFlagsLine(@NotNull String line) {
-    for (String tag : WHITESPACES.split(line)) {
-      if (matchBuildFlag(tag)) return true;
+  public boolean matchConstraint(@NotNull GoBuildConstraint constraint) {
+    if (constraint.isEmpty()) return true;
+    Boolean result = myConstraints.get(constraint);
+    if (result == null) {
+      result = ConcurrencyUtil.cacheOrGet(myConstraints, constraint, constraint.matches(this));
     }
-    return false;
+    return result;
   }
 
   public boolean matchBuildFlag(@NotNull String name) {
@@ -93,6 +99,14 @@ public class GoBuildMatcher {
     // negation
     if (name.startsWith("!")) return !matchBuildFlag(name.substring(1));
 
+    return matchTag(name);
+  }
+
+  /**
+   * Matches a single tag, without negation and comma-separated lists
+   */
+  boolean matchTag(@NotNull String name) {
+    if (name.isEmpty()) return false;
     if (matchOS(name)) return true;
     if (GoConstants.KNOWN_COMPILERS.contains(name)) {
       return myTarget.compiler == null || name.equals(myTarget.compiler);
@@ -111,7 +125,14 @@ public class GoBuildMatcher {
     if (StringUtil.isEmpty(name)) {
       return true;
     }
+    Boolean result = myFileNames.get(name);
+    if (result == null) {
+      result = ConcurrencyUtil.cacheOrGet(myFileNames, name, matchFileNameSuffix(name));
+    }
+    return result;
+  }
 
+  private boolean matchFileNameSuffix(@NotNull String name) {
     name = StringUtil.trimEnd(FileUtil.getNameWithoutExtension(name), GoConstants.TEST_SUFFIX);
 
     List<String> parts = StringUtil.split(name, "_");
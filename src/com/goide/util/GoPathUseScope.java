@@ -16,23 +16,27 @@
 
 package com.goide.util;
 
-import com.goide.psi.GoFile;
-import com.goide.psi.GoImportSpec;
-import com.goide.psi.GoNamedElement;
+import com.goide.GoFileType;
+import com.goide.psi.*;
 import com.goide.psi.impl.GoPsiImplUtil;
 import com.goide.psi.impl.imports.GoImportReferenceSet;
 import com.goide.sdk.GoPackageUtil;
 import com.goide.sdk.GoSdkService;
+import com.goide.stubs.index.GoQualifiedReferenceIndex;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWithId;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.util.ObjectUtils;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.Set;
@@ -55,16 +59,49 @@ public class GoPathUseScope extends GlobalSearchScope {
       return GlobalSearchScope.fileScope(declarationPsiFile);
     }
 
-    return new GoPathUseScope(declarationPsiFile.getProject(), declarationFile, filterByImportList);
+    Set<VirtualFile> referencingFiles = filterByImportList && isPackageLevelDeclaration(declarationContext)
+                                        ? findReferencingFiles((GoNamedElement)declarationContext, (GoFile)declarationPsiFile)
+                                        : null;
+    return new GoPathUseScope(declarationPsiFile.getProject(), declarationFile, filterByImportList, referencingFiles);
+  }
+
+  /**
+   * Symbols declared at the package level can be referenced from other packages only as {@code pkg.Name}
+   * or via dot imports, so the files to look at are known from {@link GoQualifiedReferenceIndex}
+   */
+  private static boolean isPackageLevelDeclaration(@NotNull PsiElement element) {
+    if (element instanceof GoFunctionDeclaration) return true;
+    PsiElement declaration = element instanceof GoTypeSpec
+                             ? element.getParent()
+                             : element instanceof GoVarDefinition || element instanceof GoConstDefinition
+                               ? element.getParent().getParent()
+                               : null;
+    return declaration instanceof GoTopLevelDeclaration && declaration.getParent() instanceof GoFile;
+  }
+
+  @Nullable
+  private static Set<VirtualFile> findReferencingFiles(@NotNull GoNamedElement declaration, @NotNull GoFile declarationFile) {
+    String name = declaration.getName();
+    if (StringUtil.isEmpty(name)) return null;
+    Set<String> importPaths = ContainerUtil.newHashSet();
+    ContainerUtil.addIfNotNull(importPaths, declarationFile.getImportPath(false));
+    ContainerUtil.addIfNotNull(importPaths, declarationFile.getImportPath(true));
+    if (importPaths.isEmpty()) return null;
+    return GoQualifiedReferenceIndex.getFilesReferencing(name, importPaths, GlobalSearchScope.allScope(declaration.getProject()));
   }
 
   @NotNull private final VirtualFile myDeclarationFile;
   private final boolean myFilterByImportList;
+  @Nullable private final Set<VirtualFile> myReferencingFiles;
 
-  private GoPathUseScope(@NotNull Project project, @NotNull VirtualFile declarationFile, boolean filterByImportList) {
+  private GoPathUseScope(@NotNull Project project,
+                         @NotNull VirtualFile declarationFile,
+                         boolean filterByImportList,
+                         @Nullable Set<VirtualFile> referencingFiles) {
     super(project);
     myDeclarationFile = declarationFile;
     myFilterByImportList = filterByImportList;
+    myReferencingFiles = referencingFiles;
   }
 
   @Override
@@ -77,6 +114,10 @@ public class GoPathUseScope extends GlobalSearchScope {
     if (referenceDirectory.equals(declarationDirectory)) {
       return true;
     }
+    if (myReferencingFiles != null && referenceFile instanceof VirtualFileWithId
+        && referenceFile.getFileType() == GoFileType.INSTANCE && !myReferencingFiles.contains(referenceFile)) {
+      return false;
+    }
 
     Project project = ObjectUtils.assertNotNull(getProject());
     PsiManager psiManager = PsiManager.getInstance(project);
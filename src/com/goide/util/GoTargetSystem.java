@@ -42,6 +42,7 @@ public class GoTargetSystem {
 
   @NotNull public final ThreeState cgoEnabled;
   private final Set<String> customFlags = ContainerUtil.newHashSet();
+  private volatile GoBuildMatcher myBuildMatcher;
 
   public GoTargetSystem(@NotNull String os, @NotNull String arch, @Nullable String goVersion, @Nullable String compiler,
                         @NotNull ThreeState cgoEnabled, @NotNull String... customFlags) {
@@ -57,6 +58,18 @@ public class GoTargetSystem {
     return customFlags.contains(flag);
   }
 
+  /**
+   * @return matcher that caches its results for this target
+   */
+  @NotNull
+  public GoBuildMatcher getBuildMatcher() {
+    GoBuildMatcher matcher = myBuildMatcher;
+    if (matcher == null) {
+      myBuildMatcher = matcher = new GoBuildMatcher(this);
+    }
+    return matcher;
+  }
+
   @NotNull
   public static GoTargetSystem forModule(@NotNull Module module) {
     return CachedValuesManager.getManager(module.getProject()).getCachedValue(module, () -> {
@@ -49,7 +49,7 @@ public class GoUtil {
   private GoUtil() {}
 
   public static boolean matchedForModuleBuildTarget(@NotNull PsiFile file, @Nullable Module module) {
-    return module == null || new GoBuildMatcher(GoTargetSystem.forModule(module)).matchFile(file);
+    return module == null || GoTargetSystem.forModule(module).getBuildMatcher().matchFile(file);
   }
 
   public static boolean isExcludedFile(@NotNull GoFile file) {
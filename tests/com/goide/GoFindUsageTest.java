@@ -238,8 +238,40 @@ public class GoFindUsageTest extends GoCodeInsightFixtureTestCase {
     assertSize(1, myFixture.findUsages(myFixture.getElementAtCaret()));
   }
 
+  public void testDoNotLoadImportingFileWithoutQualifiedReference() {
+    myFixture.addFileToProject("bar/bar.go", "package bar; import `foo`; func _() { println(foo.OTHER_NAME) }");
+    PsiFile declarationFile = myFixture.addFileToProject("foo/foo.go", "package foo; const CON<caret>ST_NAME = 1; const OTHER_NAME = CONST_NAME");
+    myFixture.configureFromExistingVirtualFile(declarationFile.getVirtualFile());
+    failOnFileLoading();
+    Collection<UsageInfo> usages = myFixture.findUsages(myFixture.getElementAtCaret());
+    assertSize(1, usages);
+    //noinspection ConstantConditions
+    assertEquals("foo.go", usages.iterator().next().getFile().getName());
+  }
+
+  public void testQualifiedReferenceWithAlias() {
+    myFixture.addFileToProject("bar/bar.go", "package bar; import f `foo`; func _() { println(f.CONST_NAME) }");
+    PsiFile declarationFile = myFixture.addFileToProject("foo/foo.go", "package foo; const CON<caret>ST_NAME = 1;");
+    myFixture.configureFromExistingVirtualFile(declarationFile.getVirtualFile());
+    assertSize(1, myFixture.findUsages(myFixture.getElementAtCaret()));
+  }
+
+  public void testQualifiedReferenceToPackageWithDifferentName() {
+    myFixture.addFileToProject("bar/bar.go", "package bar; import `foo.v2`; func _() { println(foo.CONST_NAME) }");
+    PsiFile declarationFile = myFixture.addFileToProject("foo.v2/foo.go", "package foo; const CON<caret>ST_NAME = 1;");
+    myFixture.configureFromExistingVirtualFile(declarationFile.getVirtualFile());
+    assertSize(1, myFixture.findUsages(myFixture.getElementAtCaret()));
+  }
+
+  public void testReferenceViaDotImport() {
+    myFixture.addFileToProject("bar/bar.go", "package bar; import . `foo`; func _() { println(CONST_NAME) }");
+    PsiFile declarationFile = myFixture.addFileToProject("foo/foo.go", "package foo; const CON<caret>ST_NAME = 1;");
+    myFixture.configureFromExistingVirtualFile(declarationFile.getVirtualFile());
+    assertSize(1, myFixture.findUsages(myFixture.getElementAtCaret()));
+  }
+
   public void testLoadImportedDirectory() throws Throwable {
-    myFixture.addFileToProject("bar/bar.go", "package bar; import `foo`; func _() { println(CONST_NAME) }");
+    myFixture.addFileToProject("bar/bar.go", "package bar; import `foo`; func _() { println(foo.CONST_NAME) }");
     PsiFile declarationFile = myFixture.addFileToProject("foo/foo.go", "package foo; const CON<caret>ST_NAME = 1;");
     myFixture.configureFromExistingVirtualFile(declarationFile.getVirtualFile());
     failOnFileLoading();
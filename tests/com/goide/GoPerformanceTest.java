@@ -19,6 +19,7 @@ package com.goide;
 import com.goide.categories.Performance;
 import com.goide.completion.GoCompletionUtil;
 import com.goide.inspections.GoUnusedImportInspection;
+import com.goide.inspections.batch.GoBatchInspectionRunner;
 import com.goide.inspections.unresolved.*;
 import com.goide.project.GoBuildTargetSettings;
 import com.goide.project.GoModuleSettings;
@@ -26,9 +27,13 @@ import com.intellij.analysis.AnalysisScope;
 import com.intellij.codeInsight.completion.CompletionType;
 import com.intellij.codeInspection.InspectionManager;
 import com.intellij.codeInspection.InspectionProfileEntry;
+import com.intellij.codeInspection.LocalInspectionTool;
 import com.intellij.codeInspection.ex.InspectionManagerEx;
 import com.intellij.codeInspection.ex.InspectionToolRegistrar;
 import com.intellij.codeInspection.ex.InspectionToolWrapper;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VfsUtilCore;
@@ -38,16 +43,22 @@ import com.intellij.testFramework.InspectionTestUtil;
 import com.intellij.testFramework.PlatformTestUtil;
 import com.intellij.testFramework.fixtures.impl.CodeInsightTestFixtureImpl;
 import com.intellij.testFramework.fixtures.impl.GlobalInspectionContextForTests;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.experimental.categories.Category;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Category(Performance.class)
 public class GoPerformanceTest extends GoCodeInsightFixtureTestCase {
+  private static final Logger LOG = Logger.getInstance(GoPerformanceTest.class);
+
   @Override
   public void setUp() throws Exception {
     super.setUp();
@@ -70,6 +81,13 @@ public class GoPerformanceTest extends GoCodeInsightFixtureTestCase {
     doInspectionTest(new GoUnresolvedReferenceInspection(), TimeUnit.MINUTES.toMillis(4));
   }
 
+  // runs the unresolved reference inspection as well, so it's disabled along with _testUnresolvedReference
+  public void _testBatchInspections() {
+    doBatchInspectionTest(TimeUnit.MINUTES.toMillis(4), new GoUnresolvedReferenceInspection(), new GoUnusedVariableInspection(),
+                          new GoUnusedGlobalVariableInspection(), new GoUnusedFunctionInspection(),
+                          new GoUnusedExportedFunctionInspection(), new GoUnusedImportInspection());
+  }
+
   public void testUnusedFunction() {
     doInspectionTest(new GoUnusedFunctionInspection(), TimeUnit.SECONDS.toMillis(15));
   }
@@ -123,7 +141,8 @@ public class GoPerformanceTest extends GoCodeInsightFixtureTestCase {
   }
 
   private void doInspectionTest(@NotNull InspectionProfileEntry tool, long expected) {
-    VirtualFile sourceDir = installTestData("docker");
+    boolean synthetic = !new File(myFixture.getTestDataPath(), "docker").exists();
+    VirtualFile sourceDir = synthetic ? installWorkspace() : installTestData("docker");
     if (sourceDir == null) return;
     //noinspection ConstantConditions
     AnalysisScope scope = new AnalysisScope(getPsiManager().findDirectory(sourceDir));
@@ -136,7 +155,45 @@ public class GoPerformanceTest extends GoCodeInsightFixtureTestCase {
       CodeInsightTestFixtureImpl.createGlobalContextForTool(scope, getProject(), inspectionManager, wrapper);
 
     PlatformTestUtil.startPerformanceTest(getTestName(true), (int)expected, () -> InspectionTestUtil.runTool(wrapper, scope, globalContext)).cpuBound().usesAllCPUCores().assertTiming();
-    InspectionTestUtil.compareToolResults(globalContext, wrapper, false, new File(getTestDataPath(), wrapper.getShortName()).getPath());
+    if (!synthetic) {
+      InspectionTestUtil.compareToolResults(globalContext, wrapper, false, new File(getTestDataPath(), wrapper.getShortName()).getPath());
+    }
+  }
+
+  private void doBatchInspectionTest(long expected, @NotNull LocalInspectionTool... tools) {
+    boolean synthetic = !new File(myFixture.getTestDataPath(), "docker").exists();
+    VirtualFile sourceDir = synthetic ? installWorkspace() : installTestData("docker");
+    if (sourceDir == null) return;
+    List<VirtualFile> files = ContainerUtil.newArrayList();
+    VfsUtilCore.iterateChildrenRecursively(sourceDir, null, file -> {
+      if (!file.isDirectory()) files.add(file);
+      return true;
+    });
+
+    GoBatchInspectionRunner runner = new GoBatchInspectionRunner(getProject(), Arrays.asList(tools));
+    Ref<List<GoBatchInspectionRunner.PackageReport>> reports = Ref.create();
+    PlatformTestUtil.startPerformanceTest(getTestName(true), (int)expected,
+                                          () -> reports.set(runner.run(files, new EmptyProgressIndicator()))).cpuBound().usesAllCPUCores().assertTiming();
+    LOG.info(GoBatchInspectionRunner.formatSlowestPackages(reports.get(), 10));
+  }
+
+  /**
+   * Generates a workspace in place of testData/performance/docker.
+   * Its size is set with -Dgo.performance.packages and -Dgo.performance.filesPerPackage.
+   */
+  @Nullable
+  private VirtualFile installWorkspace() {
+    GoWorkspaceGenerator generator = new GoWorkspaceGenerator()
+      .packages(Integer.getInteger("go.performance.packages", 100))
+      .filesPerPackage(Integer.getInteger("go.performance.filesPerPackage", 10))
+      .vendorDepth(2)
+      .buildTaggedFilesPerPackage(1)
+      .testFilesPerPackage(1)
+      .dotImportEvery(10);
+    for (Map.Entry<String, String> entry : generator.generate().entrySet()) {
+      myFixture.addFileToProject(entry.getKey(), entry.getValue());
+    }
+    return myFixture.findFileInTempDir(generator.getRoot());
   }
 
   @Nullable
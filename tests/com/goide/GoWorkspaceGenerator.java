@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide;
+
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Generates a synthetic GOPATH tree for performance tests and benchmarks, so they can scale from a few files to
+ * hundreds of thousands without downloading third-party sources.
+ * <p>
+ * Packages live in {@code <root>/pkgN} and import up to {@link #importFanOut} preceding packages. Each file declares
+ * constants, variables, types with methods and functions whose bodies use local, imported and vendored declarations.
+ * Optional parts are vendored packages nested {@link #vendorDepth} levels deep, build-tagged variants of files,
+ * {@code _test.go} files and dot imports. The output depends on the settings only.
+ */
+public class GoWorkspaceGenerator {
+  public static final String DEFAULT_ROOT = "workspace";
+
+  private String myRoot = DEFAULT_ROOT;
+  private int myPackages = 10;
+  private int myFilesPerPackage = 5;
+  private int myDeclarationsPerFile = 5;
+  private int myImportFanOut = 3;
+  private int myVendorDepth;
+  private int myBuildTaggedFilesPerPackage;
+  private int myTestFilesPerPackage;
+  private int myDotImportEvery;
+  private long mySeed = 42;
+
+  @NotNull
+  public GoWorkspaceGenerator root(@NotNull String root) {
+    myRoot = root;
+    return this;
+  }
+
+  @NotNull
+  public GoWorkspaceGenerator packages(int packages) {
+    myPackages = packages;
+    return this;
+  }
+
+  @NotNull
+  public GoWorkspaceGenerator filesPerPackage(int files) {
+    myFilesPerPackage = Math.max(1, files);
+    return this;
+  }
+
+  @NotNull
+  public GoWorkspaceGenerator declarationsPerFile(int declarations) {
+    myDeclarationsPerFile = Math.max(1, declarations);
+    return this;
+  }
+
+  /**
+   * Maximum number of other workspace packages imported by a file
+   */
+  @NotNull
+  public GoWorkspaceGenerator importFanOut(int fanOut) {
+    myImportFanOut = fanOut;
+    return this;
+  }
+
+  /**
+   * Number of nested vendor directories: {@code <root>/vendor/v1/vendor/v2/...}, each vendored package imports the next one
+   */
+  @NotNull
+  public GoWorkspaceGenerator vendorDepth(int depth) {
+    myVendorDepth = depth;
+    return this;
+  }
+
+  /**
+   * Number of declarations per package that come in linux, windows and {@code +build} constrained variants
+   */
+  @NotNull
+  public GoWorkspaceGenerator buildTaggedFilesPerPackage(int files) {
+    myBuildTaggedFilesPerPackage = files;
+    return this;
+  }
+
+  @NotNull
+  public GoWorkspaceGenerator testFilesPerPackage(int files) {
+    myTestFilesPerPackage = files;
+    return this;
+  }
+
+  /**
+   * Every n-th package imports its first dependency with a dot, 0 disables dot imports
+   */
+  @NotNull
+  public GoWorkspaceGenerator dotImportEvery(int n) {
+    myDotImportEvery = n;
+    return this;
+  }
+
+  @NotNull
+  public GoWorkspaceGenerator seed(long seed) {
+    mySeed = seed;
+    return this;
+  }
+
+  @NotNull
+  public String getRoot() {
+    return myRoot;
+  }
+
+  public int getFileCount() {
+    return myPackages * (myFilesPerPackage + myTestFilesPerPackage + 3 * myBuildTaggedFilesPerPackage) + myVendorDepth;
+  }
+
+  /**
+   * @return paths relative to the GOPATH source root mapped to file texts, in a stable order
+   */
+  @NotNull
+  public Map<String, String> generate() {
+    Map<String, String> result = ContainerUtil.newLinkedHashMap();
+    Random random = new Random(mySeed);
+    String vendorDirectory = myRoot;
+    for (int level = 1; level <= myVendorDepth; level++) {
+      vendorDirectory += "/vendor/" + vendoredPackage(level);
+      result.put(vendorDirectory + "/" + vendoredPackage(level) + ".go", generateVendoredFile(level));
+    }
+    for (int p = 0; p < myPackages; p++) {
+      List<Integer> imports = chooseImports(p, random);
+      boolean dotImport = myDotImportEvery > 0 && p % myDotImportEvery == 0 && !imports.isEmpty();
+      String directory = myRoot + "/" + packageName(p);
+      for (int f = 0; f < myFilesPerPackage; f++) {
+        result.put(directory + "/file" + f + ".go", generateFile(p, f, imports, dotImport && f == 0));
+      }
+      for (int t = 0; t < myTestFilesPerPackage; t++) {
+        result.put(directory + "/file" + t + "_test.go", generateTestFile(p, t));
+      }
+      for (int b = 0; b < myBuildTaggedFilesPerPackage; b++) {
+        result.put(directory + "/tagged" + b + "_linux.go", generateTaggedFile(p, b, null));
+        result.put(directory + "/tagged" + b + "_windows.go", generateTaggedFile(p, b, null));
+        result.put(directory + "/tagged" + b + "_other.go", generateTaggedFile(p, b, "!linux,!windows"));
+      }
+    }
+    return result;
+  }
+
+  @NotNull
+  private List<Integer> chooseImports(int p, @NotNull Random random) {
+    Set<Integer> result = ContainerUtil.newLinkedHashSet();
+    int fanOut = Math.min(myImportFanOut, p);
+    if (fanOut > 0) result.add(p - 1);
+    while (result.size() < fanOut) {
+      result.add(random.nextInt(p));
+    }
+    return ContainerUtil.newArrayList(result);
+  }
+
+  @NotNull
+  private String generateFile(int p, int f, @NotNull List<Integer> imports, boolean dotImport) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("package ").append(packageName(p)).append("\n\n");
+    if (!imports.isEmpty() || myVendorDepth > 0) {
+      sb.append("import (\n");
+      for (int i = 0; i < imports.size(); i++) {
+        sb.append('\t').append(dotImport && i == 0 ? ". " : "").append('"').append(importPath(imports.get(i))).append("\"\n");
+      }
+      if (myVendorDepth > 0) {
+        sb.append("\t\"").append(vendoredPackage(1)).append("\"\n");
+      }
+      sb.append(")\n\n");
+    }
+    for (int d = 0; d < myDeclarationsPerFile; d++) {
+      String suffix = p + "_" + f + "_" + d;
+      sb.append("const C_").append(suffix).append(" = ").append(d).append("\n\n");
+      sb.append("var V_").append(suffix).append(" = F_").append(suffix).append("(C_").append(suffix).append(")\n\n");
+      sb.append("type T_").append(suffix).append(" struct {\n\tA int\n\tB string\n}\n\n");
+      sb.append("func (t *T_").append(suffix).append(") Get() int {\n\treturn t.A + len(t.B)\n}\n\n");
+      sb.append("func F_").append(suffix).append("(x int) int {\n");
+      sb.append("\tt := &T_").append(suffix).append("{A: x}\n");
+      sb.append("\ty := t.Get() + V_").append(suffix).append('\n');
+      sb.append("\tunused := y\n");
+      if (d == 0) {
+        for (int i = 0; i < imports.size(); i++) {
+          int dependency = imports.get(i);
+          String qualifier = dotImport && i == 0 ? "" : packageName(dependency) + ".";
+          sb.append("\ty += ").append(qualifier).append("F_").append(dependency).append("_0_0(y)\n");
+        }
+        if (myVendorDepth > 0) {
+          sb.append("\ty += ").append(vendoredPackage(1)).append(".V1(y)\n");
+        }
+      }
+      sb.append("\treturn y\n}\n\n");
+      sb.append("func helper_").append(suffix).append("() int {\n\treturn F_").append(suffix).append("(1)\n}\n\n");
+    }
+    return sb.toString();
+  }
+
+  @NotNull
+  private String generateTestFile(int p, int t) {
+    String suffix = p + "_" + t % myFilesPerPackage + "_0";
+    return "package " + packageName(p) + "\n\n" +
+           "import \"testing\"\n\n" +
+           "func TestF_" + p + "_" + t + "(t *testing.T) {\n\tif F_" + suffix + "(1) != 0 {\n\t\tt.Fatal(C_" + suffix + ")\n\t}\n}\n";
+  }
+
+  @NotNull
+  private static String generateTaggedFile(int p, int b, @Nullable String buildFlags) {
+    return (buildFlags != null ? "// +build " + buildFlags + "\n\n" : "") +
+           "package " + packageName(p) + "\n\n" +
+           "func Tagged_" + p + "_" + b + "() int {\n\treturn F_" + p + "_0_0(" + b + ")\n}\n";
+  }
+
+  @NotNull
+  private String generateVendoredFile(int level) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("package ").append(vendoredPackage(level)).append("\n\n");
+    boolean last = level == myVendorDepth;
+    if (!last) {
+      sb.append("import \"").append(vendoredPackage(level + 1)).append("\"\n\n");
+    }
+    sb.append("func V").append(level).append("(x int) int {\n\treturn ")
+      .append(last ? "x" : vendoredPackage(level + 1) + ".V" + (level + 1) + "(x)").append("\n}\n");
+    return sb.toString();
+  }
+
+  @NotNull
+  private String importPath(int p) {
+    return myRoot + "/" + packageName(p);
+  }
+
+  @NotNull
+  private static String packageName(int p) {
+    return "pkg" + p;
+  }
+
+  @NotNull
+  private static String vendoredPackage(int level) {
+    return "v" + level;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide;
+
+import com.goide.inspections.unresolved.GoUnresolvedReferenceInspection;
+
+import java.util.Map;
+
+@SdkAware
+public class GoWorkspaceGeneratorTest extends GoCodeInsightFixtureTestCase {
+  public void testGeneratedWorkspaceResolves() {
+    GoWorkspaceGenerator generator = new GoWorkspaceGenerator()
+      .packages(4)
+      .filesPerPackage(2)
+      .declarationsPerFile(2)
+      .importFanOut(2)
+      .vendorDepth(2)
+      .buildTaggedFilesPerPackage(1)
+      .testFilesPerPackage(1)
+      .dotImportEvery(2);
+    Map<String, String> files = generator.generate();
+    assertEquals(generator.getFileCount(), files.size());
+    for (Map.Entry<String, String> entry : files.entrySet()) {
+      myFixture.addFileToProject(entry.getKey(), entry.getValue());
+    }
+
+    myFixture.enableInspections(GoUnresolvedReferenceInspection.class);
+    for (String path : files.keySet()) {
+      myFixture.configureFromTempProjectFile(path);
+      myFixture.checkHighlighting(false, false, false);
+    }
+  }
+
+  public void testOutputDependsOnSettingsOnly() {
+    assertEquals(new GoWorkspaceGenerator().packages(30).seed(1).generate(), new GoWorkspaceGenerator().packages(30).seed(1).generate());
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2015 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.completion;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.util.containers.ContainerUtil;
+
+import java.util.Collections;
+
+public class GoPublicNamesTableTest extends GoCodeInsightFixtureTestCase {
+  private static final GoPublicNamesTable TABLE = new GoPublicNamesTable(ContainerUtil.newArrayList(
+    "fmt.Println", "fmt.Printf", "fmt.Sprint", "bufio.NewScanner", "bufio.Scanner", "printer.Fprint", "net.Listen", "os.Exit"));
+
+  public void testPackageMatchesGoFirst() {
+    assertOrderedEquals(TABLE.getMatchingNames(GoCompletionUtil.createPrefixMatcher("pri"), Collections.emptyList()),
+                        "printer.Fprint", "fmt.Printf", "fmt.Println");
+  }
+
+  public void testWordMatches() {
+    assertOrderedEquals(TABLE.getMatchingNames(GoCompletionUtil.createPrefixMatcher("Scan"), Collections.emptyList()),
+                        "bufio.NewScanner", "bufio.Scanner");
+  }
+
+  public void testCamelHumpMatches() {
+    assertOrderedEquals(TABLE.getMatchingNames(GoCompletionUtil.createPrefixMatcher("NS"), Collections.emptyList()),
+                        "bufio.NewScanner");
+  }
+
+  public void testPackagesWithAliases() {
+    assertOrderedEquals(TABLE.getMatchingNames(GoCompletionUtil.createPrefixMatcher("Ex"), Collections.singletonList("net")),
+                        "os.Exit", "net.Listen");
+  }
+
+  public void testTableIsRebuiltOnlyWhenPublicNamesChange() {
+    myFixture.configureByText("a.go", "package foo; func Bar() {<caret>}\n");
+    GoPublicNamesTable table = GoPublicNamesTable.getInstance(getProject());
+    myFixture.type("println(1)");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertSame(table, GoPublicNamesTable.getInstance(getProject()));
+
+    myFixture.getEditor().getCaretModel().moveToOffset(myFixture.getFile().getTextLength());
+    myFixture.type("func Baz() {}\n");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertContainsElements(GoPublicNamesTable.getInstance(getProject()).getMatchingNames(GoCompletionUtil.createPrefixMatcher("Baz"),
+                                                                                        Collections.emptyList()), "foo.Baz");
+  }
+
+  public void testNoMatches() {
+    assertEmpty(TABLE.getMatchingNames(GoCompletionUtil.createPrefixMatcher("Zzz"), Collections.emptyList()));
+  }
+}
@@ -20,13 +20,15 @@ import com.goide.GoCodeInsightFixtureTestCase;
 import com.goide.runconfig.testing.coverage.GoCoverageAnnotator;
 import com.goide.runconfig.testing.coverage.GoCoverageProjectData;
 import com.goide.runconfig.testing.coverage.GoCoverageRunner;
+import com.intellij.openapi.vfs.CharsetToolkit;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
   public void testCoverage() throws IOException {
@@ -73,6 +75,16 @@ public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
     assertEquals("80% statements", mergeAnnotator.getFileCoverageInformationString(file));
   }
 
+  public void testMalformedLinesAndWindowsLineSeparators() throws IOException {
+    VirtualFile file = myFixture.getTempDirFixture().createFile("coverage.go");
+    String profile = "mode: count\r\ncoverage.go:20.56,21.14 1 3\r\ncoverage.go:21.14 1\r\n\r\nunknown.go:1.1,2.2 1 1\r\n" +
+                     "coverage.go:24.2,24.50 2 0";
+    GoCoverageProjectData data = GoCoverageRunner.parseCoverage(new ByteArrayInputStream(profile.getBytes(CharsetToolkit.UTF8_CHARSET)),
+                                                                myFixture.getProject(), myModule);
+    assertNotNull(data);
+    assertEquals("33.3% statements", annotate(data).getFileCoverageInformationString(file));
+  }
+
   private GoCoverageAnnotator annotate() throws IOException {
     return annotate(file());
   }
@@ -95,8 +107,8 @@ public class GoCoverageCalculationTest extends GoCodeInsightFixtureTestCase {
 
   @NotNull
   private GoCoverageProjectData parseData(@NotNull String coverageSource) throws IOException {
-    try (BufferedReader reader = new BufferedReader(new FileReader(new File(getTestDataPath(), coverageSource)))) {
-      GoCoverageProjectData data = GoCoverageRunner.parseCoverage(reader, myFixture.getProject(), myModule);
+    try (InputStream stream = new FileInputStream(new File(getTestDataPath(), coverageSource))) {
+      GoCoverageProjectData data = GoCoverageRunner.parseCoverage(stream, myFixture.getProject(), myModule);
       assertNotNull(data);
       return data;
     }
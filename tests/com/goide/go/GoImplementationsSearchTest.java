@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.go;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoNamedElement;
+import com.goide.psi.GoTypeSpec;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.DefinitionsScopedSearch;
+import com.intellij.util.CommonProcessors;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+public class GoImplementationsSearchTest extends GoCodeInsightFixtureTestCase {
+  private static final String TYPES = "package main\n" +
+                                      "type Reader interface { Read(p []byte) (int, error) }\n" +
+                                      "type ReadCloser interface { Reader; Close() error }\n" +
+                                      "type File struct {}\n" +
+                                      "func (f *File) Read(p []byte) (int, error) { return 0, nil }\n" +
+                                      "func (f *File) Close() error { return nil }\n" +
+                                      "type Buffer struct {}\n" +
+                                      "func (b Buffer) Read(p []byte) (int, error) { return 0, nil }\n" +
+                                      "type Wrong struct {}\n" +
+                                      "func (w Wrong) Read() {}\n";
+
+  public void testImplementations() {
+    myFixture.configureByText("a.go", TYPES);
+    assertSameElements(names(DefinitionsScopedSearch.search(type("Reader")).findAll()), "File", "Buffer");
+    assertSameElements(names(DefinitionsScopedSearch.search(type("ReadCloser")).findAll()), "File");
+  }
+
+  public void testImplementedInterfaces() {
+    myFixture.configureByText("a.go", TYPES);
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+    GoImplementationsSearch.processImplementedInterfaces(type("Buffer"), GlobalSearchScope.allScope(getProject()), processor);
+    assertSameElements(names(processor.getResults()), "Reader");
+  }
+
+  public void testImplementationsFromAnotherPackage() {
+    myFixture.addFileToProject("io/io.go", "package io; type Writer interface { Write(p []byte) (int, error) }");
+    myFixture.configureByText("a.go", "package main; type Out struct {}; func (o Out) Write(p []byte) (int, error) { return 0, nil }");
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+    GoImplementationsSearch.processImplementedInterfaces(type("Out"), GlobalSearchScope.allScope(getProject()), processor);
+    assertSameElements(names(processor.getResults()), "Writer");
+  }
+
+  public void testGroupedParameters() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type Adder interface { Add(a int, b int) int }\n" +
+                                      "type Calc struct {}\n" +
+                                      "func (c Calc) Add(a, b int) int { return a + b }\n" +
+                                      "type Unnamed struct {}\n" +
+                                      "func (u Unnamed) Add(int, int) int { return 0 }\n" +
+                                      "type Unary struct {}\n" +
+                                      "func (u Unary) Add(a int) int { return a }\n");
+    assertSameElements(names(DefinitionsScopedSearch.search(type("Adder")).findAll()), "Calc", "Unnamed");
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<>();
+    GoImplementationsSearch.processImplementedInterfaces(type("Calc"), GlobalSearchScope.allScope(getProject()), processor);
+    assertSameElements(names(processor.getResults()), "Adder");
+  }
+
+  public void testImplementationsStopWhenProcessorReturnsFalse() {
+    myFixture.configureByText("a.go", TYPES);
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<GoTypeSpec>() {
+      @Override
+      public boolean process(GoTypeSpec spec) {
+        super.process(spec);
+        return false;
+      }
+    };
+    assertFalse(GoImplementationsSearch.processImplementations(type("Reader"), GlobalSearchScope.allScope(getProject()), processor));
+    assertSize(1, processor.getResults());
+  }
+
+  public void testImplementationsWithMethodsInDifferentFiles() {
+    myFixture.addFileToProject("close.go", "package main; func (f *File) Close() error { return nil }");
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type ReadCloser interface { Read(p []byte) (int, error); Close() error }\n" +
+                                      "type File struct {}\n" +
+                                      "func (f *File) Read(p []byte) (int, error) { return 0, nil }\n" +
+                                      "type Reader struct {}\n" +
+                                      "func (r Reader) Read(p []byte) (int, error) { return 0, nil }\n");
+    assertSameElements(names(DefinitionsScopedSearch.search(type("ReadCloser")).findAll()), "File");
+  }
+
+  public void testImplementedInterfacesStopWhenProcessorReturnsFalse() {
+    myFixture.configureByText("a.go", TYPES);
+    CommonProcessors.CollectProcessor<GoTypeSpec> processor = new CommonProcessors.CollectProcessor<GoTypeSpec>() {
+      @Override
+      public boolean process(GoTypeSpec spec) {
+        super.process(spec);
+        return false;
+      }
+    };
+    assertFalse(GoImplementationsSearch.processImplementedInterfaces(type("File"), GlobalSearchScope.allScope(getProject()), processor));
+    assertSize(1, processor.getResults());
+  }
+
+  @NotNull
+  private GoTypeSpec type(@NotNull String name) {
+    GoTypeSpec spec = ContainerUtil.find(((GoFile)myFixture.getFile()).getTypes(), t -> name.equals(t.getName()));
+    assertNotNull(spec);
+    return spec;
+  }
+
+  @NotNull
+  private static Collection<String> names(@NotNull Collection<? extends PsiElement> elements) {
+    return ContainerUtil.map(elements, e -> ((GoNamedElement)e).getName());
+  }
+}
@@ -260,6 +260,11 @@ public class GoHighlightingTest extends GoCodeInsightFixtureTestCase {
     myFixture.checkHighlighting();
   }
 
+  public void testLocalsUsedAsCompositeLiteralKeys() {
+    myFixture.configureByText("a.go", "package main; func main() { const k = 1; i := 2; println(map[int]string{i: \"a\"}, []string{k: \"b\"}) }");
+    myFixture.checkHighlighting();
+  }
+
   public void testDuplicateFunctionsInOnePackage() {
     myFixture.configureByText("a.go", "package foo; func init() {bar()}; func bar() {};");
     myFixture.configureByText("b.go", "//+build appengine\n\npackage foo; func init() {buzz()}; func buzz() {}");
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.inspections.batch;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.inspections.unresolved.GoUnresolvedReferenceInspection;
+import com.goide.inspections.unresolved.GoUnusedVariableInspection;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class GoBatchInspectionRunnerTest extends GoCodeInsightFixtureTestCase {
+  public void testProblemsAreReportedPerPackage() {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a; func _() { unresolved() }");
+    PsiFile b1 = myFixture.addFileToProject("b/b1.go", "package b; func _() { x := 1 }");
+    PsiFile b2 = myFixture.addFileToProject("b/b2.go", "package b; func _() { b2() }; func b2() {}");
+
+    GoBatchInspectionRunner runner = new GoBatchInspectionRunner(getProject(), Arrays.asList(new GoUnresolvedReferenceInspection(),
+                                                                                          new GoUnusedVariableInspection()));
+    List<GoBatchInspectionRunner.PackageReport> reports = runner.withParallelism(2).run(
+      ContainerUtil.newArrayList(b2.getVirtualFile(), a.getVirtualFile(), b1.getVirtualFile()), new EmptyProgressIndicator());
+    assertSize(2, reports);
+
+    GoBatchInspectionRunner.PackageReport aReport = reports.get(0);
+    assertEquals(a.getVirtualFile().getParent(), aReport.getDirectory());
+    assertEquals(1, aReport.getFilesCount());
+    assertEquals("unresolved", getProblemText(aReport, "GoUnresolvedReference"));
+    assertEmpty(aReport.getProblems().get("GoUnusedVariable"));
+
+    GoBatchInspectionRunner.PackageReport bReport = reports.get(1);
+    assertEquals(2, bReport.getFilesCount());
+    assertEmpty(bReport.getProblems().get("GoUnresolvedReference"));
+    assertEquals("x", getProblemText(bReport, "GoUnusedVariable"));
+  }
+
+  public void testSuppressedProblemsAreSkipped() {
+    PsiFile a = myFixture.addFileToProject("a/a.go", "package a; func _() {\n//noinspection GoUnresolvedReference\nunresolved() }");
+    GoBatchInspectionRunner runner = new GoBatchInspectionRunner(getProject(), ContainerUtil.list(new GoUnresolvedReferenceInspection()));
+    List<GoBatchInspectionRunner.PackageReport> reports = runner.run(ContainerUtil.list(a.getVirtualFile()), new EmptyProgressIndicator());
+    assertEmpty(ContainerUtil.getOnlyItem(reports).getProblems().values());
+  }
+
+  @NotNull
+  private static String getProblemText(@NotNull GoBatchInspectionRunner.PackageReport report, @NotNull String toolName) {
+    ProblemDescriptor descriptor = ContainerUtil.getOnlyItem(report.getProblems().get(toolName));
+    assertNotNull(descriptor);
+    PsiElement element = descriptor.getPsiElement();
+    assertNotNull(element);
+    return element.getText();
+  }
+}
@@ -17,19 +17,59 @@
 package com.goide.parser;
 
 import com.goide.GoParserDefinition;
-import com.intellij.util.indexing.IndexingDataKeys;
+import com.goide.GoTypes;
+import com.goide.psi.GoBlockElementType;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
 
 public class GoParseAndConsumeTest extends GoParserTestBase {
   public GoParseAndConsumeTest()                 { super("parser", "go", new GoParserDefinition()); }
 
-  public void testTypeInBlock() throws Exception { doTest(); }
-
-  protected void doTest() throws Exception {
+  public void testTypeInBlock() throws Exception {
     String name = getTestName();
-    String text = loadFile(name + "." + myFileExt);
-    myFile = createPsiFile(name, text);
-    myFile.putUserData(IndexingDataKeys.VIRTUAL_FILE, myFile.getVirtualFile());
+    myFile = createPsiFile(name, loadFile(name + "." + myFileExt));
+    ASTNode[] functions = myFile.getNode().getChildren(TokenSet.create(GoTypes.FUNCTION_DECLARATION));
+    assertTrue("body with local type must be parsed eagerly", isExpanded(functions[0]));
+    assertFalse("body without local types must stay collapsed", isExpanded(functions[1]));
     ensureParsed(myFile);
     checkResult(name, myFile);
   }
+
+  public void testGroupedTypeInBlock() {
+    ASTNode[] functions = parseFunctions("package a\n" +
+                                         "func f() {\n\ttype (\n\t\tT int\n\t)\n}\n" +
+                                         "func g(x interface{}) {\n\tswitch x.(type) {\n\t}\n}\n");
+    assertTrue("body with grouped local types must be parsed eagerly", isExpanded(functions[0]));
+    assertFalse("type switch must not prevent collapsing", isExpanded(functions[1]));
+  }
+
+  public void testTypeWithCommentInBlock() {
+    ASTNode[] functions = parseFunctions("package a\n" +
+                                         "func f() {\n\ttype /* comment */ T int\n}\n" +
+                                         "func g() {\n\ttype // comment\n\tU int\n}\n");
+    assertTrue("body with commented local type must be parsed eagerly", isExpanded(functions[0]));
+    assertTrue("body with commented local type must be parsed eagerly", isExpanded(functions[1]));
+  }
+
+  public void testCollapsible() {
+    assertTrue(GoBlockElementType.isCollapsible("{ switch x.(type) {} }"));
+    assertFalse(GoBlockElementType.isCollapsible("{ type T int }"));
+    assertFalse(GoBlockElementType.isCollapsible("{ type (T int) }"));
+    assertFalse(GoBlockElementType.isCollapsible("{ type /* comment */ T int }"));
+    assertFalse(GoBlockElementType.isCollapsible("{ { }"));
+  }
+
+  @NotNull
+  private ASTNode[] parseFunctions(@NotNull String text) {
+    myFile = createPsiFile(getTestName(), text);
+    return myFile.getNode().getChildren(TokenSet.create(GoTypes.FUNCTION_DECLARATION));
+  }
+
+  private static boolean isExpanded(@NotNull ASTNode function) {
+    LazyParseableElement body = (LazyParseableElement)function.findChildByType(GoTypes.BLOCK);
+    assertNotNull(body);
+    return body.isParsed();
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.impl.GoPackageModificationTracker;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+
+public class GoPackageModificationTrackerTest extends GoCodeInsightFixtureTestCase {
+  public void testTypingInsideFunctionBodyDoesNotAffectOtherPackages() {
+    PsiFile other = myFixture.addFileToProject("other/other.go", "package other; func Foo() int { return 1 }");
+    myFixture.configureByText("a.go", "package main; func main() { <caret> }");
+    ModificationTracker ownTracker = tracker(myFixture.getFile());
+    ModificationTracker otherTracker = tracker(other);
+    long ownCount = ownTracker.getModificationCount();
+    long otherCount = otherTracker.getModificationCount();
+
+    myFixture.type("println(1)");
+    commit();
+    assertTrue(ownTracker.getModificationCount() > ownCount);
+    assertEquals(otherCount, otherTracker.getModificationCount());
+  }
+
+  public void testTopLevelChangeAffectsAllPackages() {
+    PsiFile other = myFixture.addFileToProject("other/other.go", "package other; func Foo() int { return 1 }");
+    myFixture.configureByText("a.go", "package main; <caret>");
+    ModificationTracker otherTracker = tracker(other);
+    long otherCount = otherTracker.getModificationCount();
+
+    myFixture.type("func Bar() {}");
+    commit();
+    assertTrue(otherTracker.getModificationCount() > otherCount);
+  }
+
+  public void testNewPublicNameChangesPublicNames() {
+    myFixture.configureByText("a.go", "package main; <caret>");
+    ModificationTracker tracker = GoPackageModificationTracker.getInstance(getProject()).getPublicNamesTracker();
+    long count = tracker.getModificationCount();
+
+    myFixture.type("func Bar() {}");
+    commit();
+    assertTrue(tracker.getModificationCount() > count);
+  }
+
+  public void testTopLevelChangeKeepingNamesDoesNotChangePublicNames() {
+    myFixture.configureByText("a.go", "package main; func Bar(<caret>) {}\n");
+    ModificationTracker tracker = GoPackageModificationTracker.getInstance(getProject()).getPublicNamesTracker();
+    long count = tracker.getModificationCount();
+
+    myFixture.type("a int");
+    commit();
+    myFixture.getEditor().getCaretModel().moveToOffset(myFixture.getFile().getTextLength());
+    myFixture.type("// comment\nfunc bar() {}\n");
+    commit();
+    assertEquals(count, tracker.getModificationCount());
+  }
+
+  private void commit() {
+    PsiDocumentManager.getInstance(myFixture.getProject()).commitAllDocuments();
+  }
+
+  private static ModificationTracker tracker(PsiFile file) {
+    Object dependency = GoPackageModificationTracker.getPackageDependency(file);
+    assertInstanceOf(dependency, ModificationTracker.class);
+    return (ModificationTracker)dependency;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoNamedElement;
+import com.goide.psi.GoReferenceExpression;
+import com.intellij.codeInsight.highlighting.ReadWriteAccessDetector;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+public class GoLocalDefUseTest extends GoCodeInsightFixtureTestCase {
+  public void testUsagesOfLocals() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "var global = 1\n" +
+                                      "func f(p int, unused int) {\n" +
+                                      "  v := p\n" +
+                                      "  v = 2\n" +
+                                      "  const c = 1\n" +
+                                      "  func() { println(c) }()\n" +
+                                      "L:\n" +
+                                      "  for { break L }\n" +
+                                      "}");
+    assertNull(GoLocalDefUse.forDefinition(definition("global")));
+    assertUsages("p", ReadWriteAccessDetector.Access.Read);
+    assertUsages("unused");
+    assertUsages("v", ReadWriteAccessDetector.Access.Write);
+    assertUsages("c", ReadWriteAccessDetector.Access.Read);
+    assertSize(1, usages("L"));
+  }
+
+  public void testShadowedDefinition() {
+    myFixture.configureByText("a.go", "package main; func f(v int) { { v := 1; println(v) }; println(v, v) }");
+    GoNamedElement parameter = definition("v");
+    GoLocalDefUse defUse = GoLocalDefUse.forDefinition(parameter);
+    assertNotNull(defUse);
+    assertSize(2, defUse.getUsages(parameter));
+  }
+
+  public void testCompositeLiteralKeys() {
+    myFixture.configureByText("a.go", "package main\n" +
+                                      "type S struct { k int }\n" +
+                                      "func f() {\n" +
+                                      "  const k = 1\n" +
+                                      "  i := 2\n" +
+                                      "  _ = map[int]string{i: \"a\"}\n" +
+                                      "  _ = [...]string{k: \"b\"}\n" +
+                                      "  _ = S{k: 3}\n" +
+                                      "}");
+    assertSize(1, usages("k"));
+    assertSize(1, usages("i"));
+  }
+
+  private void assertUsages(@NotNull String name, @NotNull ReadWriteAccessDetector.Access... accesses) {
+    GoLocalDefUse defUse = GoLocalDefUse.forDefinition(definition(name));
+    assertNotNull(defUse);
+    assertOrderedEquals(ContainerUtil.map(usages(name), e -> defUse.getAccess((GoReferenceExpression)e)), accesses);
+  }
+
+  @NotNull
+  private Collection<PsiElement> usages(@NotNull String name) {
+    GoNamedElement definition = definition(name);
+    GoLocalDefUse defUse = GoLocalDefUse.forDefinition(definition);
+    assertNotNull(defUse);
+    return defUse.getUsages(definition);
+  }
+
+  @NotNull
+  private GoNamedElement definition(@NotNull String name) {
+    GoNamedElement definition = ContainerUtil.find(PsiTreeUtil.findChildrenOfType(myFixture.getFile(), GoNamedElement.class),
+                                                   e -> name.equals(e.getName()));
+    assertNotNull(definition);
+    return definition;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoFile;
+import com.goide.psi.GoFunctionDeclaration;
+import com.goide.psi.GoMethodDeclaration;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+public class GoPackageDeclarationsTest extends GoCodeInsightFixtureTestCase {
+  public void testDuplicateFunctionInAnotherFile() {
+    GoFile a = (GoFile)myFixture.addFileToProject("pack/a.go", "package pack; func Foo() {}; func Bar() {}");
+    myFixture.addFileToProject("pack/b.go", "package pack; func Foo() {}");
+    assertTrue(GoPackageDeclarations.hasDuplicate(function(a, "Foo"), false));
+    assertFalse(GoPackageDeclarations.hasDuplicate(function(a, "Bar"), false));
+    assertFalse(GoPackageDeclarations.hasDuplicate(function(a, "Foo"), true));
+  }
+
+  public void testFunctionsOfAnotherPackageAreIgnored() {
+    GoFile a = (GoFile)myFixture.addFileToProject("pack/a.go", "package pack; func Foo() {}");
+    myFixture.addFileToProject("pack/b.go", "package other; func Foo() {}");
+    assertFalse(GoPackageDeclarations.hasDuplicate(function(a, "Foo"), false));
+  }
+
+  public void testDuplicateMethodsAreMatchedByReceiverType() {
+    GoFile a = (GoFile)myFixture.addFileToProject("pack/a.go", "package pack; type T int; type S int; func (T) Foo() {}; func (S) Bar() {}");
+    myFixture.addFileToProject("pack/b.go", "package pack; func (t *T) Foo() {}; func (T) Bar() {}");
+    assertTrue(GoPackageDeclarations.hasDuplicate(method(a, "Foo")));
+    assertFalse(GoPackageDeclarations.hasDuplicate(method(a, "Bar")));
+  }
+
+  public void testSummaryIsUpdatedOnNewFile() {
+    GoFile a = (GoFile)myFixture.addFileToProject("pack/a.go", "package pack; func Foo() {}");
+    assertFalse(GoPackageDeclarations.hasDuplicate(function(a, "Foo"), false));
+    myFixture.addFileToProject("pack/b.go", "package pack; func Foo() {}");
+    assertTrue(GoPackageDeclarations.hasDuplicate(function(a, "Foo"), false));
+  }
+
+  @NotNull
+  private static GoFunctionDeclaration function(@NotNull GoFile file, @NotNull String name) {
+    GoFunctionDeclaration function = ContainerUtil.find(file.getFunctions(), f -> name.equals(f.getName()));
+    assertNotNull(function);
+    return function;
+  }
+
+  @NotNull
+  private static GoMethodDeclaration method(@NotNull GoFile file, @NotNull String name) {
+    GoMethodDeclaration method = ContainerUtil.find(file.getMethods(), m -> name.equals(m.getName()));
+    assertNotNull(method);
+    return method;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.psi.impl;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.ContainerUtil;
+
+import java.util.List;
+
+public class GoPackageSymbolTableTest extends GoCodeInsightFixtureTestCase {
+  public void testFilesDeclaringName() {
+    PsiFile a = myFixture.addFileToProject("pack/a.go", "package pack; func Foo() {}; type Bar int");
+    PsiFile b = myFixture.addFileToProject("pack/b.go", "package pack; var Foo, Baz = 1, 2; const Qux = 1");
+    PsiDirectory directory = a.getParent();
+    assertNotNull(directory);
+
+    assertSameElements(GoPackageSymbolTable.getFilesDeclaring(directory, "Foo"), a, b);
+    assertSameElements(GoPackageSymbolTable.getFilesDeclaring(directory, "Bar"), a);
+    assertSameElements(GoPackageSymbolTable.getFilesDeclaring(directory, "Baz"), b);
+    assertSameElements(GoPackageSymbolTable.getFilesDeclaring(directory, "Qux"), b);
+    assertEmpty(GoPackageSymbolTable.getFilesDeclaring(directory, "Unknown"));
+  }
+
+  public void testTableIsUpdatedOnNewFile() {
+    PsiFile a = myFixture.addFileToProject("pack/a.go", "package pack; func Foo() {}");
+    PsiDirectory directory = a.getParent();
+    assertNotNull(directory);
+    assertEmpty(GoPackageSymbolTable.getFilesDeclaring(directory, "Bar"));
+
+    PsiFile b = myFixture.addFileToProject("pack/b.go", "package pack; func Bar() {}");
+    List<GoFile> files = GoPackageSymbolTable.getFilesDeclaring(directory, "Bar");
+    assertEquals(b, ContainerUtil.getFirstItem(files));
+  }
+
+  public void testResolveFromAnotherFileOfPackage() {
+    myFixture.addFileToProject("a.go", "package main; func foo() {}");
+    myFixture.configureByText("b.go", "package main; func main() { fo<caret>o() }");
+    assertNotNull(myFixture.getElementAtCaret());
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.testFramework.UsefulTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+
+public class GoBuildCacheTest extends UsefulTestCase {
+  private File myDirectory;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myDirectory = FileUtil.createTempDirectory("go", "cache");
+  }
+
+  public void testHit() throws IOException {
+    GoBuildCache cache = new GoBuildCache(myDirectory, 1024);
+    cache.store("key", createBinary("binary", 10));
+    File output = FileUtil.createTempFile("output", "", true);
+    assertTrue(cache.restore("key", output));
+    assertEquals("binary" + StringUtil.repeat("x", 10), FileUtil.loadFile(output));
+    assertTrue(output.canExecute());
+  }
+
+  public void testMiss() throws IOException {
+    GoBuildCache cache = new GoBuildCache(myDirectory, 1024);
+    cache.store("key", createBinary("binary", 10));
+    assertFalse(cache.restore("other", FileUtil.createTempFile("output", "", true)));
+  }
+
+  public void testEvictLeastRecentlyUsed() throws IOException {
+    GoBuildCache cache = new GoBuildCache(myDirectory, 250);
+    cache.store("first", createBinary("first", 100));
+    cache.store("second", createBinary("second", 100));
+    assertTrue(new File(myDirectory, "first").setLastModified(System.currentTimeMillis() + 10000));
+    assertTrue(new File(myDirectory, "second").setLastModified(System.currentTimeMillis() - 10000));
+    cache.store("third", createBinary("third", 100));
+
+    File output = FileUtil.createTempFile("output", "", true);
+    assertTrue(cache.restore("first", output));
+    assertFalse(cache.restore("second", output));
+    assertTrue(cache.restore("third", output));
+  }
+
+  public void testKeepJustStoredEntry() throws IOException {
+    GoBuildCache cache = new GoBuildCache(myDirectory, 50);
+    cache.store("key", createBinary("binary", 100));
+    assertTrue(cache.restore("key", FileUtil.createTempFile("output", "", true)));
+  }
+
+  @NotNull
+  private File createBinary(@NotNull String name, int size) throws IOException {
+    File file = FileUtil.createTempFile(name, ".bin", true);
+    FileUtil.writeToFile(file, name + StringUtil.repeat("x", size));
+    return file;
+  }
+}
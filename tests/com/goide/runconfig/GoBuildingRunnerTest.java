@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.SdkAware;
+import com.goide.runconfig.application.GoApplicationConfiguration;
+import com.goide.runconfig.application.GoApplicationRunConfigurationType;
+import com.goide.runconfig.application.GoApplicationRunningState;
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.Executor;
+import com.intellij.execution.executors.DefaultDebugExecutor;
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.execution.runners.ExecutionEnvironment;
+import com.intellij.execution.runners.ExecutionEnvironmentBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+@SdkAware
+public class GoBuildingRunnerTest extends GoCodeInsightFixtureTestCase {
+  public void testBuildCommandLine() throws ExecutionException {
+    assertEquals(Arrays.asList("build", "-race", "-o", "out", "foo/bar"), getBuildParameters(DefaultRunExecutor.getRunExecutorInstance()));
+  }
+
+  public void testDebugBuildCommandLine() throws ExecutionException {
+    assertEquals(Arrays.asList("build", "-race", "-o", "out", "-gcflags", "-N -l", "foo/bar"),
+                 getBuildParameters(DefaultDebugExecutor.getDebugExecutorInstance()));
+  }
+
+  @NotNull
+  private List<String> getBuildParameters(@NotNull Executor executor) throws ExecutionException {
+    GoApplicationConfiguration configuration = (GoApplicationConfiguration)GoApplicationRunConfigurationType.getInstance()
+      .getConfigurationFactories()[0].createTemplateConfiguration(getProject());
+    configuration.setKind(GoApplicationConfiguration.Kind.PACKAGE);
+    configuration.setPackage("foo/bar");
+    configuration.setGoParams("-race");
+    ExecutionEnvironment environment = new ExecutionEnvironmentBuilder(getProject(), executor)
+      .runProfile(configuration)
+      .runner(new GoBuildingRunner())
+      .build();
+    GoApplicationRunningState state = new GoApplicationRunningState(environment, myFixture.getModule(), configuration);
+    return GoBuildingRunner.createBuildExecutor(state, "out").createCommandLine().getParametersList().getList();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.runconfig.testing.frameworks.gotest.GotestFramework;
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
+
+import java.text.ParseException;
+
+public class GoParallelTestEventsConverterTest extends GoCodeInsightFixtureTestCase {
+  public void testPackagesAreReportedAsSuites() throws ParseException {
+    GoTestRunConfiguration configuration = new GoTestRunConfiguration(getProject(), "", GoTestRunConfigurationType.getInstance());
+    GoTestConsoleProperties consoleProperties = new GoTestConsoleProperties(configuration, new DefaultRunExecutor());
+    GoParallelTestEventsConverter converter = new GoParallelTestEventsConverter(GotestFramework.INSTANCE, consoleProperties);
+    LoggingServiceMessageVisitor visitor = new LoggingServiceMessageVisitor();
+    Key a = new GoParallelTestProcessHandler.PackageOutputType("./a", ProcessOutputTypes.STDOUT);
+    Key b = new GoParallelTestProcessHandler.PackageOutputType("./b", ProcessOutputTypes.STDOUT);
+
+    converter.processServiceMessages("=== RUN   TestFoo\n", b, visitor);
+    converter.processServiceMessages("--- FAIL: TestFoo (0.00s)\n", b, visitor);
+    converter.processServiceMessages("FAIL\n", b, visitor);
+    converter.processServiceMessages("\n", new GoParallelTestProcessHandler.PackageOutputType("./b", null), visitor);
+    converter.processServiceMessages("=== RUN   TestFoo\n", a, visitor);
+    converter.processServiceMessages("--- PASS: TestFoo (0.00s)\n", a, visitor);
+    converter.processServiceMessages("PASS\n", a, visitor);
+    converter.flushBufferBeforeTerminating();
+    Disposer.dispose(converter);
+
+    assertEquals("TestSuiteStarted\n" +
+                 "    - name=./b\n" +
+                 "  TestStarted\n" +
+                 "      - locationHint=gotest://TestFoo\n" +
+                 "      - name=TestFoo\n" +
+                 "    TestFailed\n" +
+                 "        - message=\n" +
+                 "        - name=TestFoo\n" +
+                 "  TestFinished\n" +
+                 "      - duration=42\n" +
+                 "      - name=TestFoo\n" +
+                 "TestSuiteFinished\n" +
+                 "    - name=./b\n" +
+                 "TestSuiteStarted\n" +
+                 "    - name=./a\n" +
+                 "  TestStarted\n" +
+                 "      - locationHint=gotest://TestFoo\n" +
+                 "      - name=TestFoo\n" +
+                 "  TestFinished\n" +
+                 "      - duration=42\n" +
+                 "      - name=TestFoo\n" +
+                 "TestSuiteFinished\n" +
+                 "    - name=./a\n", visitor.getLog());
+  }
+}
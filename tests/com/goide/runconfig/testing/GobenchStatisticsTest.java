@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.runconfig.testing;
+
+import com.goide.runconfig.testing.frameworks.gobench.GobenchResult;
+import com.goide.runconfig.testing.frameworks.gobench.GobenchStatistics;
+import com.intellij.testFramework.UsefulTestCase;
+
+import java.util.Map;
+
+public class GobenchStatisticsTest extends UsefulTestCase {
+  public void testParseResult() {
+    String line = "BenchmarkRead-4   \t 2000000\t       728 ns/op\t  16.45 MB/s\t     144 B/op\t       3 allocs/op";
+    GobenchResult result = GobenchResult.parse(line, "BenchmarkRead-4".length());
+    assertNotNull(result);
+    assertEquals(2000000, result.getIterations());
+    Map<String, Double> metrics = result.getMetrics();
+    assertOrderedEquals(metrics.keySet(), GobenchResult.NS_PER_OP, GobenchResult.MB_PER_S, GobenchResult.B_PER_OP,
+                        GobenchResult.ALLOCS_PER_OP);
+    assertEquals(728.0, metrics.get(GobenchResult.NS_PER_OP));
+    assertEquals(16.45, metrics.get(GobenchResult.MB_PER_S));
+  }
+
+  public void testParseNotResult() {
+    assertNull(GobenchResult.parse("Hellooooo", 0));
+    assertNull(GobenchResult.parse("2000000", 0));
+    assertNull(GobenchResult.parse("2000000 fast ns/op", 0));
+    assertNull(GobenchResult.parse("--- FAIL: BenchmarkRead", 0));
+  }
+
+  public void testMeanAndDeviation() {
+    double[] values = {100, 102, 98, 100};
+    assertEquals(100.0, GobenchStatistics.mean(values));
+    assertEquals("100 ± 2%", GobenchStatistics.formatMeanAndDeviation(values));
+  }
+
+  public void testSignificantDifference() {
+    double p = GobenchStatistics.mannWhitneyPValue(new double[]{10, 11, 12, 13, 14}, new double[]{20, 21, 22, 23, 24});
+    assertEquals(0.008, p, 0.0005);
+    assertTrue(p < GobenchStatistics.ALPHA);
+  }
+
+  public void testInsignificantDifference() {
+    double p = GobenchStatistics.mannWhitneyPValue(new double[]{10, 12, 14, 16}, new double[]{11, 13, 15, 17});
+    assertTrue(p > GobenchStatistics.ALPHA);
+    assertEquals(1.0, GobenchStatistics.mannWhitneyPValue(new double[]{10}, new double[]{20}));
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013-2016 Sergey Ignatov, Alexander Zolotov, Florin Patan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.goide.stubs.index;
+
+import com.goide.GoCodeInsightFixtureTestCase;
+import com.goide.psi.GoFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public class GoPackageFilesIndexTest extends GoCodeInsightFixtureTestCase {
+  public void testBuildFlags() {
+    GoFile file = (GoFile)myFixture.addFileToProject("foo/foo.go", "// +build linux,386 darwin\n// +build !cgo\n\npackage foo");
+    assertEquals(new GoPackageFilesIndex.FileInfo("linux,386 darwin|!cgo", false, false), getFileInfo(file, "foo"));
+  }
+
+  public void testCgo() {
+    GoFile file = (GoFile)myFixture.addFileToProject("foo/foo.go", "package foo; import \"C\"");
+    assertEquals(new GoPackageFilesIndex.FileInfo(null, true, false), getFileInfo(file, "foo"));
+  }
+
+  public void testMainFunction() {
+    GoFile file = (GoFile)myFixture.addFileToProject("foo/main.go", "package main; func main() {}");
+    assertEquals(new GoPackageFilesIndex.FileInfo(null, false, true), getFileInfo(file, "main"));
+    assertTrue(GoPackageFilesIndex.hasMainFunction(file));
+  }
+
+  public void testNoMainFunction() {
+    GoFile file = (GoFile)myFixture.addFileToProject("foo/main.go", "package main; func Main() {}");
+    assertEquals(new GoPackageFilesIndex.FileInfo(null, false, false), getFileInfo(file, "main"));
+    assertFalse(GoPackageFilesIndex.hasMainFunction(file));
+  }
+
+  public void testMainFunctionIsUpdated() {
+    GoFile file = (GoFile)myFixture.addFileToProject("foo/main.go", "package main; func Main() {}");
+    assertFalse(GoPackageFilesIndex.hasMainFunction(file));
+    myFixture.saveText(file.getVirtualFile(), "package main; func main() {}");
+    assertTrue(GoPackageFilesIndex.hasMainFunction(file));
+  }
+
+  @NotNull
+  private GoPackageFilesIndex.FileInfo getFileInfo(@NotNull GoFile file, @NotNull String packageName) {
+    GlobalSearchScope scope = GlobalSearchScope.fileScope(getProject(), file.getVirtualFile());
+    List<GoPackageFilesIndex.FileInfo> values = FileBasedIndex.getInstance().getValues(GoPackageFilesIndex.KEY, packageName, scope);
+    assertSize(1, values);
+    return values.get(0);
+  }
+}
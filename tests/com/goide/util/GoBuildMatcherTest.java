@@ -119,6 +119,17 @@ public class GoBuildMatcherTest extends GoCodeInsightFixtureTestCase {
     assertFalse(matcher.matchBuildFlag("linux,amd64,bar"));
   }
 
+  public void testMatchConstraint() {
+    GoBuildMatcher matcher = new GoTargetSystem("linux", "amd64", "1.4", null, ThreeState.UNSURE, "foo").getBuildMatcher();
+    assertTrue(matcher.matchConstraint(GoBuildConstraint.parse(null)));
+    assertTrue(matcher.matchConstraint(GoBuildConstraint.parse("darwin linux,amd64")));
+    assertTrue(matcher.matchConstraint(GoBuildConstraint.parse("darwin linux|foo")));
+    assertFalse(matcher.matchConstraint(GoBuildConstraint.parse("darwin linux|!foo")));
+    assertFalse(matcher.matchConstraint(GoBuildConstraint.parse("!!linux")));
+    assertTrue(matcher.matchConstraint(GoBuildConstraint.parse("!windows,!386 plan9")));
+    assertFalse(matcher.matchConstraint(GoBuildConstraint.parse("linux,!amd64 plan9")));
+  }
+
   private void checkMatchFile(@NotNull GoBuildMatcher matcher, boolean expected, @NotNull String fileName, @NotNull String text) {
     myFixture.configureByText(fileName, text + "\n\n package main\n\n func main() {}");
     assertEquals(fileName + ":" + text, expected, matcher.matchFile(myFixture.getFile()));
@@ -19,7 +19,15 @@ package com.goide.util;
 import com.goide.GoCodeInsightFixtureTestCase;
 import com.goide.project.GoBuildTargetSettings;
 import com.goide.project.GoModuleSettings;
+import com.goide.psi.GoFile;
 import com.goide.sdk.GoPackageUtil;
+import com.goide.stubs.index.GoIdFilter;
+import com.intellij.openapi.vfs.VirtualFileWithId;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.IdFilter;
 
 public class GoPackageUtilTest extends GoCodeInsightFixtureTestCase {
   public void testPackageNameOfTestPackageInNonTestFile() {
@@ -50,4 +58,42 @@ public class GoPackageUtilTest extends GoCodeInsightFixtureTestCase {
     assertSameElements(GoPackageUtil.getAllPackagesInDirectory(myFixture.getFile().getContainingDirectory(), null, true),
                        "not_ignored", "ignored");
   }
+
+  public void testPackageScope() {
+    PsiFile a = myFixture.addFileToProject("pack/a.go", "package pack");
+    PsiFile b = myFixture.addFileToProject("pack/b_test.go", "package pack_test");
+    PsiDirectory directory = a.getParent();
+    assertNotNull(directory);
+
+    GlobalSearchScope scope = GoPackageUtil.packageScope(directory, "pack");
+    assertTrue(scope.contains(a.getVirtualFile()));
+    assertFalse(scope.contains(b.getVirtualFile()));
+    assertSame(scope, GoPackageUtil.packageScope((GoFile)a));
+
+    IdFilter filter = GoIdFilter.getFilesFilter(scope);
+    assertNotNull(filter);
+    assertTrue(filter.containsFileId(((VirtualFileWithId)a.getVirtualFile()).getId()));
+    assertFalse(filter.containsFileId(((VirtualFileWithId)b.getVirtualFile()).getId()));
+  }
+
+  public void testPackageScopeIsUpdatedOnNewFile() {
+    PsiFile a = myFixture.addFileToProject("pack/a.go", "package pack");
+    PsiDirectory directory = a.getParent();
+    assertNotNull(directory);
+    GoPackageUtil.packageScope(directory, null);
+
+    PsiFile b = myFixture.addFileToProject("pack/b.go", "package pack");
+    assertTrue(GoPackageUtil.packageScope(directory, null).contains(b.getVirtualFile()));
+  }
+
+  public void testPackageScopeIsUpdatedOnPackageClauseChange() {
+    myFixture.addFileToProject("a.go", "package pack");
+    myFixture.configureByText("b.go", "package pac<caret>");
+    GoFile file = (GoFile)myFixture.getFile();
+    assertFalse(GoPackageUtil.packageScope(file.getContainingDirectory(), "pack").contains(file.getVirtualFile()));
+
+    myFixture.type("k");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertTrue(GoPackageUtil.packageScope(file.getContainingDirectory(), "pack").contains(file.getVirtualFile()));
+  }
 }